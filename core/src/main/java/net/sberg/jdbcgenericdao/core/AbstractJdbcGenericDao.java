@@ -2,6 +2,7 @@ package net.sberg.jdbcgenericdao.core;
 
 import org.apache.commons.beanutils.PropertyUtils;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.sql.Date;
 import java.sql.*;
 import java.text.NumberFormat;
@@ -9,163 +10,1312 @@ import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 public abstract class AbstractJdbcGenericDao {
 
     private final DaoDescriptorHelper daoDescriptorHelper = new DaoDescriptorHelper();
     private Map<String, DaoDescriptorBean> descrMap;
     private Map<String, Object> mutexMap;
-    private Map<String, Integer> idMap;
+    private Map<String, Long> idMap;
+    private DaoIdGenerator idGenerator = new DaoIdGenerator(0);
+    private DaoDialect dialect = DaoDialect.ANSI;
+    private int parallelMappingThreshold = 0;
+    private int parallelMappingChunkSize = 256;
+    private final Map<Class, Optional<DaoConstructorMapping>> constructorMappings = new ConcurrentHashMap<>();
+    private final ThreadLocal<DaoUnitOfWork> unitOfWork = new ThreadLocal<>();
+    private int asyncInsertBatchSize = 100;
+    private long asyncInsertMaxDelayMicros = 1000;
+    private int asyncInsertQueueCapacity = 10000;
+    private int lobMaterializeThreshold = 1 << 20;
+    private final ThreadLocal<DaoSession> session = new ThreadLocal<>();
+    private int sessionStatementCacheSize = 64;
+    private final DaoSingleFlight singleFlight = new DaoSingleFlight();
+    private volatile DaoWarmUpStats warmUpStats;
+    private final Map<String, DaoInsertBatcher> insertBatchers = new ConcurrentHashMap<>();
+    private boolean asyncInsertsShutDown;
+    private final DaoPartitions partitions = new DaoPartitions(new DaoPartitions.Context() {
+        @Override
+        public boolean isParallelAllowed() {
+            return isParallelFanOutAllowed() && !isSessionActive();
+        }
+
+        @Override
+        public void flushUnitOfWork() throws Exception {
+            AbstractJdbcGenericDao.this.flushUnitOfWork();
+        }
+
+        @Override
+        public Object getProperty(Object row, String property) throws Exception {
+            return getIdOfResult(row, property);
+        }
+    });
+    private final Map<String, String> criteriaWhereClauses = new ConcurrentHashMap<>();
+    private final DaoReferenceTables referenceTables = new DaoReferenceTables(new DaoReferenceTables.Context() {
+        @Override
+        public DaoDescriptorBean getDescriptor(String entityName) {
+            return descrMap.get(entityName);
+        }
+
+        @Override
+        public boolean isPartitioned(String entityName) {
+            return partitions.isPartitioned(entityName);
+        }
+
+        @Override
+        public List<String> getProperties(DaoDescriptorBean daoDescriptorBean) throws Exception {
+            SelectRowMapper mapper = new SelectRowMapper(null, daoDescriptorBean);
+            return mapper.isShareable() ? mapper.properties : null;
+        }
+
+        @Override
+        public void load(DaoDescriptorBean daoDescriptorBean, DaoReferenceTable referenceTable) throws Exception {
+            loadReferenceTable(daoDescriptorBean, referenceTable);
+        }
+    });
 
     private static final String PROP_IGNORE = "_ignore_";
 
+    protected void setDialect(DaoDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    protected void setParallelMapping(int threshold, int chunkSize) {
+        this.parallelMappingThreshold = threshold;
+        this.parallelMappingChunkSize = chunkSize;
+    }
+
+    protected void setAsyncInsert(int batchSize, long maxDelayMicros, int queueCapacity) {
+        this.asyncInsertBatchSize = batchSize;
+        this.asyncInsertMaxDelayMicros = maxDelayMicros;
+        this.asyncInsertQueueCapacity = queueCapacity;
+    }
+
+    protected void setNodeId(int nodeId) {
+        this.idGenerator = new DaoIdGenerator(nodeId);
+    }
+
+    protected void setPartitionFanOutWidth(int partitionFanOutWidth) {
+        partitions.setFanOutWidth(partitionFanOutWidth);
+    }
+
+    protected void setLobMaterializeThreshold(int lobMaterializeThreshold) {
+        this.lobMaterializeThreshold = lobMaterializeThreshold;
+    }
+
+    protected void setSessionStatementCacheSize(int sessionStatementCacheSize) {
+        this.sessionStatementCacheSize = sessionStatementCacheSize;
+    }
+
+    protected void setSingleFlight(boolean enabled) {
+        singleFlight.setEnabled(enabled);
+    }
+
+    public DaoSingleFlightStats getSingleFlightStats() {
+        return singleFlight.getStats();
+    }
+
     protected void init(String scanPackage) throws Exception {
-        descrMap = daoDescriptorHelper.createBeanMap(scanPackage);
+        init(daoDescriptorHelper.createBeanMap(scanPackage));
+    }
+
+    // descriptors built ahead of time, e.g. recorded by the quarkus extension
+    protected void init(Map<String, DaoDescriptorBean> descriptors) throws Exception {
+        descrMap = descriptors;
+        partitions.clear();
+        referenceTables.clear();
+        // an init after shutdownAsyncInserts starts over with new batchers
+        synchronized (insertBatchers) {
+            if (asyncInsertsShutDown) {
+                insertBatchers.clear();
+                asyncInsertsShutDown = false;
+            }
+        }
 
         mutexMap = Collections.synchronizedMap(new HashMap<>());
         idMap = Collections.synchronizedMap(new HashMap<>());
 
-        for (String beanName : descrMap.keySet()) {
-            DaoDescriptorBean daoDescriptorBean = descrMap.get(beanName);
-            if (!daoDescriptorBean.getTransientBean()) {
-                mutexMap.put(beanName, new Object());
-                idMap.put(beanName, getMaxId(daoDescriptorBean, Optional.empty()));
+        for (String beanName : descrMap.keySet()) {
+            DaoDescriptorBean daoDescriptorBean = descrMap.get(beanName);
+            if (!daoDescriptorBean.getTransientBean()) {
+                mutexMap.put(beanName, new Object());
+                if (daoDescriptorBean.getIdStrategy() == DaoIdStrategy.COUNTER) {
+                    idMap.put(beanName, getMaxId(daoDescriptorBean, Optional.empty()));
+                }
+            }
+        }
+    }
+
+    // renders and prepares the statements of every entity and maps the first row of its tables, the row is bound to the
+    // insert and update statements without executing them. this warms sql rendering, reflection, class loading and the
+    // mappers/binders. the prepared statements themselves only outlive the warm-up where prepareWarmUpStatement puts them
+    // into an adapter statement cache, by default they are closed with the warm-up session. each statement is done with
+    // before the next is prepared, so a small session statement cache never evicts one in use
+    public DaoWarmUpStats warmUp() throws Exception {
+        long start = System.nanoTime();
+        int entities = 0;
+        int statements = 0;
+        int rows = 0;
+        try (DaoSession current = openSession()) {
+            for (DaoDescriptorBean daoDescriptorBean : descrMap.values()) {
+                if (daoDescriptorBean.getTransientBean()) {
+                    continue;
+                }
+                entities++;
+                String keyColumn = daoDescriptorBean.getIdStrategy() == DaoIdStrategy.IDENTITY ? daoDescriptorBean.getPrimaryKey() : null;
+                boolean lobs = daoDescriptorBean.getProperties().values().stream().anyMatch(o -> DaoLobSupport.isLob(o.getTypeClass()));
+                for (Optional<String> tableName : partitions.getAllTableNames(daoDescriptorBean, Optional.empty())) {
+                    List result = new ArrayList();
+                    PreparedStatement select = prepareWarmUpStatement(current, daoDescriptorHelper.createSelectFirstStatement(null, daoDescriptorBean, null, tableName, dialect), null);
+                    // a lob row would be spooled for nothing
+                    if (!lobs) {
+                        new SelectLimitPreparedStatementSetter(daoDescriptorBean, null, null, null, 1).setValues(select);
+                        SelectRowMapper mapper = new SelectRowMapper(null, daoDescriptorBean);
+                        try (ResultSet rs = select.executeQuery()) {
+                            while (rs.next()) {
+                                result.add(mapper.mapRow(rs, result.size()));
+                            }
+                        }
+                        select.clearParameters();
+                    }
+                    current.release(select);
+                    PreparedStatement insert = prepareWarmUpStatement(current, daoDescriptorHelper.createInsertStatement(daoDescriptorBean, tableName), keyColumn);
+                    for (Object entity : result) {
+                        new InsertPreparedStatementSetter(daoDescriptorBean, entity).setValues(insert);
+                        insert.clearParameters();
+                    }
+                    current.release(insert);
+                    PreparedStatement update = prepareWarmUpStatement(current, daoDescriptorHelper.createUpdateStatement(daoDescriptorBean, tableName), null);
+                    for (Object entity : result) {
+                        new UpdatePreparedStatementSetter(daoDescriptorBean, entity, null).setValues(update);
+                        update.clearParameters();
+                    }
+                    current.release(update);
+                    current.release(prepareWarmUpStatement(current, daoDescriptorHelper.createDeleteStatement(daoDescriptorBean, tableName), null));
+                    current.release(prepareWarmUpStatement(current, daoDescriptorHelper.createSelectCountStatement(daoDescriptorBean, null, tableName), null));
+                    statements += 5;
+                    rows += result.size();
+                }
+            }
+        }
+        warmUpStats = new DaoWarmUpStats(entities, statements, rows, (System.nanoTime() - start) / 1000);
+        return warmUpStats;
+    }
+
+    // hook for the adapters to prepare the warm-up statements into their statement cache
+    protected PreparedStatement prepareWarmUpStatement(DaoSession session, String sql, String keyColumn) throws Exception {
+        return session.prepare(sql, keyColumn);
+    }
+
+    public DaoWarmUpStats getWarmUpStats() {
+        return warmUpStats;
+    }
+
+    public void beginUnitOfWork() {
+        if (unitOfWork.get() != null) {
+            return;
+        }
+        unitOfWork.set(new DaoUnitOfWork());
+        try {
+            registerUnitOfWork();
+        } catch (RuntimeException e) {
+            unitOfWork.remove();
+            throw e;
+        }
+    }
+
+    public boolean isUnitOfWorkActive() {
+        return unitOfWork.get() != null;
+    }
+
+    public void flushUnitOfWork() throws Exception {
+        DaoUnitOfWork current = unitOfWork.get();
+        if (current != null && !current.isEmpty()) {
+            flush(current);
+        }
+    }
+
+    public void endUnitOfWork() throws Exception {
+        try {
+            flushUnitOfWork();
+        } finally {
+            unitOfWork.remove();
+        }
+    }
+
+    public void discardUnitOfWork() {
+        unitOfWork.remove();
+    }
+
+    // hook for the adapters to flush the unit of work before the commit of the surrounding transaction
+    protected void registerUnitOfWork() {
+    }
+
+    // the dao operations of the calling thread run on one connection until the returned session is closed
+    public DaoSession openSession() throws Exception {
+        DaoSession current = session.get();
+        if (current != null) {
+            current.enter();
+            return current;
+        }
+        Connection connection = getSessionConnection();
+        current = new DaoSession(connection, sessionStatementCacheSize, () -> {
+            session.remove();
+            releaseSessionConnection(connection);
+        });
+        session.set(current);
+        return current;
+    }
+
+    public <T> T inSession(DaoSession.Work<T> work) throws Exception {
+        try (DaoSession ignored = openSession()) {
+            return work.execute();
+        }
+    }
+
+    public boolean isSessionActive() {
+        return session.get() != null;
+    }
+
+    // hooks for the adapters to hand out and take back the connection of a session
+    protected abstract Connection getSessionConnection() throws Exception;
+
+    protected void releaseSessionConnection(Connection connection) throws Exception {
+        connection.close();
+    }
+
+    // hook for the adapters to pin the reads of the surrounding transaction to the primary after a write
+    protected void markWrite() {
+    }
+
+    private int write(String sql, PreparedStatementFiller filler) throws Exception {
+        DaoSession current = session.get();
+        if (current == null) {
+            return manipulate(sql, filler);
+        }
+        markWrite();
+        return current.manipulate(sql, filler);
+    }
+
+    private int[] writeBatch(String sql, PreparedBatchStatementFiller filler) throws Exception {
+        DaoSession current = session.get();
+        if (current == null) {
+            return batchManipulate(sql, filler);
+        }
+        markWrite();
+        return current.batchManipulate(sql, filler);
+    }
+
+    private List<Object> writeReturningKeys(String sql, PreparedBatchStatementFiller filler, String keyColumn) throws Exception {
+        DaoSession current = session.get();
+        if (current == null) {
+            return batchManipulateReturningKeys(sql, filler, keyColumn);
+        }
+        markWrite();
+        return current.batchManipulateReturningKeys(sql, filler, keyColumn);
+    }
+
+    private boolean deferToUnitOfWork(DaoUnitOfWork.Operation operation, DaoDescriptorBean daoDescriptorBean, Optional<String> tableName, Object id, Object entity) {
+        DaoUnitOfWork current = unitOfWork.get();
+        if (current == null) {
+            return false;
+        }
+        current.record(operation, daoDescriptorBean, tableName, id, entity);
+        return true;
+    }
+
+    private void flush(DaoUnitOfWork current) throws Exception {
+        for (DaoUnitOfWork.Group group : current.drain()) {
+            DaoDescriptorBean daoDescriptorBean = group.daoDescriptorBean();
+            switch (group.operation()) {
+                case INSERT -> writeBatch(daoDescriptorHelper.createInsertStatement(daoDescriptorBean, group.tableName()), new InsertBatchPreparedStatementSetter(daoDescriptorBean, group.entities()));
+                case UPDATE -> writeBatch(daoDescriptorHelper.createUpdateStatement(daoDescriptorBean, group.tableName()), new UpdateBatchPreparedStatementSetter(daoDescriptorBean, group.entities(), null));
+                case DELETE -> writeBatch(daoDescriptorHelper.createDeleteStatement(daoDescriptorBean, group.tableName()), new DeleteBatchPreparedStatementSetter(daoDescriptorBean, group.ids()));
+            }
+        }
+    }
+
+    // pending writes of the unit of work are flushed before a read that touches one of their tables
+    private <T> List<T> read(String sql, PreparedStatementFiller filler, RowMapperFn<T> mapper, int maxRows) throws Exception {
+        DaoUnitOfWork current = unitOfWork.get();
+        if (current != null && current.isDirtyFor(sql)) {
+            flush(current);
+        }
+        DaoSession currentSession = session.get();
+        if (currentSession != null) {
+            return currentSession.query(sql, filler, mapper, maxRows);
+        }
+        return queryReadOnly(sql, filler, mapper, maxRows);
+    }
+
+    private <T> T readForObject(String sql, PreparedStatementFiller filler, ResultSetExtractor<T> extractor) throws Exception {
+        DaoUnitOfWork current = unitOfWork.get();
+        if (current != null && current.isDirtyFor(sql)) {
+            flush(current);
+        }
+        DaoSession currentSession = session.get();
+        if (currentSession != null) {
+            return currentSession.queryForObject(sql, filler, extractor);
+        }
+        return queryForObjectReadOnly(sql, filler, extractor);
+    }
+
+    // the ids of a partitioned entity stay unique across its partitions, the counter starts at the max id of all partitions
+    public void registerPartitionStrategy(String entityName, DaoPartitionStrategy partitionStrategy) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        if (daoDescriptorBean.getIdStrategy() == DaoIdStrategy.COUNTER) {
+            long maxId = 0;
+            for (String partitionTableName : partitionStrategy.getTableNames()) {
+                maxId = Math.max(maxId, getMaxId(daoDescriptorBean, Optional.of(partitionTableName)));
+            }
+            synchronized (mutexMap.get(entityName)) {
+                idMap.put(entityName, Math.max(maxId, idMap.get(entityName)));
+            }
+        }
+        partitions.register(entityName, partitionStrategy);
+    }
+
+    // hook for the adapters, false while the calling thread runs a transaction
+    protected boolean isParallelFanOutAllowed() {
+        return true;
+    }
+
+    private String getEntityName(Object entity) {
+        return entity.getClass().getName().contains("$") && !descrMap.containsKey(entity.getClass().getName())
+                ? entity.getClass().getSuperclass().getName()
+                : entity.getClass().getName();
+    }
+
+    private DaoConstructorMapping getConstructorMapping(Class type) throws Exception {
+        Optional<DaoConstructorMapping> mapping = constructorMappings.get(type);
+        if (mapping == null) {
+            mapping = Optional.ofNullable(DaoConstructorMapping.create(type));
+            constructorMappings.put(type, mapping);
+        }
+        return mapping.orElse(null);
+    }
+
+    private Object getProperty(Object entity, String property) throws Exception {
+        if (entity.getClass().isRecord()) {
+            return getConstructorMapping(entity.getClass()).getProperty(entity, property);
+        }
+        return PropertyUtils.getProperty(entity, property);
+    }
+
+    private void setIdProperty(Object entity, String idProperty, Object id) throws Exception {
+        if (entity.getClass().isRecord()) {
+            throw new IllegalStateException("error on inserting the entity: " + entity.getClass().getName() + " records are immutable and must carry their id");
+        }
+        PropertyUtils.setProperty(entity, idProperty, id);
+    }
+
+    private void setPlaceholderValue(PreparedStatement ps, int idx, Object value) throws Exception {
+        if (value == null) {
+            ps.setNull(idx, Types.NULL);
+            return;
+        }
+        int sqlType = DaoDescriptorProperty.getSqlType(value.getClass());
+        if (sqlType == Types.TIMESTAMP && value.getClass().equals(LocalDateTime.class)) {
+            value = Timestamp.valueOf((LocalDateTime) value);
+        } else if (sqlType == Types.DATE && value.getClass().equals(LocalDate.class)) {
+            value = Date.valueOf((LocalDate) value);
+        } else if (value.getClass().getSuperclass().equals(Enum.class)) {
+            value = value.toString();
+        }
+        setValue(ps, idx, value, sqlType);
+    }
+
+    // lobs are bound as streams, uuids untyped so the driver maps them to its uuid type
+    private void setValue(PreparedStatement ps, int idx, Object value, int sqlType) throws SQLException {
+        if (DaoLobSupport.bind(ps, idx, value)) {
+            return;
+        }
+        if (sqlType == Types.OTHER) {
+            ps.setObject(idx, value);
+        } else {
+            ps.setObject(idx, value, sqlType);
+        }
+    }
+
+    private void setIdValue(PreparedStatement ps, int idx, Object id) throws Exception {
+        setValue(ps, idx, id, DaoDescriptorProperty.getSqlType(id.getClass()));
+    }
+
+    // collection placeholders count with their padded in-list size
+    private int getPlaceholderCount(List<DaoPlaceholderProperty> placeholders) {
+        int result = 0;
+        for (DaoPlaceholderProperty daoPlaceholderProperty : placeholders) {
+            if (daoPlaceholderProperty.getValue() instanceof Collection) {
+                result += DaoDescriptorHelper.getInListBuckets(((Collection) daoPlaceholderProperty.getValue()).size()).stream().mapToInt(Integer::intValue).sum();
+            } else {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private void fillPreparedStatement(PreparedStatement ps, DaoDescriptorBean daoDescriptorBean, List dbProperties, Object entity, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        Object value;
+        int sqlType;
+        if (placeholders != null && !placeholders.isEmpty()) {
+            int idx = 1;
+            for (DaoPlaceholderProperty daoPlaceholderProperty : placeholders) {
+                if (daoPlaceholderProperty.getValue() instanceof Collection) {
+                    List<Object> values = new ArrayList<>((Collection) daoPlaceholderProperty.getValue());
+                    int offset = 0;
+                    for (int bucketSize : DaoDescriptorHelper.getInListBuckets(values.size())) {
+                        int chunkSize = Math.min(DaoDescriptorHelper.maxInListSize, values.size() - offset);
+                        // the padding repeats the last value of the chunk, duplicates in an in-list do not change the result
+                        for (int i = 0; i < bucketSize; i++) {
+                            setPlaceholderValue(ps, idx++, values.get(offset + Math.min(i, chunkSize - 1)));
+                        }
+                        offset += chunkSize;
+                    }
+                } else {
+                    setPlaceholderValue(ps, idx++, daoPlaceholderProperty.getValue());
+                }
+            }
+        } else {
+            String property;
+            DaoDescriptorProperty daoDescriptorProperty;
+            for (int i = 0; i < dbProperties.size(); i++) {
+                property = daoDescriptorBean.getDbPropertyMapping().get(dbProperties.get(i));
+                value = getProperty(entity, property);
+                daoDescriptorProperty = daoDescriptorBean.getProperties().get(property);
+                if (daoDescriptorProperty.isNotNull() && value == null) {
+                    throw new IllegalStateException("error on inserting the entity: " + daoDescriptorBean.getName() + " property " + property + " must not null");
+                }
+                sqlType = DaoDescriptorProperty.getSqlType(daoDescriptorProperty.getTypeClass());
+                if (value == null) {
+                    ps.setNull(i + 1, sqlType);
+                } else {
+                    if (sqlType == Types.TIMESTAMP && daoDescriptorProperty.getTypeClass().equals(LocalDateTime.class)) {
+                        value = Timestamp.valueOf((LocalDateTime) value);
+                    } else if (sqlType == Types.DATE && daoDescriptorProperty.getTypeClass().equals(LocalDate.class)) {
+                        value = Date.valueOf((LocalDate) value);
+                    } else if (daoDescriptorProperty.getTypeClass().isEnum()) {
+                        value = value.toString();
+                    }
+                    setValue(ps, i + 1, value, sqlType);
+                }
+            }
+        }
+    }
+
+    public Object selectOne(String entityName, DaoProjectionBean daoProjectionBean, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        List referenceRows = selectReferenceTable(entityName, daoProjectionBean, placeholders, 1);
+        if (referenceRows != null) {
+            return referenceRows.isEmpty() ? null : referenceRows.getFirst();
+        }
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        List<List> results = partitions.fanOut(partitions.getTableNames(daoDescriptorBean, placeholders), tableName -> {
+            String select = daoDescriptorHelper.createSelectFirstStatement(daoProjectionBean, daoDescriptorBean, placeholders, tableName, dialect);
+            return readShared(select, placeholders, new SelectLimitPreparedStatementSetter(daoDescriptorBean, placeholders, null, null, 1), new SelectRowMapper(daoProjectionBean, daoDescriptorBean), 1);
+        });
+        for (List result : results) {
+            if (!result.isEmpty()) {
+                return result.get(0);
+            }
+        }
+        return null;
+    }
+
+    public Object selectOne(String sql, String entityName, DaoProjectionBean daoProjectionBean, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        List result = readShared(sql, placeholders, new SelectPreparedStatementSetter(daoDescriptorBean, placeholders), new SelectRowMapper(daoProjectionBean, daoDescriptorBean), 1);
+        if (result.isEmpty()) {
+            return null;
+        }
+        return result.get(0);
+    }
+
+    public boolean exists(String entityName, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        List<List> results = partitions.fanOut(partitions.getTableNames(daoDescriptorBean, placeholders), tableName -> {
+            String select = daoDescriptorHelper.createSelectExistsStatement(daoDescriptorBean, placeholders, tableName, dialect);
+            return read(select, new SelectLimitPreparedStatementSetter(daoDescriptorBean, placeholders, null, null, 1), (rs, rownum) -> Boolean.TRUE, 1);
+        });
+        return results.stream().anyMatch(o -> !o.isEmpty());
+    }
+
+    public long count(String entityName, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        List<List<Long>> results = partitions.fanOut(partitions.getTableNames(daoDescriptorBean, placeholders), tableName -> {
+            String select = daoDescriptorHelper.createSelectCountStatement(daoDescriptorBean, placeholders, tableName);
+            return read(select, new SelectPreparedStatementSetter(daoDescriptorBean, placeholders), (rs, rownum) -> rs.getLong(1), 1);
+        });
+        return results.stream().flatMap(List::stream).mapToLong(Long::longValue).sum();
+    }
+
+    private List select(String entityName, DaoProjectionBean daoProjectionBean, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        List referenceRows = selectReferenceTable(entityName, daoProjectionBean, placeholders, 0);
+        if (referenceRows != null) {
+            return referenceRows;
+        }
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        List<List> results = partitions.fanOut(partitions.getTableNames(daoDescriptorBean, placeholders), tableName -> {
+            String select = daoDescriptorHelper.createSelectSimpleStatement(daoProjectionBean, daoDescriptorBean, placeholders, tableName);
+            return readShared(select, placeholders, new SelectPreparedStatementSetter(daoDescriptorBean, placeholders), new SelectRowMapper(daoProjectionBean, daoDescriptorBean), 0);
+        });
+        if (results.size() == 1) {
+            return results.getFirst();
+        }
+        List result = new ArrayList();
+        results.forEach(result::addAll);
+        return result;
+    }
+
+    private List select(String sql, String entityName, DaoProjectionBean daoProjectionBean, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        return readShared(sql, placeholders, new SelectPreparedStatementSetter(daoDescriptorBean, placeholders), new SelectRowMapper(daoProjectionBean, daoDescriptorBean), 0);
+    }
+
+    // identical selects running concurrently outside of a transaction share one execution, every caller converts
+    // its own copy of the raw rows into new results. lob streams can not be shared, these selects always run alone
+    private List readShared(String sql, List<DaoPlaceholderProperty> placeholders, PreparedStatementFiller filler, SelectRowMapper mapper, int maxRows) throws Exception {
+        if (!singleFlight.isEnabled() || mapper.isAtomar() || !mapper.isShareable() || isSessionActive() || unitOfWork.get() != null || !isParallelFanOutAllowed()) {
+            return maxRows == 0 ? selectRows(sql, filler, mapper) : read(sql, filler, mapper, maxRows);
+        }
+        List<Object[]> rows = singleFlight.execute(sql, maxRows, mapper.dbProperties, placeholders, () -> readForObject(sql, filler, rs -> mapper.readRows(rs, maxRows)));
+        return convertSharedRows(rows, mapper);
+    }
+
+    // the shared rows are copied before the conversion, beyond the parallel mapping threshold in parallel chunks
+    private List convertSharedRows(List<Object[]> rows, SelectRowMapper mapper) throws Exception {
+        List result = new ArrayList(rows.size());
+        int inline = parallelMappingThreshold <= 0 || mapper.isAtomar() ? rows.size() : Math.min(parallelMappingThreshold, rows.size());
+        for (int i = 0; i < inline; i++) {
+            result.add(mapper.convertRow(rows.get(i).clone()));
+        }
+        List<CompletableFuture<Object[]>> convertedChunks = new ArrayList<>();
+        for (int i = inline; i < rows.size(); i += parallelMappingChunkSize) {
+            Object[][] chunk = new Object[Math.min(parallelMappingChunkSize, rows.size() - i)][];
+            for (int j = 0; j < chunk.length; j++) {
+                chunk[j] = rows.get(i + j).clone();
+            }
+            convertedChunks.add(convertChunk(mapper, chunk, chunk.length));
+        }
+        joinChunks(result, convertedChunks);
+        return result;
+    }
+
+    private List selectRows(String sql, PreparedStatementFiller filler, SelectRowMapper mapper) throws Exception {
+        if (parallelMappingThreshold <= 0 || mapper.isAtomar()) {
+            return read(sql, filler, mapper, 0);
+        }
+        return readForObject(sql, filler, rs -> mapRowsInParallel(rs, mapper));
+    }
+
+    // the first rows are mapped inline, beyond the threshold the reading thread only extracts raw values
+    // and the conversion of each chunk runs in the fork-join pool, the chunks are joined in row order
+    private List mapRowsInParallel(ResultSet rs, SelectRowMapper mapper) throws Exception {
+        List result = new ArrayList();
+        List<CompletableFuture<Object[]>> convertedChunks = new ArrayList<>();
+        Object[][] chunk = null;
+        int chunkFill = 0;
+        int rownum = 0;
+        while (rs.next()) {
+            if (rownum < parallelMappingThreshold) {
+                result.add(mapper.mapRow(rs, rownum));
+            } else {
+                if (chunk == null) {
+                    chunk = new Object[parallelMappingChunkSize][];
+                }
+                chunk[chunkFill++] = mapper.readRow(rs);
+                if (chunkFill == chunk.length) {
+                    convertedChunks.add(convertChunk(mapper, chunk, chunkFill));
+                    chunk = null;
+                    chunkFill = 0;
+                }
+            }
+            rownum++;
+        }
+        if (chunk != null) {
+            convertedChunks.add(convertChunk(mapper, chunk, chunkFill));
+        }
+        joinChunks(result, convertedChunks);
+        return result;
+    }
+
+    // the chunks are joined in row order
+    private void joinChunks(List result, List<CompletableFuture<Object[]>> convertedChunks) throws Exception {
+        try {
+            for (CompletableFuture<Object[]> convertedChunk : convertedChunks) {
+                Collections.addAll(result, convertedChunk.join());
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    private CompletableFuture<Object[]> convertChunk(SelectRowMapper mapper, Object[][] rows, int size) {
+        return CompletableFuture.supplyAsync(() -> {
+            Object[] converted = new Object[size];
+            try {
+                for (int i = 0; i < size; i++) {
+                    converted[i] = mapper.convertRow(rows[i]);
+                }
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+            return converted;
+        }, ForkJoinPool.commonPool());
+    }
+
+    public List selectMany(String entityName, DaoProjectionBean daoProjectionBean, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        return select(entityName, daoProjectionBean, placeholders);
+    }
+
+    public List selectMany(String sql, String entityName, DaoProjectionBean daoProjectionBean, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        return select(sql, entityName, daoProjectionBean, placeholders);
+    }
+
+    private String getCriteriaWhereClause(DaoDescriptorBean daoDescriptorBean, DaoCriteria criteria) {
+        return criteriaWhereClauses.computeIfAbsent(daoDescriptorBean.getName() + "|" + criteria.getShape(), k -> criteria.createSql(daoDescriptorBean));
+    }
+
+    private List<DaoPlaceholderProperty> getCriteriaPlaceholders(DaoCriteria criteria) {
+        List<DaoPlaceholderProperty> placeholders = new ArrayList<>();
+        criteria.collectPlaceholders(placeholders);
+        return placeholders;
+    }
+
+    public List selectManyByCriteria(String entityName, DaoProjectionBean daoProjectionBean, DaoCriteria criteria) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        String where = getCriteriaWhereClause(daoDescriptorBean, criteria);
+        List<DaoPlaceholderProperty> placeholders = getCriteriaPlaceholders(criteria);
+        List<List> results = partitions.fanOut(partitions.getAllTableNames(daoDescriptorBean, Optional.empty()), tableName -> {
+            String select = daoDescriptorHelper.createSelectCriteriaStatement(daoProjectionBean, daoDescriptorBean, where, tableName);
+            return selectRows(select, new SelectPreparedStatementSetter(daoDescriptorBean, placeholders), new SelectRowMapper(daoProjectionBean, daoDescriptorBean));
+        });
+        if (results.size() == 1) {
+            return results.getFirst();
+        }
+        List result = new ArrayList();
+        results.forEach(result::addAll);
+        return result;
+    }
+
+    // values are the properties to set, followed by the criteria placeholders
+    public int updateByCriteria(String entityName, List<DaoPlaceholderProperty> values, DaoCriteria criteria, Optional<String> tableName) throws Exception {
+        flushUnitOfWork();
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        if (values.isEmpty()) {
+            throw new IllegalStateException("error on updating the entities: " + entityName + " no values to set");
+        }
+        String where = getCriteriaWhereClause(daoDescriptorBean, criteria);
+        List<DaoPlaceholderProperty> placeholders = new ArrayList<>(values);
+        placeholders.addAll(getCriteriaPlaceholders(criteria));
+        int result = 0;
+        for (Optional<String> partitionTableName : partitions.getAllTableNames(daoDescriptorBean, tableName)) {
+            String update = daoDescriptorHelper.createUpdateCriteriaStatement(daoDescriptorBean, values, where, partitionTableName);
+            result += write(update, new UpdatePreparedStatementSetter(daoDescriptorBean, null, placeholders));
+        }
+        return result;
+    }
+
+    public int deleteByCriteria(String entityName, DaoCriteria criteria, Optional<String> tableName) throws Exception {
+        flushUnitOfWork();
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        String where = getCriteriaWhereClause(daoDescriptorBean, criteria);
+        List<DaoPlaceholderProperty> placeholders = getCriteriaPlaceholders(criteria);
+        int result = 0;
+        for (Optional<String> partitionTableName : partitions.getAllTableNames(daoDescriptorBean, tableName)) {
+            String delete = daoDescriptorHelper.createDeleteCriteriaStatement(daoDescriptorBean, where, partitionTableName);
+            result += write(delete, new DeletePreparedStatementSetter(delete, placeholders));
+        }
+        return result;
+    }
+
+    // each partition is read ordered by the property, the sorted partitions are merged k-way
+    public List selectManyOrdered(String entityName, DaoProjectionBean daoProjectionBean, List<DaoPlaceholderProperty> placeholders, String orderProperty) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        if (daoProjectionBean != null && (daoProjectionBean.isAtomar() || !daoProjectionBean.getProperties().contains(orderProperty))) {
+            throw new IllegalStateException("error on selecting the entities: " + daoDescriptorBean.getName() + " projection must contain the order property " + orderProperty);
+        }
+        List<Optional<String>> tableNames = partitions.getTableNames(daoDescriptorBean, placeholders);
+        if (tableNames.size() == 1) {
+            String select = daoDescriptorHelper.createSelectOrderedStatement(daoProjectionBean, daoDescriptorBean, placeholders, tableNames.getFirst(), orderProperty);
+            return selectRows(select, new SelectPreparedStatementSetter(daoDescriptorBean, placeholders), new SelectRowMapper(daoProjectionBean, daoDescriptorBean));
+        }
+        return partitions.mergeOrdered(tableNames, (tableName, rows) -> {
+            String select = daoDescriptorHelper.createSelectOrderedStatement(daoProjectionBean, daoDescriptorBean, placeholders, tableName, orderProperty);
+            readInto(select, new SelectPreparedStatementSetter(daoDescriptorBean, placeholders), new SelectRowMapper(daoProjectionBean, daoDescriptorBean), rows);
+        }, orderProperty, 0);
+    }
+
+    private void readInto(String sql, PreparedStatementFiller filler, SelectRowMapper mapper, BlockingQueue<Object> rows) throws Exception {
+        readForObject(sql, filler, rs -> {
+            int rownum = 0;
+            while (rs.next()) {
+                rows.put(mapper.mapRow(rs, rownum++));
+            }
+            return null;
+        });
+    }
+
+    private String getIdProperty(DaoDescriptorBean daoDescriptorBean, DaoProjectionBean daoProjectionBean) {
+        String idProperty = daoDescriptorBean.getDbPropertyMapping().get(daoDescriptorBean.getPrimaryKey());
+        if (daoProjectionBean != null && (daoProjectionBean.isAtomar() || !daoProjectionBean.getProperties().contains(idProperty))) {
+            throw new IllegalStateException("error on selecting the entities: " + daoDescriptorBean.getName() + " projection must contain the primary key property " + idProperty);
+        }
+        return idProperty;
+    }
+
+    private Object getIdOfResult(Object result, String idProperty) throws Exception {
+        return result instanceof Map ? ((Map) result).get(idProperty) : getProperty(result, idProperty);
+    }
+
+    public DaoPage selectPage(String entityName, DaoProjectionBean daoProjectionBean, List<DaoPlaceholderProperty> placeholders, Object afterId, int pageSize) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        String idProperty = getIdProperty(daoDescriptorBean, daoProjectionBean);
+        List<Optional<String>> tableNames = partitions.getTableNames(daoDescriptorBean, placeholders);
+        List result;
+        if (tableNames.size() == 1) {
+            String select = daoDescriptorHelper.createSelectPageStatement(daoProjectionBean, daoDescriptorBean, placeholders, tableNames.getFirst(), afterId != null, false, dialect);
+            result = read(select, new SelectLimitPreparedStatementSetter(daoDescriptorBean, placeholders, afterId, null, pageSize + 1), new SelectRowMapper(daoProjectionBean, daoDescriptorBean), pageSize + 1);
+        } else {
+            // every partition returns its next pageSize + 1 rows after the cursor, merged by id
+            result = partitions.mergeOrdered(tableNames, (tableName, rows) -> {
+                String select = daoDescriptorHelper.createSelectPageStatement(daoProjectionBean, daoDescriptorBean, placeholders, tableName, afterId != null, false, dialect);
+                readInto(select, new SelectLimitPreparedStatementSetter(daoDescriptorBean, placeholders, afterId, null, pageSize + 1), new SelectRowMapper(daoProjectionBean, daoDescriptorBean), rows);
+            }, idProperty, pageSize + 1);
+        }
+
+        boolean hasNext = result.size() > pageSize;
+        if (hasNext) {
+            result = new ArrayList(result.subList(0, pageSize));
+        }
+        Object nextCursor = result.isEmpty() ? afterId : getIdOfResult(result.getLast(), idProperty);
+        return new DaoPage(result, nextCursor, 0, hasNext);
+    }
+
+    public DaoPage selectPageByOffset(String entityName, DaoProjectionBean daoProjectionBean, List<DaoPlaceholderProperty> placeholders, int offset, int pageSize) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        List<Optional<String>> tableNames = partitions.getTableNames(daoDescriptorBean, placeholders);
+        List result;
+        if (tableNames.size() == 1) {
+            String select = daoDescriptorHelper.createSelectPageStatement(daoProjectionBean, daoDescriptorBean, placeholders, tableNames.getFirst(), false, true, dialect);
+            result = read(select, new SelectLimitPreparedStatementSetter(daoDescriptorBean, placeholders, null, offset, pageSize + 1), new SelectRowMapper(daoProjectionBean, daoDescriptorBean), pageSize + 1);
+        } else {
+            // the offset only applies to the merged rows, every partition returns its first offset + pageSize + 1 rows
+            String idProperty = getIdProperty(daoDescriptorBean, daoProjectionBean);
+            List merged = partitions.mergeOrdered(tableNames, (tableName, rows) -> {
+                String select = daoDescriptorHelper.createSelectPageStatement(daoProjectionBean, daoDescriptorBean, placeholders, tableName, false, false, dialect);
+                readInto(select, new SelectLimitPreparedStatementSetter(daoDescriptorBean, placeholders, null, null, offset + pageSize + 1), new SelectRowMapper(daoProjectionBean, daoDescriptorBean), rows);
+            }, idProperty, offset + pageSize + 1);
+            result = new ArrayList(merged.subList(Math.min(offset, merged.size()), merged.size()));
+        }
+
+        boolean hasNext = result.size() > pageSize;
+        if (hasNext) {
+            result = new ArrayList(result.subList(0, pageSize));
+        }
+        return new DaoPage(result, null, offset + result.size(), hasNext);
+    }
+
+    public int[] selectInts(String entityName, String property, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        List<int[]> results = partitions.fanOut(partitions.getTableNames(daoDescriptorBean, placeholders), tableName -> {
+            String select = daoDescriptorHelper.createSelectSimpleStatement(new DaoProjectionBean(List.of(property), null, true), daoDescriptorBean, placeholders, tableName);
+            return readForObject(select, new SelectPreparedStatementSetter(daoDescriptorBean, placeholders), intsExtractor);
+        });
+        return results.size() == 1 ? results.getFirst() : results.stream().flatMapToInt(Arrays::stream).toArray();
+    }
+
+    public int[] selectInts(String sql, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        return readForObject(sql, new SelectPreparedStatementSetter(null, placeholders), intsExtractor);
+    }
+
+    public long[] selectLongs(String entityName, String property, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        List<long[]> results = partitions.fanOut(partitions.getTableNames(daoDescriptorBean, placeholders), tableName -> {
+            String select = daoDescriptorHelper.createSelectSimpleStatement(new DaoProjectionBean(List.of(property), null, true), daoDescriptorBean, placeholders, tableName);
+            return readForObject(select, new SelectPreparedStatementSetter(daoDescriptorBean, placeholders), longsExtractor);
+        });
+        return results.size() == 1 ? results.getFirst() : results.stream().flatMapToLong(Arrays::stream).toArray();
+    }
+
+    public long[] selectLongs(String sql, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        return readForObject(sql, new SelectPreparedStatementSetter(null, placeholders), longsExtractor);
+    }
+
+    public double[] selectDoubles(String entityName, String property, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        List<double[]> results = partitions.fanOut(partitions.getTableNames(daoDescriptorBean, placeholders), tableName -> {
+            String select = daoDescriptorHelper.createSelectSimpleStatement(new DaoProjectionBean(List.of(property), null, true), daoDescriptorBean, placeholders, tableName);
+            return readForObject(select, new SelectPreparedStatementSetter(daoDescriptorBean, placeholders), doublesExtractor);
+        });
+        return results.size() == 1 ? results.getFirst() : results.stream().flatMapToDouble(Arrays::stream).toArray();
+    }
+
+    public double[] selectDoubles(String sql, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        return readForObject(sql, new SelectPreparedStatementSetter(null, placeholders), doublesExtractor);
+    }
+
+    // the streams read row by row and hold a connection until they are exhausted or closed, use them in try-with-resources.
+    // they run on the connection of the current session or on one the adapter hands out like for a session, the
+    // partitions of a partitioned entity are read one after another
+    public IntStream streamInts(String entityName, String property, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        return openCursor(createColumnSelects(daoDescriptorBean, property, placeholders), new SelectPreparedStatementSetter(daoDescriptorBean, placeholders)).intStream();
+    }
+
+    public IntStream streamInts(String sql, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        return openCursor(List.of(sql), new SelectPreparedStatementSetter(null, placeholders)).intStream();
+    }
+
+    public LongStream streamLongs(String entityName, String property, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        return openCursor(createColumnSelects(daoDescriptorBean, property, placeholders), new SelectPreparedStatementSetter(daoDescriptorBean, placeholders)).longStream();
+    }
+
+    public LongStream streamLongs(String sql, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        return openCursor(List.of(sql), new SelectPreparedStatementSetter(null, placeholders)).longStream();
+    }
+
+    public DoubleStream streamDoubles(String entityName, String property, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        return openCursor(createColumnSelects(daoDescriptorBean, property, placeholders), new SelectPreparedStatementSetter(daoDescriptorBean, placeholders)).doubleStream();
+    }
+
+    public DoubleStream streamDoubles(String sql, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        return openCursor(List.of(sql), new SelectPreparedStatementSetter(null, placeholders)).doubleStream();
+    }
+
+    private List<String> createColumnSelects(DaoDescriptorBean daoDescriptorBean, String property, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        List<String> selects = new ArrayList<>();
+        for (Optional<String> tableName : partitions.getTableNames(daoDescriptorBean, placeholders)) {
+            selects.add(daoDescriptorHelper.createSelectSimpleStatement(new DaoProjectionBean(List.of(property), null, true), daoDescriptorBean, placeholders, tableName));
+        }
+        return selects;
+    }
+
+    private DaoCursor openCursor(List<String> sqls, PreparedStatementFiller filler) throws Exception {
+        DaoUnitOfWork current = unitOfWork.get();
+        if (current != null && sqls.stream().anyMatch(current::isDirtyFor)) {
+            flush(current);
+        }
+        DaoSession currentSession = session.get();
+        if (currentSession != null) {
+            return new DaoCursor(currentSession.getConnection(), sqls, filler, () -> {});
+        }
+        Connection connection = getSessionConnection();
+        return new DaoCursor(connection, sqls, filler, () -> releaseSessionConnection(connection));
+    }
+
+    // sql null values are skipped, the arrays grow by doubling and are trimmed once at the end
+    private final ResultSetExtractor<int[]> intsExtractor = rs -> {
+        int[] result = new int[64];
+        int size = 0;
+        while (rs.next()) {
+            int value = rs.getInt(1);
+            if (rs.wasNull()) {
+                continue;
+            }
+            if (size == result.length) {
+                result = Arrays.copyOf(result, size << 1);
+            }
+            result[size++] = value;
+        }
+        return Arrays.copyOf(result, size);
+    };
+
+    private final ResultSetExtractor<long[]> longsExtractor = rs -> {
+        long[] result = new long[64];
+        int size = 0;
+        while (rs.next()) {
+            long value = rs.getLong(1);
+            if (rs.wasNull()) {
+                continue;
+            }
+            if (size == result.length) {
+                result = Arrays.copyOf(result, size << 1);
+            }
+            result[size++] = value;
+        }
+        return Arrays.copyOf(result, size);
+    };
+
+    private final ResultSetExtractor<double[]> doublesExtractor = rs -> {
+        double[] result = new double[64];
+        int size = 0;
+        while (rs.next()) {
+            double value = rs.getDouble(1);
+            if (rs.wasNull()) {
+                continue;
+            }
+            if (size == result.length) {
+                result = Arrays.copyOf(result, size << 1);
+            }
+            result[size++] = value;
+        }
+        return Arrays.copyOf(result, size);
+    };
+
+    public DaoColumnarResult selectColumnar(String entityName, DaoProjectionBean daoProjectionBean, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        List<String> properties = daoProjectionBean == null
+                ? daoDescriptorBean.getAllProperties()
+                : daoProjectionBean.getProperties();
+        List<Class> typeClasses = properties.stream().map(o -> (Class) daoDescriptorBean.getProperties().get(o).getTypeClass()).collect(Collectors.toList());
+        List<DaoColumnarResult> results = partitions.fanOut(partitions.getTableNames(daoDescriptorBean, placeholders), tableName -> {
+            String select = daoDescriptorHelper.createSelectSimpleStatement(daoProjectionBean, daoDescriptorBean, placeholders, tableName);
+            return readForObject(select, new SelectPreparedStatementSetter(daoDescriptorBean, placeholders), rs -> {
+                DaoColumnarResult result = DaoColumnarResult.create(properties, typeClasses);
+                while (rs.next()) {
+                    result.readRow(rs);
+                }
+                return result;
+            });
+        });
+        DaoColumnarResult result = results.getFirst();
+        for (int i = 1; i < results.size(); i++) {
+            result.append(results.get(i));
+        }
+        result.trim();
+        return result;
+    }
+
+    public DaoColumnarResult selectColumnar(String sql, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        return readForObject(sql, new SelectPreparedStatementSetter(null, placeholders), rs -> {
+            List<String> columns = new ArrayList<>();
+            for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+                columns.add(rs.getMetaData().getColumnLabel(i));
+            }
+            DaoColumnarResult result = DaoColumnarResult.create(columns, rs.getMetaData());
+            while (rs.next()) {
+                result.readRow(rs);
+            }
+            result.trim();
+            return result;
+        });
+    }
+
+    // the ids may be of another type than the primary key property (Integer ids of a Long key, uuid strings), the
+    // result is keyed by the ids as passed. with an id array dialect every partition is read with one statement
+    public <K> Map<K, Object> selectByIds(String entityName, Collection<K> ids, DaoProjectionBean daoProjectionBean) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        String idProperty = getIdProperty(daoDescriptorBean, daoProjectionBean);
+        Class idType = getIdType(daoDescriptorBean);
+
+        List<K> distinctIds = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        List<Object> queryIds = distinctIds.stream().map(o -> normalizeId(idType, o)).distinct().collect(Collectors.toList());
+        List<List> results = partitions.fanOut(partitions.getTableNames(daoDescriptorBean, null), tableName -> {
+            if (dialect.supportsIdArray()) {
+                String select = daoDescriptorHelper.createSelectByIdArrayStatement(daoProjectionBean, daoDescriptorBean, tableName, dialect);
+                return read(select, new ByIdArrayPreparedStatementSetter(daoDescriptorBean, idType, queryIds), new SelectRowMapper(daoProjectionBean, daoDescriptorBean), 0);
+            }
+            List partitionResult = new ArrayList();
+            for (int i = 0; i < queryIds.size(); i += DaoDescriptorHelper.maxInListSize) {
+                List<Object> chunk = queryIds.subList(i, Math.min(i + DaoDescriptorHelper.maxInListSize, queryIds.size()));
+                int bucketSize = DaoDescriptorHelper.getInListBucketSize(chunk.size());
+                String select = daoDescriptorHelper.createSelectByIdsStatement(daoProjectionBean, daoDescriptorBean, tableName, bucketSize);
+                partitionResult.addAll(read(select, new ByIdsPreparedStatementSetter(daoDescriptorBean, chunk, bucketSize), new SelectRowMapper(daoProjectionBean, daoDescriptorBean), 0));
+            }
+            return partitionResult;
+        });
+        Map<Object, Object> found = new HashMap<>();
+        for (List partitionResult : results) {
+            for (Object o : partitionResult) {
+                found.put(normalizeId(idType, getIdOfResult(o, idProperty)), o);
+            }
+        }
+
+        Map<K, Object> result = new LinkedHashMap<>();
+        for (K id : distinctIds) {
+            Object o = found.get(normalizeId(idType, id));
+            if (o != null) {
+                result.put(id, o);
+            }
+        }
+        return result;
+    }
+
+    private Class getIdType(DaoDescriptorBean daoDescriptorBean) {
+        DaoDescriptorProperty idProperty = daoDescriptorBean.getProperties().get(daoDescriptorBean.getDbPropertyMapping().get(daoDescriptorBean.getPrimaryKey()));
+        return idProperty == null ? null : idProperty.getTypeClass();
+    }
+
+    // converts an id to the type of the primary key property, ids that do not fit are kept and simply find nothing
+    private static Object normalizeId(Class idType, Object id) {
+        if (id == null || idType == null || idType.isInstance(id)) {
+            return id;
+        }
+        if (id instanceof Number number && (id instanceof Integer || id instanceof Long || id instanceof Short || id instanceof Byte)) {
+            if (idType.equals(Long.class)) {
+                return number.longValue();
+            }
+            if (idType.equals(Integer.class) && number.longValue() == number.intValue()) {
+                return number.intValue();
+            }
+        }
+        if (idType.equals(UUID.class) && id instanceof String string) {
+            try {
+                return UUID.fromString(string);
+            } catch (IllegalArgumentException e) {
+                return id;
+            }
+        }
+        if (idType.equals(String.class)) {
+            return id.toString();
+        }
+        return id;
+    }
+
+    public Object insert(Object entity, Optional<String> tableName) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(getEntityName(entity));
+        Optional<String> writeTableName = partitions.getTableName(daoDescriptorBean, entity, tableName);
+        String insert = daoDescriptorHelper.createInsertStatement(daoDescriptorBean, writeTableName);
+
+        if (daoDescriptorBean.getIdStrategy() == DaoIdStrategy.IDENTITY) {
+            insertReturningKeys(daoDescriptorBean, writeTableName, List.of(entity));
+            return entity;
+        }
+        String idProperty = daoDescriptorBean.getDbPropertyMapping().get(daoDescriptorBean.getPrimaryKey());
+        Object id = assignId(daoDescriptorBean, entity, idProperty, tableName);
+
+        if (deferToUnitOfWork(DaoUnitOfWork.Operation.INSERT, daoDescriptorBean, writeTableName, id, entity)) {
+            return entity;
+        }
+        write(insert, new InsertPreparedStatementSetter(daoDescriptorBean, entity));
+        return entity;
+    }
+
+    public void batchInsert(List<Object> entities, Optional<String> tableName) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(getEntityName(entities.getFirst()));
+        String idProperty = daoDescriptorBean.getDbPropertyMapping().get(daoDescriptorBean.getPrimaryKey());
+
+        if (daoDescriptorBean.getIdStrategy() == DaoIdStrategy.IDENTITY) {
+            for (Map.Entry<Optional<String>, List<Object>> partition : partitions.partitionEntities(daoDescriptorBean, entities, tableName).entrySet()) {
+                insertReturningKeys(daoDescriptorBean, partition.getKey(), partition.getValue());
+            }
+            return;
+        }
+        for (Object entity : entities) {
+            assignId(daoDescriptorBean, entity, idProperty, tableName);
+        }
+
+        for (Map.Entry<Optional<String>, List<Object>> partition : partitions.partitionEntities(daoDescriptorBean, entities, tableName).entrySet()) {
+            if (isUnitOfWorkActive()) {
+                for (Object entity : partition.getValue()) {
+                    deferToUnitOfWork(DaoUnitOfWork.Operation.INSERT, daoDescriptorBean, partition.getKey(), getProperty(entity, idProperty), entity);
+                }
+                continue;
+            }
+            String insert = daoDescriptorHelper.createInsertStatement(daoDescriptorBean, partition.getKey());
+            writeBatch(insert, new InsertBatchPreparedStatementSetter(daoDescriptorBean, partition.getValue()));
+        }
+    }
+
+    // the future completes after the batch containing the entity is written, the ids are assigned by the batch
+    public CompletableFuture<Object> insertAsync(Object entity, Optional<String> tableName) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(getEntityName(entity));
+        String key = tableName.isEmpty() ? daoDescriptorBean.getName() : daoDescriptorBean.getName() + "@" + tableName.get();
+        DaoInsertBatcher batcher = insertBatchers.get(key);
+        if (batcher == null) {
+            // no batcher is started once shutdownAsyncInserts ran
+            synchronized (insertBatchers) {
+                if (asyncInsertsShutDown) {
+                    throw new IllegalStateException("error on inserting the entity: " + daoDescriptorBean.getName() + " async insert is shut down");
+                }
+                batcher = insertBatchers.computeIfAbsent(key, k -> new DaoInsertBatcher(k, asyncInsertBatchSize, asyncInsertMaxDelayMicros, asyncInsertQueueCapacity,
+                        entities -> flushAsyncInserts(daoDescriptorBean, tableName, entities)));
+            }
+        }
+        return batcher.submit(entity);
+    }
+
+    private void flushAsyncInserts(DaoDescriptorBean daoDescriptorBean, Optional<String> tableName, List<Object> entities) throws Exception {
+        String idProperty = daoDescriptorBean.getDbPropertyMapping().get(daoDescriptorBean.getPrimaryKey());
+        boolean identity = daoDescriptorBean.getIdStrategy() == DaoIdStrategy.IDENTITY;
+        if (!identity) {
+            for (Object entity : entities) {
+                assignId(daoDescriptorBean, entity, idProperty, tableName);
+            }
+        }
+        for (Map.Entry<Optional<String>, List<Object>> partition : partitions.partitionEntities(daoDescriptorBean, entities, tableName).entrySet()) {
+            if (identity) {
+                insertReturningKeys(daoDescriptorBean, partition.getKey(), partition.getValue());
+                continue;
+            }
+            String insert = daoDescriptorHelper.createInsertStatement(daoDescriptorBean, partition.getKey());
+            writeBatch(insert, new InsertBatchPreparedStatementSetter(daoDescriptorBean, partition.getValue()));
+        }
+    }
+
+    // selectOne/selectMany of the entity without projection and with equality placeholders are served from an off-heap
+    // copy of its table. writes don't touch the copy, reloadReferenceTable swaps in a fresh one
+    public void registerReferenceTable(String entityName, String... indexedProperties) throws Exception {
+        referenceTables.register(entityName, List.of(indexedProperties));
+    }
+
+    public void reloadReferenceTable(String entityName) throws Exception {
+        referenceTables.reload(entityName);
+    }
+
+    public void unregisterReferenceTable(String entityName) {
+        referenceTables.unregister(entityName);
+    }
+
+    public Map<String, DaoReferenceTableStats> getReferenceTableStats() {
+        return referenceTables.getStats();
+    }
+
+    private void loadReferenceTable(DaoDescriptorBean daoDescriptorBean, DaoReferenceTable referenceTable) throws Exception {
+        SelectRowMapper mapper = new SelectRowMapper(null, daoDescriptorBean);
+        String select = daoDescriptorHelper.createSelectSimpleStatement(null, daoDescriptorBean, null, Optional.empty());
+        readForObject(select, null, rs -> {
+            while (rs.next()) {
+                Object[] values = mapper.readRow(rs);
+                mapper.convertValues(values);
+                referenceTable.add(values);
             }
-        }
+            return null;
+        });
     }
 
-    private String getEntityName(Object entity) {
-        return entity.getClass().getName().contains("$")
-                ? entity.getClass().getSuperclass().getName()
-                : entity.getClass().getName();
+    // writes the reference tables and the id counters to a temp file next to the target, which replaces the target at once
+    public void writeSnapshot(Path file) throws Exception {
+        Map<String, Long> counters;
+        synchronized (idMap) {
+            counters = new TreeMap<>(idMap);
+        }
+        DaoSnapshot.write(file, counters, referenceTables);
     }
 
-    private void fillPreparedStatement(PreparedStatement ps, DaoDescriptorBean daoDescriptorBean, List dbProperties, Object entity, List<DaoPlaceholderProperty> placeholders) throws Exception {
-        Object value;
-        int sqlType;
-        if (placeholders != null && !placeholders.isEmpty()) {
-            for (int i = 0; i < placeholders.size(); i++) {
-                DaoPlaceholderProperty daoPlaceholderProperty = placeholders.get(i);
-                sqlType = DaoDescriptorProperty.getSqlType(daoPlaceholderProperty.getValue().getClass());
-                if (sqlType == Types.TIMESTAMP && daoPlaceholderProperty.getValue().getClass().equals(LocalDateTime.class)) {
-                    value = Timestamp.valueOf((LocalDateTime) daoPlaceholderProperty.getValue());
-                } else if (sqlType == Types.DATE && daoPlaceholderProperty.getValue().getClass().equals(LocalDate.class)) {
-                    value = Date.valueOf((LocalDate) daoPlaceholderProperty.getValue());
-                } else if (daoPlaceholderProperty.getValue().getClass().getSuperclass().equals(Enum.class)) {
-                    value = daoPlaceholderProperty.getValue().toString();
-                } else {
-                    value = daoPlaceholderProperty.getValue();
+    // maps the snapshot and serves its reference tables at once. the returned future completes when the background check
+    // against the database is done: tables whose row count or max id differ are reloaded and swapped in. tables of
+    // changed entities are skipped, a missing, truncated or corrupt file or one of another version loads nothing
+    public CompletableFuture<Void> loadSnapshot(Path file) throws Exception {
+        DaoSnapshot.Content content = DaoSnapshot.read(file, referenceTables);
+        if (content == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        for (Map.Entry<String, Long> counter : content.counters().entrySet()) {
+            if (idMap.containsKey(counter.getKey())) {
+                synchronized (mutexMap.get(counter.getKey())) {
+                    idMap.put(counter.getKey(), Math.max(counter.getValue(), idMap.get(counter.getKey())));
                 }
-                ps.setObject(i + 1, value, sqlType);
             }
-        } else {
-            String property;
-            DaoDescriptorProperty daoDescriptorProperty;
-            for (int i = 0; i < dbProperties.size(); i++) {
-                property = daoDescriptorBean.getDbPropertyMapping().get(dbProperties.get(i));
-                value = PropertyUtils.getProperty(entity, property);
-                daoDescriptorProperty = daoDescriptorBean.getProperties().get(property);
-                if (daoDescriptorProperty.isNotNull() && value == null) {
-                    throw new IllegalStateException("error on inserting the entity: " + daoDescriptorBean.getName() + " property " + property + " must not null");
-                }
-                sqlType = DaoDescriptorProperty.getSqlType(daoDescriptorProperty.getTypeClass());
-                if (value == null) {
-                    ps.setNull(i + 1, sqlType);
-                } else {
-                    if (sqlType == Types.TIMESTAMP && daoDescriptorProperty.getTypeClass().equals(LocalDateTime.class)) {
-                        value = Timestamp.valueOf((LocalDateTime) value);
-                    } else if (sqlType == Types.DATE && daoDescriptorProperty.getTypeClass().equals(LocalDate.class)) {
-                        value = Date.valueOf((LocalDate) value);
-                    } else if (daoDescriptorProperty.getTypeClass().getSuperclass().equals(Enum.class)) {
-                        value = value.toString();
+        }
+        for (DaoSnapshot.Table snapshotTable : content.tables()) {
+            referenceTables.put(snapshotTable.entityName(), snapshotTable.referenceTable());
+        }
+        if (content.tables().isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+            try {
+                for (DaoSnapshot.Table snapshotTable : content.tables()) {
+                    // unregistered or reloaded meanwhile
+                    if (referenceTables.get(snapshotTable.entityName()) != snapshotTable.referenceTable()) {
+                        continue;
+                    }
+                    DaoDescriptorBean daoDescriptorBean = descrMap.get(snapshotTable.entityName());
+                    Class idType = getIdType(daoDescriptorBean);
+                    long dbMaxId = idType.equals(Integer.class) || idType.equals(Long.class) ? getMaxId(daoDescriptorBean, Optional.empty()) : 0;
+                    if (count(snapshotTable.entityName(), null) != snapshotTable.rows() || dbMaxId != snapshotTable.maxId()) {
+                        reloadReferenceTable(snapshotTable.entityName());
                     }
-                    ps.setObject(i + 1, value, sqlType);
                 }
+            } catch (Exception e) {
+                throw new CompletionException(e);
             }
-        }
+        }, r -> Thread.ofVirtual().name("jdbcGenericDao-snapshot-refresh").start(r));
     }
 
-    public Object selectOne(String entityName, DaoProjectionBean daoProjectionBean, List<DaoPlaceholderProperty> placeholders) throws Exception {
-        List result = select(entityName, daoProjectionBean, placeholders);
-        if (result.isEmpty()) {
+    // null if the reference table of the entity can't answer the select
+    private List selectReferenceTable(String entityName, DaoProjectionBean daoProjectionBean, List<DaoPlaceholderProperty> placeholders, int maxRows) throws Exception {
+        List<Object[]> rows = daoProjectionBean != null ? null : referenceTables.find(entityName, placeholders, maxRows);
+        if (rows == null) {
             return null;
         }
-        return result.get(0);
-    }
-
-    public Object selectOne(String sql, String entityName, DaoProjectionBean daoProjectionBean, List<DaoPlaceholderProperty> placeholders) throws Exception {
-        List result = select(sql, entityName, daoProjectionBean, placeholders);
-        if (result.isEmpty()) {
-            return null;
+        SelectRowMapper mapper = new SelectRowMapper(null, descrMap.get(entityName));
+        mapper.prepare();
+        List result = new ArrayList(rows.size());
+        for (Object[] row : rows) {
+            result.add(mapper.createResult(row));
         }
-        return result.get(0);
-    }
-
-    private List select(String entityName, DaoProjectionBean daoProjectionBean, List<DaoPlaceholderProperty> placeholders) throws Exception {
-        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
-        String select = daoDescriptorHelper.createSelectSimpleStatement(daoProjectionBean, daoDescriptorBean, placeholders);
-        List result = query(select, new SelectPreparedStatementSetter(daoDescriptorBean, placeholders), new SelectRowMapper(daoProjectionBean, daoDescriptorBean));
         return result;
     }
 
-    private List select(String sql, String entityName, DaoProjectionBean daoProjectionBean, List<DaoPlaceholderProperty> placeholders) throws Exception {
-        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
-        List result = query(sql, new SelectPreparedStatementSetter(daoDescriptorBean, placeholders), new SelectRowMapper(daoProjectionBean, daoDescriptorBean));
+    public Map<String, DaoAsyncInsertStats> getAsyncInsertStats() {
+        Map<String, DaoAsyncInsertStats> result = new TreeMap<>();
+        insertBatchers.forEach((key, batcher) -> result.put(key, batcher.getStats()));
         return result;
     }
 
-    public List selectMany(String entityName, DaoProjectionBean daoProjectionBean, List<DaoPlaceholderProperty> placeholders) throws Exception {
-        return select(entityName, daoProjectionBean, placeholders);
-    }
-
-    public List selectMany(String sql, String entityName, DaoProjectionBean daoProjectionBean, List<DaoPlaceholderProperty> placeholders) throws Exception {
-        return select(sql, entityName, daoProjectionBean, placeholders);
+    // final, later insertAsync calls fail. The batchers are kept for getAsyncInsertStats
+    public void shutdownAsyncInserts() throws InterruptedException {
+        synchronized (insertBatchers) {
+            asyncInsertsShutDown = true;
+        }
+        for (DaoInsertBatcher batcher : insertBatchers.values()) {
+            batcher.shutdown();
+        }
     }
 
-    public Object insert(Object entity, Optional<String> tableName) throws Exception {
-        DaoDescriptorBean daoDescriptorBean = descrMap.get(getEntityName(entity));
-        String insert = daoDescriptorHelper.createInsertStatement(daoDescriptorBean, tableName);
-
-        String idProperty = daoDescriptorBean.getDbPropertyMapping().get(daoDescriptorBean.getPrimaryKey());
-        Integer id = (Integer) PropertyUtils.getProperty(entity, idProperty);
-        if (id == null || id <= 0) {
-            id = getNextId(daoDescriptorBean, tableName);
-            PropertyUtils.setProperty(entity, idProperty, id);
+    private long getMaxId(DaoDescriptorBean daoDescriptorBean, Optional<String> tableName) throws Exception {
+        String selectMaxId = daoDescriptorHelper.createSelectMaxIdStatement(daoDescriptorBean, tableName);
+        Long id = queryForObject(selectMaxId, rs -> rs.next()?rs.getLong(1):null);
+        if (id == null) {
+            id = 0L;
         }
-
-        manipulate(insert, new InsertPreparedStatementSetter(daoDescriptorBean, entity));
-        return entity;
+        return id;
     }
 
-    public void batchInsert(List<Object> entities, Optional<String> tableName) throws Exception {
-        DaoDescriptorBean daoDescriptorBean = descrMap.get(getEntityName(entities.getFirst()));
+    // identity inserts bypass the unit of work, they need their keys at once: pending changes are flushed first to keep the order
+    private void insertReturningKeys(DaoDescriptorBean daoDescriptorBean, Optional<String> tableName, List<Object> entities) throws Exception {
+        flushUnitOfWork();
         String insert = daoDescriptorHelper.createInsertStatement(daoDescriptorBean, tableName);
-
+        List<Object> keys = writeReturningKeys(insert, new InsertBatchPreparedStatementSetter(daoDescriptorBean, entities), daoDescriptorBean.getPrimaryKey());
+        if (keys.size() != entities.size()) {
+            throw new IllegalStateException("error on inserting the entity: " + daoDescriptorBean.getName() + " got " + keys.size() + " generated keys for " + entities.size() + " rows");
+        }
         String idProperty = daoDescriptorBean.getDbPropertyMapping().get(daoDescriptorBean.getPrimaryKey());
-
-        for (Iterator<Object> iterator = entities.iterator(); iterator.hasNext(); ) {
-            Object entity = iterator.next();
-            Integer id = (Integer) PropertyUtils.getProperty(entity, idProperty);
-            if (id == null || id <= 0) {
-                id = getNextId(daoDescriptorBean, tableName);
-                PropertyUtils.setProperty(entity, idProperty, id);
-            }
+        boolean longId = daoDescriptorBean.getProperties().get(idProperty).getTypeClass().equals(Long.class);
+        for (int i = 0; i < entities.size(); i++) {
+            Number key = (Number) keys.get(i);
+            setIdProperty(entities.get(i), idProperty, longId ? (Object) key.longValue() : (Object) key.intValue());
         }
-
-        batchManipulate(insert, new InsertBatchPreparedStatementSetter(daoDescriptorBean, entities));
     }
 
-    private int getMaxId(DaoDescriptorBean daoDescriptorBean, Optional<String> tableName) throws Exception {
-        String selectMaxId = daoDescriptorHelper.createSelectMaxIdStatement(daoDescriptorBean, tableName);
-        Integer id = queryForObject(selectMaxId, rs -> rs.next()?rs.getInt(1):null);
-        if (id == null) {
-            id = 0;
+    // an id below 1 is unset for numeric primary keys
+    private Object assignId(DaoDescriptorBean daoDescriptorBean, Object entity, String idProperty, Optional<String> tableName) throws Exception {
+        Object id = getProperty(entity, idProperty);
+        if (id == null || (id instanceof Number && ((Number) id).longValue() <= 0)) {
+            id = getNextId(daoDescriptorBean, tableName);
+            setIdProperty(entity, idProperty, id);
         }
         return id;
     }
 
-    private int getNextId(DaoDescriptorBean daoDescriptorBean, Optional<String> tableName) throws Exception {
+    private Object getNextId(DaoDescriptorBean daoDescriptorBean, Optional<String> tableName) throws Exception {
+        Class idType = daoDescriptorBean.getProperties().get(daoDescriptorBean.getDbPropertyMapping().get(daoDescriptorBean.getPrimaryKey())).getTypeClass();
+        return switch (daoDescriptorBean.getIdStrategy()) {
+            case SNOWFLAKE -> idGenerator.nextSnowflake();
+            case UUID_V7 -> idType.equals(String.class) ? idGenerator.nextUuidV7().toString() : idGenerator.nextUuidV7();
+            case IDENTITY -> throw new IllegalStateException("the ids of the entity: " + daoDescriptorBean.getName() + " are assigned by the database");
+            default -> {
+                long id = getNextCounterId(daoDescriptorBean, tableName);
+                if (idType.equals(Long.class)) {
+                    yield id;
+                }
+                yield Math.toIntExact(id);
+            }
+        };
+    }
+
+    private long getNextCounterId(DaoDescriptorBean daoDescriptorBean, Optional<String> tableName) throws Exception {
 
         if (!tableName.isEmpty()) {
             synchronized (Integer.valueOf(tableName.get().hashCode())) {
@@ -177,7 +1327,7 @@ public abstract class AbstractJdbcGenericDao {
         }
 
         synchronized (mutexMap.get(tableName.isEmpty()?daoDescriptorBean.getName():tableName.get())) {
-            Integer id = idMap.get(tableName.isEmpty()?daoDescriptorBean.getName():tableName.get());
+            Long id = idMap.get(tableName.isEmpty()?daoDescriptorBean.getName():tableName.get());
             id++;
             idMap.put(tableName.isEmpty()?daoDescriptorBean.getName():tableName.get(), id);
             return id;
@@ -187,17 +1337,20 @@ public abstract class AbstractJdbcGenericDao {
     public void delete(Object entity, Optional<String> tableName) throws Exception {
         DaoDescriptorBean daoDescriptorBean = descrMap.get(getEntityName(entity));
         String idProperty = daoDescriptorBean.getDbPropertyMapping().get(daoDescriptorBean.getPrimaryKey());
-        int id = (Integer) PropertyUtils.getProperty(entity, idProperty);
-        delete(id, daoDescriptorBean, tableName);
+        Object id = getProperty(entity, idProperty);
+        delete(id, daoDescriptorBean, partitions.getTableName(daoDescriptorBean, entity, tableName));
     }
 
-    private void delete(int id, DaoDescriptorBean daoDescriptorBean, Optional<String> tableName) throws Exception {
+    private void delete(Object id, DaoDescriptorBean daoDescriptorBean, Optional<String> tableName) throws Exception {
+        if (deferToUnitOfWork(DaoUnitOfWork.Operation.DELETE, daoDescriptorBean, tableName, id, null)) {
+            return;
+        }
         String delete = daoDescriptorHelper.createDeleteStatement(daoDescriptorBean, tableName);
-        manipulate(delete, new PreparedStatementFiller() {
+        write(delete, new PreparedStatementFiller() {
             @Override
             public void setValues(PreparedStatement ps) throws SQLException {
                 try {
-                    ps.setObject(1, id, Types.INTEGER);
+                    setIdValue(ps, 1, id);
                 }
                 catch (Exception e) {
                     throw new SQLException("error on deleting the entity: " + daoDescriptorBean.getName(), e);
@@ -206,32 +1359,101 @@ public abstract class AbstractJdbcGenericDao {
         });
     }
 
-    public void delete(int id, String entityName, Optional<String> tableName) throws Exception {
+    public void delete(Object id, String entityName, Optional<String> tableName) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
+        for (Optional<String> partitionTableName : partitions.getAllTableNames(daoDescriptorBean, tableName)) {
+            delete(id, daoDescriptorBean, partitionTableName);
+        }
+    }
+
+    public int batchDelete(List<Object> entities, Optional<String> tableName) throws Exception {
+        if (entities.isEmpty()) {
+            return 0;
+        }
+        DaoDescriptorBean daoDescriptorBean = descrMap.get(getEntityName(entities.getFirst()));
+        String idProperty = daoDescriptorBean.getDbPropertyMapping().get(daoDescriptorBean.getPrimaryKey());
+        int result = 0;
+        for (Map.Entry<Optional<String>, List<Object>> partition : partitions.partitionEntities(daoDescriptorBean, entities, tableName).entrySet()) {
+            List<Object> ids = new ArrayList<>(partition.getValue().size());
+            for (Object entity : partition.getValue()) {
+                ids.add(getProperty(entity, idProperty));
+            }
+            result += deleteByIds(daoDescriptorBean, ids, partition.getKey());
+        }
+        return result;
+    }
+
+    public int deleteByIds(String entityName, Collection<?> ids, Optional<String> tableName) throws Exception {
         DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
-        delete(id, daoDescriptorBean, tableName);
+        int result = 0;
+        for (Optional<String> partitionTableName : partitions.getAllTableNames(daoDescriptorBean, tableName)) {
+            result += deleteByIds(daoDescriptorBean, ids, partitionTableName);
+        }
+        return result;
+    }
+
+    // chunked and padded like selectByIds or one statement with an id array, returns the number of deleted rows. inside a
+    // unit of work the delete is not deferred, the pending writes of the table are flushed and the rows are deleted at once
+    private int deleteByIds(DaoDescriptorBean daoDescriptorBean, Collection<?> ids, Optional<String> tableName) throws Exception {
+        Class idType = getIdType(daoDescriptorBean);
+        List<Object> distinctIds = ids.stream().filter(Objects::nonNull).map(o -> normalizeId(idType, o)).distinct().collect(Collectors.toList());
+        if (distinctIds.isEmpty()) {
+            return 0;
+        }
+        DaoUnitOfWork current = unitOfWork.get();
+        if (current != null && current.isDirtyFor(daoDescriptorHelper.createDeleteStatement(daoDescriptorBean, tableName))) {
+            flush(current);
+        }
+        if (dialect.supportsIdArray()) {
+            return write(daoDescriptorHelper.createDeleteByIdArrayStatement(daoDescriptorBean, tableName, dialect), new ByIdArrayPreparedStatementSetter(daoDescriptorBean, idType, distinctIds));
+        }
+        int result = 0;
+        for (int i = 0; i < distinctIds.size(); i += DaoDescriptorHelper.maxInListSize) {
+            List<Object> chunk = distinctIds.subList(i, Math.min(i + DaoDescriptorHelper.maxInListSize, distinctIds.size()));
+            int bucketSize = DaoDescriptorHelper.getInListBucketSize(chunk.size());
+            String delete = daoDescriptorHelper.createDeleteByIdsStatement(daoDescriptorBean, tableName, bucketSize);
+            result += write(delete, new ByIdsPreparedStatementSetter(daoDescriptorBean, chunk, bucketSize));
+        }
+        return result;
     }
 
     public void delete(String sql, List<DaoPlaceholderProperty> placeholders) throws Exception {
-        manipulate(sql, new DeletePreparedStatementSetter(sql, placeholders));
+        flushUnitOfWork();
+        write(sql, new DeletePreparedStatementSetter(sql, placeholders));
     }
 
     public Object update(Object entity, Optional<String> tableName) throws Exception {
         DaoDescriptorBean daoDescriptorBean = descrMap.get(getEntityName(entity));
+        tableName = partitions.getTableName(daoDescriptorBean, entity, tableName);
         String update = daoDescriptorHelper.createUpdateStatement(daoDescriptorBean, tableName);
 
-        manipulate(update, new UpdatePreparedStatementSetter(daoDescriptorBean, entity, null));
+        String idProperty = daoDescriptorBean.getDbPropertyMapping().get(daoDescriptorBean.getPrimaryKey());
+        if (deferToUnitOfWork(DaoUnitOfWork.Operation.UPDATE, daoDescriptorBean, tableName, getProperty(entity, idProperty), entity)) {
+            return entity;
+        }
+        write(update, new UpdatePreparedStatementSetter(daoDescriptorBean, entity, null));
         return entity;
     }
 
     public void batchUpdate(List<Object> entities, Optional<String> tableName) throws Exception {
         DaoDescriptorBean daoDescriptorBean = descrMap.get(getEntityName(entities.getFirst()));
-        String update = daoDescriptorHelper.createUpdateStatement(daoDescriptorBean, tableName);
-        batchManipulate(update, new UpdateBatchPreparedStatementSetter(daoDescriptorBean, entities, null));
+        String idProperty = daoDescriptorBean.getDbPropertyMapping().get(daoDescriptorBean.getPrimaryKey());
+        for (Map.Entry<Optional<String>, List<Object>> partition : partitions.partitionEntities(daoDescriptorBean, entities, tableName).entrySet()) {
+            if (isUnitOfWorkActive()) {
+                for (Object entity : partition.getValue()) {
+                    deferToUnitOfWork(DaoUnitOfWork.Operation.UPDATE, daoDescriptorBean, partition.getKey(), getProperty(entity, idProperty), entity);
+                }
+                continue;
+            }
+            String update = daoDescriptorHelper.createUpdateStatement(daoDescriptorBean, partition.getKey());
+            writeBatch(update, new UpdateBatchPreparedStatementSetter(daoDescriptorBean, partition.getValue(), null));
+        }
     }
 
     public int update(String sql, String entityName, List<DaoPlaceholderProperty> placeholders) throws Exception {
+        flushUnitOfWork();
         DaoDescriptorBean daoDescriptorBean = descrMap.get(entityName);
-        return manipulate(sql, new UpdatePreparedStatementSetter(daoDescriptorBean, null, placeholders));
+        return write(sql, new UpdatePreparedStatementSetter(daoDescriptorBean, null, placeholders));
     }
 
     public Object deserializeEntity(String entityName, String[] properties, String[] values, Object[] formatters) throws Exception {
@@ -255,6 +1477,10 @@ public abstract class AbstractJdbcGenericDao {
                 PropertyUtils.setProperty(bean, property, value.trim());
             } else if (!value.trim().isEmpty() && daoDescriptorProperty.getTypeClass().equals(Integer.class)) {
                 PropertyUtils.setProperty(bean, property, Integer.parseInt(value));
+            } else if (!value.trim().isEmpty() && daoDescriptorProperty.getTypeClass().equals(Long.class)) {
+                PropertyUtils.setProperty(bean, property, Long.parseLong(value.trim()));
+            } else if (!value.trim().isEmpty() && daoDescriptorProperty.getTypeClass().equals(UUID.class)) {
+                PropertyUtils.setProperty(bean, property, UUID.fromString(value.trim()));
             } else if (!value.trim().isEmpty() && daoDescriptorProperty.getTypeClass().equals(BigDecimal.class)) {
                 PropertyUtils.setProperty(bean, property, BigDecimal.valueOf(((NumberFormat) formatter).parse(value.replaceAll("\\.", ",")).doubleValue()));
             } else if (!value.trim().isEmpty() && daoDescriptorProperty.getTypeClass().equals(Boolean.class)) {
@@ -267,7 +1493,7 @@ public abstract class AbstractJdbcGenericDao {
                 PropertyUtils.setProperty(bean, property, new Timestamp(((SimpleDateFormat) formatter).parse(value).getTime()).toLocalDateTime());
             } else if (value != null && daoDescriptorProperty.getTypeClass().equals(LocalDate.class)) {
                 PropertyUtils.setProperty(bean, property, new Date(((SimpleDateFormat) formatter).parse(value).getTime()).toLocalDate());
-            } else if (value != null && daoDescriptorProperty.getTypeClass().getSuperclass().equals(Enum.class)) {
+            } else if (value != null && daoDescriptorProperty.getTypeClass().isEnum()) {
                 PropertyUtils.setProperty(bean, property, Enum.valueOf(daoDescriptorProperty.getTypeClass(), value));
             } else {
                 throw new IllegalStateException("class not supported: " + daoDescriptorProperty.getTypeClass());
@@ -299,8 +1525,7 @@ public abstract class AbstractJdbcGenericDao {
                     fillPreparedStatement(ps, daoDescriptorBean, dbProperties, entity, null);
 
                     String idProperty = daoDescriptorBean.getDbPropertyMapping().get(daoDescriptorBean.getPrimaryKey());
-                    int id = (Integer) PropertyUtils.getProperty(entity, idProperty);
-                    ps.setObject(dbProperties.size() + 1, id, Types.INTEGER);
+                    setIdValue(ps, dbProperties.size() + 1, getProperty(entity, idProperty));
                 }
             } catch (Exception e) {
                 throw new SQLException("error on updating the entity: " + daoDescriptorBean.getName(), e);
@@ -330,8 +1555,7 @@ public abstract class AbstractJdbcGenericDao {
                     fillPreparedStatement(ps, daoDescriptorBean, dbProperties, entities.get(i), null);
 
                     String idProperty = daoDescriptorBean.getDbPropertyMapping().get(daoDescriptorBean.getPrimaryKey());
-                    int id = (Integer) PropertyUtils.getProperty(entities.get(i), idProperty);
-                    ps.setObject(dbProperties.size() + 1, id, Types.INTEGER);
+                    setIdValue(ps, dbProperties.size() + 1, getProperty(entities.get(i), idProperty));
                 }
             } catch (Exception e) {
                 throw new SQLException("error on updating the entity: " + daoDescriptorBean.getName(), e);
@@ -347,92 +1571,184 @@ public abstract class AbstractJdbcGenericDao {
     private class SelectRowMapper implements RowMapperFn<Object> {
         private final DaoDescriptorBean daoDescriptorBean;
         private final DaoProjectionBean daoProjectionBean;
+        private List<String> dbProperties;
+        private List<String> properties;
+        private Class resultClass;
+        private boolean resultIsMap;
+        private DaoConstructorMapping constructorMapping;
+        private int[] argumentIndex;
+        private DaoRowMap.Schema rowMapSchema;
+        private Class[] lobTypes;
 
         private SelectRowMapper(DaoProjectionBean daoProjectionBean, DaoDescriptorBean daoDescriptorBean) {
             this.daoDescriptorBean = daoDescriptorBean;
             this.daoProjectionBean = daoProjectionBean;
         }
 
+        private void prepare() throws Exception {
+            if (daoProjectionBean == null) {
+                resultClass = Class.forName(daoDescriptorBean.getName(), false, Thread.currentThread().getContextClassLoader());
+                dbProperties = daoDescriptorBean.getAllDbProperties();
+            } else {
+                resultClass = daoProjectionBean.getResult();
+                if (daoDescriptorBean != null) {
+                    dbProperties = daoProjectionBean.getProperties().stream().map(o -> daoDescriptorBean.getProperties().get(o).getDbProperty()).collect(Collectors.toList());
+                } else {
+                    dbProperties = daoProjectionBean.getProperties();
+                }
+            }
+            if (daoDescriptorBean != null) {
+                properties = dbProperties.stream().map(o -> daoDescriptorBean.getDbPropertyMapping().get(o)).collect(Collectors.toList());
+            } else {
+                properties = dbProperties;
+            }
+            lobTypes = new Class[properties.size()];
+            if (daoDescriptorBean != null) {
+                for (int i = 0; i < properties.size(); i++) {
+                    Class typeClass = daoDescriptorBean.getProperties().get(properties.get(i)).getTypeClass();
+                    lobTypes[i] = DaoLobSupport.isLob(typeClass) ? typeClass : null;
+                }
+            }
+            resultIsMap = resultClass.equals(Map.class);
+            if (resultIsMap) {
+                rowMapSchema = new DaoRowMap.Schema(properties);
+            } else {
+                constructorMapping = getConstructorMapping(resultClass);
+                if (constructorMapping != null) {
+                    argumentIndex = constructorMapping.createArgumentIndex(properties);
+                }
+            }
+        }
+
         public Object mapRow(ResultSet rs, int rownum) throws SQLException {
             try {
-                Object result;
-                List<String> dbProperties;
-                boolean resultIsMap = false;
-                if (daoProjectionBean == null) {
-                    result = Class.forName(daoDescriptorBean.getName(), false, Thread.currentThread().getContextClassLoader()).newInstance();
-                    dbProperties = daoDescriptorBean.getAllDbProperties();
-                } else {
-                    if (!daoProjectionBean.isAtomar()) {
-                        resultIsMap = daoProjectionBean.getResult().equals(Map.class);
-                        result = daoProjectionBean.getResult().equals(Map.class) ? new HashMap<>() : daoProjectionBean.getResult().newInstance();
-                        if (daoDescriptorBean != null) {
-                            dbProperties = daoProjectionBean.getProperties().stream().map(o -> daoDescriptorBean.getProperties().get(o).getDbProperty()).collect(Collectors.toList());
-                        } else {
-                            dbProperties = daoProjectionBean.getProperties();
-                        }
-                    } else {
-                        return rs.getObject(1);
-                    }
+                if (isAtomar()) {
+                    return rs.getObject(1);
                 }
-                String dbProperty;
-                String property;
-                DaoDescriptorProperty daoDescriptorProperty;
-                Object value;
-                for (int i = 0; i < dbProperties.size(); i++) {
+                return convertRow(readRow(rs));
+            } catch (Exception e) {
+                throw new SQLException("error on selecting the entity: " + daoDescriptorBean.getName(), e);
+            }
+        }
+
+        private boolean isAtomar() {
+            return daoProjectionBean != null && daoProjectionBean.isAtomar();
+        }
+
+        private boolean isShareable() throws Exception {
+            if (dbProperties == null) {
+                prepare();
+            }
+            return Arrays.stream(lobTypes).allMatch(Objects::isNull);
+        }
 
+        // reads the raw column values, cheap enough for the thread holding the result set
+        // raw rows, at most maxRows unless it is 0
+        private List<Object[]> readRows(ResultSet rs, int maxRows) throws Exception {
+            List<Object[]> result = new ArrayList<>();
+            while ((maxRows == 0 || result.size() < maxRows) && rs.next()) {
+                result.add(readRow(rs));
+            }
+            return result;
+        }
+
+        private Object[] readRow(ResultSet rs) throws Exception {
+            if (dbProperties == null) {
+                prepare();
+            }
+            Object[] values = new Object[dbProperties.size()];
+            try {
+                for (int i = 0; i < dbProperties.size(); i++) {
                     if (daoDescriptorBean == null) {
-                        value = rs.getObject(i + 1);
-                        if (value != null && value.getClass().equals(Timestamp.class)) {
-                            value = ((Timestamp) value).toLocalDateTime();
-                        } else if (value != null && value.getClass().equals(Date.class)) {
-                            value = ((Date) value).toLocalDate();
-                        }
-                        property = dbProperties.get(i);
+                        values[i] = rs.getObject(i + 1);
                     } else {
-                        dbProperty = dbProperties.get(i);
-                        property = daoDescriptorBean.getDbPropertyMapping().get(dbProperty);
-                        daoDescriptorProperty = daoDescriptorBean.getProperties().get(property);
-
                         try {
-                            value = rs.getObject(dbProperty);
+                            // lobs have to be read while the result set is open
+                            values[i] = lobTypes[i] == null
+                                    ? rs.getObject(dbProperties.get(i))
+                                    : DaoLobSupport.read(rs, dbProperties.get(i), lobTypes[i], lobMaterializeThreshold);
                         } catch (SQLException e) {
-                            if (daoDescriptorProperty.isNotNull()) {
+                            if (daoDescriptorBean.getProperties().get(properties.get(i)).isNotNull()) {
                                 throw e;
-                            } else {
-                                continue;
                             }
                         }
-
-                        if (value != null && daoDescriptorProperty.getTypeClass().equals(LocalDateTime.class)
-                                && value.getClass().equals(Timestamp.class)) {
-                            value = ((Timestamp) value).toLocalDateTime();
-                        } else if (value != null && daoDescriptorProperty.getTypeClass().equals(LocalDate.class)
-                                && value.getClass().equals(Date.class)) {
-                            value = ((Date) value).toLocalDate();
-                        } else if (value != null && daoDescriptorProperty.getTypeClass().getSuperclass().equals(Enum.class)) {
-                            value = Enum.valueOf(daoDescriptorProperty.getTypeClass(), value.toString());
-                        } else if (value != null && value.getClass().equals(Double.class)
-                                && daoDescriptorProperty.getTypeClass().equals(BigDecimal.class)) {
-                            value = BigDecimal.valueOf((Double) value);
-                        } else if (value != null && value.getClass().equals(Integer.class)
-                                && daoDescriptorProperty.getTypeClass().equals(BigDecimal.class)) {
-                            value = BigDecimal.valueOf((Integer) value);
-                        }
                     }
+                }
+            } catch (Exception e) {
+                DaoLobSupport.closeQuietly(values);
+                throw e;
+            }
+            return values;
+        }
 
-                    if (value != null) {
-                        if (resultIsMap) {
-                            ((Map) result).put(property, value);
-                        } else {
-                            PropertyUtils.setProperty(result, property, value);
-                        }
+        // converts the raw values in place and creates the result, independent of the result set
+        private Object convertRow(Object[] values) throws Exception {
+            try {
+                convertValues(values);
+                return createResult(values);
+            } catch (Exception e) {
+                DaoLobSupport.closeQuietly(values);
+                throw e;
+            }
+        }
+
+        private void convertValues(Object[] values) {
+            DaoDescriptorProperty daoDescriptorProperty;
+            Object value;
+            for (int i = 0; i < values.length; i++) {
+                value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                if (daoDescriptorBean == null) {
+                    if (value.getClass().equals(Timestamp.class)) {
+                        value = ((Timestamp) value).toLocalDateTime();
+                    } else if (value.getClass().equals(Date.class)) {
+                        value = ((Date) value).toLocalDate();
+                    }
+                } else {
+                    daoDescriptorProperty = daoDescriptorBean.getProperties().get(properties.get(i));
+                    if (daoDescriptorProperty.getTypeClass().equals(LocalDateTime.class)
+                            && value.getClass().equals(Timestamp.class)) {
+                        value = ((Timestamp) value).toLocalDateTime();
+                    } else if (daoDescriptorProperty.getTypeClass().equals(LocalDate.class)
+                            && value.getClass().equals(Date.class)) {
+                        value = ((Date) value).toLocalDate();
+                    } else if (daoDescriptorProperty.getTypeClass().isEnum()) {
+                        value = Enum.valueOf(daoDescriptorProperty.getTypeClass(), value.toString());
+                    } else if (value.getClass().equals(Double.class)
+                            && daoDescriptorProperty.getTypeClass().equals(BigDecimal.class)) {
+                        value = BigDecimal.valueOf((Double) value);
+                    } else if (value.getClass().equals(Integer.class)
+                            && daoDescriptorProperty.getTypeClass().equals(BigDecimal.class)) {
+                        value = BigDecimal.valueOf((Integer) value);
+                    } else if (value.getClass().equals(Integer.class)
+                            && daoDescriptorProperty.getTypeClass().equals(Long.class)) {
+                        value = ((Integer) value).longValue();
+                    } else if (value.getClass().equals(String.class)
+                            && daoDescriptorProperty.getTypeClass().equals(UUID.class)) {
+                        value = UUID.fromString((String) value);
                     }
                 }
-                return result;
-            } catch (Exception e) {
-                throw new SQLException("error on selecting the entity: " + daoDescriptorBean.getName(), e);
+                values[i] = value;
             }
         }
+
+        private Object createResult(Object[] values) throws Exception {
+            if (constructorMapping != null) {
+                return constructorMapping.newInstance(values, argumentIndex);
+            }
+            if (resultIsMap) {
+                return new DaoRowMap(rowMapSchema, values);
+            }
+            Object result = resultClass.getDeclaredConstructor().newInstance();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    PropertyUtils.setProperty(result, properties.get(i), values[i]);
+                }
+            }
+            return result;
+        }
     }
 
     private class SelectPreparedStatementSetter implements PreparedStatementFiller {
@@ -450,12 +1766,97 @@ public abstract class AbstractJdbcGenericDao {
                 if (placeholders != null && !placeholders.isEmpty()) {
                     fillPreparedStatement(ps, daoDescriptorBean, null, null, placeholders);
                 }
+            } catch (Exception e) {
+                throw new SQLException("error on selecting the entity: " + (daoDescriptorBean == null ? null : daoDescriptorBean.getName()), e);
+            }
+        }
+    }
+
+    private class SelectLimitPreparedStatementSetter implements PreparedStatementFiller {
+        private final DaoDescriptorBean daoDescriptorBean;
+        private final List<DaoPlaceholderProperty> placeholders;
+        private final Object afterId;
+        private final Integer offset;
+        private final int limit;
+
+        private SelectLimitPreparedStatementSetter(DaoDescriptorBean daoDescriptorBean, List<DaoPlaceholderProperty> placeholders, Object afterId, Integer offset, int limit) {
+            this.daoDescriptorBean = daoDescriptorBean;
+            this.placeholders = placeholders;
+            this.afterId = afterId;
+            this.offset = offset;
+            this.limit = limit;
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps) throws SQLException {
+            try {
+                int idx = 1;
+                if (placeholders != null && !placeholders.isEmpty()) {
+                    fillPreparedStatement(ps, daoDescriptorBean, null, null, placeholders);
+                    idx += getPlaceholderCount(placeholders);
+                }
+                if (afterId != null) {
+                    setIdValue(ps, idx++, afterId);
+                }
+                if (offset != null && dialect.isOffsetFirst()) {
+                    ps.setInt(idx++, offset);
+                }
+                ps.setInt(idx++, limit);
+                if (offset != null && !dialect.isOffsetFirst()) {
+                    ps.setInt(idx, offset);
+                }
             } catch (Exception e) {
                 throw new SQLException("error on selecting the entity: " + daoDescriptorBean.getName(), e);
             }
         }
     }
 
+    private class ByIdsPreparedStatementSetter implements PreparedStatementFiller {
+        private final DaoDescriptorBean daoDescriptorBean;
+        private final List<?> ids;
+        private final int bucketSize;
+
+        private ByIdsPreparedStatementSetter(DaoDescriptorBean daoDescriptorBean, List<?> ids, int bucketSize) {
+            this.daoDescriptorBean = daoDescriptorBean;
+            this.ids = ids;
+            this.bucketSize = bucketSize;
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps) throws SQLException {
+            try {
+                // the padding repeats the last id, duplicates in an in-list do not change the result
+                for (int i = 0; i < bucketSize; i++) {
+                    setIdValue(ps, i + 1, ids.get(Math.min(i, ids.size() - 1)));
+                }
+            } catch (Exception e) {
+                throw new SQLException("error on binding the ids of the entity: " + daoDescriptorBean.getName(), e);
+            }
+        }
+    }
+
+    private class ByIdArrayPreparedStatementSetter implements PreparedStatementFiller {
+        private final DaoDescriptorBean daoDescriptorBean;
+        private final Class idType;
+        private final List<?> ids;
+
+        private ByIdArrayPreparedStatementSetter(DaoDescriptorBean daoDescriptorBean, Class idType, List<?> ids) {
+            this.daoDescriptorBean = daoDescriptorBean;
+            this.idType = idType;
+            this.ids = ids;
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps) throws SQLException {
+            String typeName = Integer.class.equals(idType) ? "integer" : Long.class.equals(idType) ? "bigint" : UUID.class.equals(idType) ? "uuid" : "varchar";
+            try {
+                ps.setArray(1, ps.getConnection().createArrayOf(typeName, ids.toArray()));
+            } catch (Exception e) {
+                throw new SQLException("error on binding the ids of the entity: " + daoDescriptorBean.getName(), e);
+            }
+        }
+    }
+
     private class DeletePreparedStatementSetter implements PreparedStatementFiller {
         private final List<DaoPlaceholderProperty> placeholders;
         private final String sql;
@@ -477,6 +1878,31 @@ public abstract class AbstractJdbcGenericDao {
         }
     }
 
+    private class DeleteBatchPreparedStatementSetter implements PreparedBatchStatementFiller {
+        private final DaoDescriptorBean daoDescriptorBean;
+        private final List<Object> ids;
+
+        private DeleteBatchPreparedStatementSetter(DaoDescriptorBean daoDescriptorBean, List<Object> ids) {
+            this.daoDescriptorBean = daoDescriptorBean;
+            this.ids = ids;
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            try {
+                setIdValue(ps, 1, ids.get(i));
+            }
+            catch (Exception e) {
+                throw new SQLException("error on deleting the entity: " + daoDescriptorBean.getName(), e);
+            }
+        }
+
+        @Override
+        public int getBatchSize() {
+            return ids.size();
+        }
+    }
+
     private class InsertPreparedStatementSetter implements PreparedStatementFiller {
         private final DaoDescriptorBean daoDescriptorBean;
         private final Object entity;
@@ -489,7 +1915,7 @@ public abstract class AbstractJdbcGenericDao {
         @Override
         public void setValues(PreparedStatement ps) throws SQLException {
             try {
-                fillPreparedStatement(ps, daoDescriptorBean, daoDescriptorBean.getAllDbProperties(), entity, null);
+                fillPreparedStatement(ps, daoDescriptorBean, DaoDescriptorHelper.getInsertDbProperties(daoDescriptorBean), entity, null);
             } catch (Exception e) {
                 throw new SQLException("error on inserting the entity: " + daoDescriptorBean.getName(), e);
             }
@@ -508,7 +1934,7 @@ public abstract class AbstractJdbcGenericDao {
         @Override
         public void setValues(PreparedStatement ps, int i) throws SQLException {
             try {
-                fillPreparedStatement(ps, daoDescriptorBean, daoDescriptorBean.getAllDbProperties(), entities.get(i), null);
+                fillPreparedStatement(ps, daoDescriptorBean, DaoDescriptorHelper.getInsertDbProperties(daoDescriptorBean), entities.get(i), null);
             }
             catch (Exception e) {
                 throw new SQLException("error on inserting the entity: " + daoDescriptorBean.getName(), e);
@@ -538,8 +1964,27 @@ public abstract class AbstractJdbcGenericDao {
         T extract(ResultSet rs) throws Exception;
     }
 
-    protected abstract <T> List<T> query(String sql, PreparedStatementFiller filler, RowMapperFn<T> mapper) throws Exception;
+    protected <T> List<T> query(String sql, PreparedStatementFiller filler, RowMapperFn<T> mapper) throws Exception {
+        return query(sql, filler, mapper, 0);
+    }
+
+    protected abstract <T> List<T> query(String sql, PreparedStatementFiller filler, RowMapperFn<T> mapper, int maxRows) throws Exception;
     protected abstract int manipulate(String sql, PreparedStatementFiller filler) throws Exception;
     protected abstract int[] batchManipulate(String sql, PreparedBatchStatementFiller filler) throws Exception;
-    protected abstract <T> T queryForObject(String sql, ResultSetExtractor<T> extractor) throws Exception;
+    // returns the generated keys of the key column in the order of the batch rows
+    protected abstract List<Object> batchManipulateReturningKeys(String sql, PreparedBatchStatementFiller filler, String keyColumn) throws Exception;
+    protected <T> T queryForObject(String sql, ResultSetExtractor<T> extractor) throws Exception {
+        return queryForObject(sql, null, extractor);
+    }
+
+    protected abstract <T> T queryForObject(String sql, PreparedStatementFiller filler, ResultSetExtractor<T> extractor) throws Exception;
+
+    // hooks for the adapters to route the selects to a read replica, by default they use the primary
+    protected <T> List<T> queryReadOnly(String sql, PreparedStatementFiller filler, RowMapperFn<T> mapper, int maxRows) throws Exception {
+        return query(sql, filler, mapper, maxRows);
+    }
+
+    protected <T> T queryForObjectReadOnly(String sql, PreparedStatementFiller filler, ResultSetExtractor<T> extractor) throws Exception {
+        return queryForObject(sql, filler, extractor);
+    }
 }
@@ -0,0 +1,16 @@
+package net.sberg.jdbcgenericdao.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DaoAsyncInsertStats {
+    private int queueDepth;
+    private long batches;
+    private long rows;
+    private long failedBatches;
+    private int lastBatchSize;
+    private long lastFlushMicros;
+    private long maxFlushMicros;
+}
@@ -0,0 +1,262 @@
+package net.sberg.jdbcgenericdao.core;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+// one typed array per column plus a null bitmap, instead of one bean or map per row
+public class DaoColumnarResult {
+
+    private static final int chunkSize = 1024;
+
+    private static final int TYPE_INT = 0;
+    private static final int TYPE_LONG = 1;
+    private static final int TYPE_DOUBLE = 2;
+    private static final int TYPE_BIG_DECIMAL = 3;
+    private static final int TYPE_STRING = 4;
+    private static final int TYPE_OBJECT = 5;
+
+    private final List<String> columns;
+    private final int[] types;
+    private final Object[] data;
+    private final BitSet[] nulls;
+    private int rowCount;
+    private int capacity;
+
+    private DaoColumnarResult(List<String> columns, int[] types) {
+        this.columns = columns;
+        this.types = types;
+        this.data = new Object[types.length];
+        this.nulls = new BitSet[types.length];
+        for (int i = 0; i < types.length; i++) {
+            nulls[i] = new BitSet();
+        }
+        grow(chunkSize);
+    }
+
+    static DaoColumnarResult create(List<String> columns, List<Class> typeClasses) {
+        int[] types = new int[typeClasses.size()];
+        for (int i = 0; i < types.length; i++) {
+            Class typeClass = typeClasses.get(i);
+            if (typeClass.equals(Integer.class)) {
+                types[i] = TYPE_INT;
+            } else if (typeClass.equals(Long.class)) {
+                types[i] = TYPE_LONG;
+            } else if (typeClass.equals(Double.class)) {
+                types[i] = TYPE_DOUBLE;
+            } else if (typeClass.equals(BigDecimal.class)) {
+                types[i] = TYPE_BIG_DECIMAL;
+            } else if (typeClass.equals(String.class) || typeClass.isEnum()) {
+                types[i] = TYPE_STRING;
+            } else {
+                types[i] = TYPE_OBJECT;
+            }
+        }
+        return new DaoColumnarResult(columns, types);
+    }
+
+    static DaoColumnarResult create(List<String> columns, ResultSetMetaData metaData) throws SQLException {
+        int[] types = new int[metaData.getColumnCount()];
+        for (int i = 0; i < types.length; i++) {
+            switch (metaData.getColumnType(i + 1)) {
+                case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> types[i] = TYPE_INT;
+                case Types.BIGINT -> types[i] = TYPE_LONG;
+                case Types.DOUBLE, Types.FLOAT, Types.REAL -> types[i] = TYPE_DOUBLE;
+                case Types.DECIMAL, Types.NUMERIC -> types[i] = TYPE_BIG_DECIMAL;
+                case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR -> types[i] = TYPE_STRING;
+                default -> types[i] = TYPE_OBJECT;
+            }
+        }
+        return new DaoColumnarResult(columns, types);
+    }
+
+    private void grow(int newCapacity) {
+        for (int i = 0; i < types.length; i++) {
+            data[i] = switch (types[i]) {
+                case TYPE_INT -> data[i] == null ? new int[newCapacity] : Arrays.copyOf((int[]) data[i], newCapacity);
+                case TYPE_LONG -> data[i] == null ? new long[newCapacity] : Arrays.copyOf((long[]) data[i], newCapacity);
+                case TYPE_DOUBLE -> data[i] == null ? new double[newCapacity] : Arrays.copyOf((double[]) data[i], newCapacity);
+                case TYPE_BIG_DECIMAL -> data[i] == null ? new BigDecimal[newCapacity] : Arrays.copyOf((BigDecimal[]) data[i], newCapacity);
+                case TYPE_STRING -> data[i] == null ? new String[newCapacity] : Arrays.copyOf((String[]) data[i], newCapacity);
+                default -> data[i] == null ? new Object[newCapacity] : Arrays.copyOf((Object[]) data[i], newCapacity);
+            };
+        }
+        capacity = newCapacity;
+    }
+
+    void readRow(ResultSet rs) throws SQLException {
+        if (rowCount == capacity) {
+            grow(capacity << 1);
+        }
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case TYPE_INT -> ((int[]) data[i])[rowCount] = rs.getInt(i + 1);
+                case TYPE_LONG -> ((long[]) data[i])[rowCount] = rs.getLong(i + 1);
+                case TYPE_DOUBLE -> ((double[]) data[i])[rowCount] = rs.getDouble(i + 1);
+                case TYPE_BIG_DECIMAL -> ((BigDecimal[]) data[i])[rowCount] = rs.getBigDecimal(i + 1);
+                case TYPE_STRING -> ((String[]) data[i])[rowCount] = rs.getString(i + 1);
+                default -> {
+                    Object value = rs.getObject(i + 1);
+                    if (value instanceof Timestamp) {
+                        value = ((Timestamp) value).toLocalDateTime();
+                    } else if (value instanceof Date) {
+                        value = ((Date) value).toLocalDate();
+                    }
+                    ((Object[]) data[i])[rowCount] = value;
+                }
+            }
+            if (rs.wasNull()) {
+                nulls[i].set(rowCount);
+            }
+        }
+        rowCount++;
+    }
+
+    // the rows of a result with the same columns, e.g. of another partition
+    void append(DaoColumnarResult other) {
+        if (rowCount + other.rowCount > capacity) {
+            grow(Math.max(capacity << 1, rowCount + other.rowCount));
+        }
+        for (int i = 0; i < types.length; i++) {
+            System.arraycopy(other.data[i], 0, data[i], rowCount, other.rowCount);
+            for (int row = other.nulls[i].nextSetBit(0); row >= 0; row = other.nulls[i].nextSetBit(row + 1)) {
+                nulls[i].set(rowCount + row);
+            }
+        }
+        rowCount += other.rowCount;
+    }
+
+    void trim() {
+        if (capacity > rowCount) {
+            grow(rowCount);
+        }
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    private int indexOf(String column) {
+        int idx = columns.indexOf(column);
+        if (idx < 0) {
+            throw new IllegalStateException("unknown column: " + column);
+        }
+        return idx;
+    }
+
+    public boolean isNull(String column, int row) {
+        return nulls[indexOf(column)].get(row);
+    }
+
+    public int[] getInts(String column) {
+        return (int[]) data[indexOf(column)];
+    }
+
+    public long[] getLongs(String column) {
+        return (long[]) data[indexOf(column)];
+    }
+
+    public double[] getDoubles(String column) {
+        return (double[]) data[indexOf(column)];
+    }
+
+    public BigDecimal[] getBigDecimals(String column) {
+        return (BigDecimal[]) data[indexOf(column)];
+    }
+
+    public String[] getStrings(String column) {
+        return (String[]) data[indexOf(column)];
+    }
+
+    public Object[] getObjects(String column) {
+        return (Object[]) data[indexOf(column)];
+    }
+
+    public Object getValue(String column, int row) {
+        int idx = indexOf(column);
+        if (nulls[idx].get(row)) {
+            return null;
+        }
+        return switch (types[idx]) {
+            case TYPE_INT -> ((int[]) data[idx])[row];
+            case TYPE_LONG -> ((long[]) data[idx])[row];
+            case TYPE_DOUBLE -> ((double[]) data[idx])[row];
+            default -> ((Object[]) data[idx])[row];
+        };
+    }
+
+    public void forEachRow(IntConsumer consumer) {
+        for (int row = 0; row < rowCount; row++) {
+            consumer.accept(row);
+        }
+    }
+
+    public long countNotNull(String column) {
+        return rowCount - nulls[indexOf(column)].cardinality();
+    }
+
+    public long sumLong(String column) {
+        int idx = indexOf(column);
+        long result = 0;
+        switch (types[idx]) {
+            case TYPE_INT -> {
+                int[] values = (int[]) data[idx];
+                for (int row = 0; row < rowCount; row++) {
+                    result += values[row];
+                }
+            }
+            case TYPE_LONG -> {
+                long[] values = (long[]) data[idx];
+                for (int row = 0; row < rowCount; row++) {
+                    result += values[row];
+                }
+            }
+            default -> throw new IllegalStateException("column is not an int or long column: " + column);
+        }
+        return result;
+    }
+
+    public double sumDouble(String column) {
+        int idx = indexOf(column);
+        double result = 0;
+        switch (types[idx]) {
+            case TYPE_INT, TYPE_LONG -> result = sumLong(column);
+            case TYPE_DOUBLE -> {
+                double[] values = (double[]) data[idx];
+                for (int row = 0; row < rowCount; row++) {
+                    result += values[row];
+                }
+            }
+            case TYPE_BIG_DECIMAL -> result = sumBigDecimal(column).doubleValue();
+            default -> throw new IllegalStateException("column is not numeric: " + column);
+        }
+        return result;
+    }
+
+    public BigDecimal sumBigDecimal(String column) {
+        int idx = indexOf(column);
+        if (types[idx] != TYPE_BIG_DECIMAL) {
+            throw new IllegalStateException("column is not a decimal column: " + column);
+        }
+        BigDecimal[] values = (BigDecimal[]) data[idx];
+        BigDecimal result = BigDecimal.ZERO;
+        for (int row = 0; row < rowCount; row++) {
+            if (values[row] != null) {
+                result = result.add(values[row]);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,108 @@
+package net.sberg.jdbcgenericdao.core;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.RecordComponent;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// maps a row in one call onto a record canonical constructor or a @DaoDescriptorConstructor annotated constructor
+class DaoConstructorMapping {
+
+    private final MethodHandle constructor;
+    private final String[] parameterNames;
+    private final Object[] parameterDefaults;
+    private final Map<String, MethodHandle> accessors = new HashMap<>();
+
+    private DaoConstructorMapping(Constructor<?> constructor, String[] parameterNames) throws Exception {
+        constructor.setAccessible(true);
+        MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor);
+        this.constructor = handle.asType(handle.type().generic()).asSpreader(Object[].class, constructor.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        this.parameterNames = parameterNames;
+        this.parameterDefaults = new Object[constructor.getParameterCount()];
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (parameterTypes[i].isPrimitive()) {
+                parameterDefaults[i] = Array.get(Array.newInstance(parameterTypes[i], 1), 0);
+            }
+        }
+    }
+
+    static DaoConstructorMapping create(Class<?> type) throws Exception {
+        if (type.isRecord()) {
+            RecordComponent[] components = type.getRecordComponents();
+            Class<?>[] types = new Class<?>[components.length];
+            String[] names = new String[components.length];
+            for (int i = 0; i < components.length; i++) {
+                types[i] = components[i].getType();
+                names[i] = components[i].getName();
+            }
+            DaoConstructorMapping mapping = new DaoConstructorMapping(type.getDeclaredConstructor(types), names);
+            for (RecordComponent component : components) {
+                component.getAccessor().setAccessible(true);
+                MethodHandle accessor = MethodHandles.lookup().unreflect(component.getAccessor());
+                mapping.accessors.put(component.getName(), accessor.asType(MethodType.methodType(Object.class, Object.class)));
+            }
+            return mapping;
+        }
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            if (constructor.getAnnotation(DaoDescriptorConstructor.class) != null) {
+                Parameter[] parameters = constructor.getParameters();
+                String[] names = null;
+                if (parameters.length > 0 && parameters[0].isNamePresent()) {
+                    names = new String[parameters.length];
+                    for (int i = 0; i < parameters.length; i++) {
+                        names[i] = parameters[i].getName();
+                    }
+                }
+                return new DaoConstructorMapping(constructor, names);
+            }
+        }
+        return null;
+    }
+
+    // without parameter names (no -parameters flag) the constructor takes the properties in the given order
+    int[] createArgumentIndex(List<String> properties) {
+        int[] result = new int[parameterDefaults.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = parameterNames == null ? (i < properties.size() ? i : -1) : properties.indexOf(parameterNames[i]);
+        }
+        return result;
+    }
+
+    Object newInstance(Object[] values, int[] argumentIndex) throws Exception {
+        Object[] args = new Object[argumentIndex.length];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = argumentIndex[i] < 0 || values[argumentIndex[i]] == null ? parameterDefaults[i] : values[argumentIndex[i]];
+        }
+        try {
+            return (Object) constructor.invokeExact(args);
+        } catch (Exception e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    Object getProperty(Object bean, String property) throws Exception {
+        MethodHandle accessor = accessors.get(property);
+        if (accessor == null) {
+            throw new IllegalStateException("unknown record component: " + property + " of " + ClassUtils.getName(bean));
+        }
+        try {
+            return (Object) accessor.invokeExact(bean);
+        } catch (Exception e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
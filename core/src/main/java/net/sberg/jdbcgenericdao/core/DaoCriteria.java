@@ -0,0 +1,159 @@
+package net.sberg.jdbcgenericdao.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+// where clause of placeholders only: the sql depends on the shape (properties, operators, in-list buckets), never on the values
+public class DaoCriteria {
+
+    private enum Type {EQ, IN, LIKE_DELIMITED, RANGE, AND, OR}
+
+    private final Type type;
+    private final String property;
+    private final List<Object> values;
+    private final String delimiter;
+    private final List<DaoCriteria> children;
+
+    private DaoCriteria(Type type, String property, List<Object> values, String delimiter, List<DaoCriteria> children) {
+        this.type = type;
+        this.property = property;
+        this.values = values;
+        this.delimiter = delimiter;
+        this.children = children;
+    }
+
+    public static DaoCriteria eq(String property, Object value) {
+        return new DaoCriteria(Type.EQ, property, Arrays.asList(value), null, null);
+    }
+
+    public static DaoCriteria in(String property, Collection<?> values) {
+        return new DaoCriteria(Type.IN, property, values.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList()), null, null);
+    }
+
+    // the value is one element of a delimiter separated list in the column, like JdbcUtils.getLikeStr
+    public static DaoCriteria like(String property, String value, String delimiter) {
+        return new DaoCriteria(Type.LIKE_DELIMITED, property, List.of(value), delimiter, null);
+    }
+
+    // inclusive bounds, a null bound is open
+    public static DaoCriteria range(String property, Object from, Object to) {
+        return new DaoCriteria(Type.RANGE, property, Arrays.asList(from, to), null, null);
+    }
+
+    public static DaoCriteria and(DaoCriteria... criteria) {
+        return new DaoCriteria(Type.AND, null, null, null, List.of(criteria));
+    }
+
+    public static DaoCriteria or(DaoCriteria... criteria) {
+        return new DaoCriteria(Type.OR, null, null, null, List.of(criteria));
+    }
+
+    String getShape() {
+        StringBuilder shape = new StringBuilder();
+        appendShape(shape);
+        return shape.toString();
+    }
+
+    private void appendShape(StringBuilder shape) {
+        shape.append(type).append('(');
+        switch (type) {
+            case EQ -> shape.append(property).append(values.getFirst() == null ? ":null" : "");
+            case IN -> shape.append(property).append(':').append(DaoDescriptorHelper.getInListBuckets(values.size()));
+            case LIKE_DELIMITED -> shape.append(property);
+            case RANGE -> shape.append(property).append(values.get(0) == null ? ":-" : ":from").append(values.get(1) == null ? ":-" : ":to");
+            case AND, OR -> {
+                for (DaoCriteria child : children) {
+                    child.appendShape(shape);
+                }
+            }
+        }
+        shape.append(')');
+    }
+
+    String createSql(DaoDescriptorBean daoDescriptorBean) {
+        StringBuilder sql = new StringBuilder();
+        appendSql(sql, daoDescriptorBean);
+        return sql.toString();
+    }
+
+    private void appendSql(StringBuilder sql, DaoDescriptorBean daoDescriptorBean) {
+        switch (type) {
+            case EQ -> sql.append(getDbProperty(daoDescriptorBean)).append(values.getFirst() == null ? " is null" : " = ?");
+            case IN -> sql.append(DaoDescriptorHelper.createInListClause(getDbProperty(daoDescriptorBean), values.size()));
+            case LIKE_DELIMITED -> {
+                String dbProperty = getDbProperty(daoDescriptorBean);
+                sql.append('(').append(dbProperty).append(" like ? or ").append(dbProperty).append(" = ? or ")
+                        .append(dbProperty).append(" like ? or ").append(dbProperty).append(" like ?)");
+            }
+            case RANGE -> {
+                String dbProperty = getDbProperty(daoDescriptorBean);
+                if (values.get(0) == null && values.get(1) == null) {
+                    sql.append("1=1");
+                } else if (values.get(0) == null) {
+                    sql.append(dbProperty).append(" <= ?");
+                } else if (values.get(1) == null) {
+                    sql.append(dbProperty).append(" >= ?");
+                } else {
+                    sql.append('(').append(dbProperty).append(" >= ? and ").append(dbProperty).append(" <= ?)");
+                }
+            }
+            case AND, OR -> {
+                if (children.isEmpty()) {
+                    sql.append(type == Type.AND ? "1=1" : "1=0");
+                    return;
+                }
+                sql.append('(');
+                for (int i = 0; i < children.size(); i++) {
+                    if (i > 0) {
+                        sql.append(type == Type.AND ? " and " : " or ");
+                    }
+                    children.get(i).appendSql(sql, daoDescriptorBean);
+                }
+                sql.append(')');
+            }
+        }
+    }
+
+    private String getDbProperty(DaoDescriptorBean daoDescriptorBean) {
+        DaoDescriptorProperty daoDescriptorProperty = daoDescriptorBean.getProperties().get(property);
+        if (daoDescriptorProperty == null) {
+            throw new IllegalStateException("error on creating the criteria: " + daoDescriptorBean.getName() + " unknown property " + property);
+        }
+        return daoDescriptorProperty.getDbProperty();
+    }
+
+    // the placeholder values in the order of the question marks of createSql
+    void collectPlaceholders(List<DaoPlaceholderProperty> placeholders) {
+        switch (type) {
+            case EQ -> {
+                if (values.getFirst() != null) {
+                    placeholders.add(new DaoPlaceholderProperty(property, values.getFirst()));
+                }
+            }
+            // expanded and padded by the binding like every collection placeholder
+            case IN -> placeholders.add(new DaoPlaceholderProperty(property, values));
+            case LIKE_DELIMITED -> {
+                String value = (String) values.getFirst();
+                placeholders.add(new DaoPlaceholderProperty(property, "%" + delimiter + value + delimiter + "%"));
+                placeholders.add(new DaoPlaceholderProperty(property, value));
+                placeholders.add(new DaoPlaceholderProperty(property, value + delimiter + "%"));
+                placeholders.add(new DaoPlaceholderProperty(property, "%" + delimiter + value));
+            }
+            case RANGE -> {
+                for (Object value : values) {
+                    if (value != null) {
+                        placeholders.add(new DaoPlaceholderProperty(property, value));
+                    }
+                }
+            }
+            case AND, OR -> {
+                for (DaoCriteria child : children) {
+                    child.collectPlaceholders(placeholders);
+                }
+            }
+        }
+    }
+}
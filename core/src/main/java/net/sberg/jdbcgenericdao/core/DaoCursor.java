@@ -0,0 +1,145 @@
+package net.sberg.jdbcgenericdao.core;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+// reads the first column of one or more selects row by row on one connection, the selects run one after another.
+// the statement, result set and connection are released once the rows are exhausted or the stream is closed
+class DaoCursor implements AutoCloseable {
+
+    // drivers like postgres only stream with a fetch size, the others fetch everything at once
+    private static final int fetchSize = 512;
+
+    private final Connection connection;
+    private final Iterator<String> sqls;
+    private final AbstractJdbcGenericDao.PreparedStatementFiller filler;
+    private final AutoCloseable release;
+    private PreparedStatement ps;
+    private ResultSet rs;
+    private boolean closed;
+    private int intValue;
+    private long longValue;
+    private double doubleValue;
+
+    DaoCursor(Connection connection, List<String> sqls, AbstractJdbcGenericDao.PreparedStatementFiller filler, AutoCloseable release) {
+        this.connection = connection;
+        this.sqls = sqls.iterator();
+        this.filler = filler;
+        this.release = release;
+    }
+
+    // moves to the next row of the current select or of the next one, sql null values are skipped
+    private boolean next(int columnType) {
+        try {
+            while (!closed) {
+                if (rs == null) {
+                    if (!sqls.hasNext()) {
+                        close();
+                        return false;
+                    }
+                    ps = connection.prepareStatement(sqls.next());
+                    ps.setFetchSize(fetchSize);
+                    if (filler != null) filler.setValues(ps);
+                    rs = ps.executeQuery();
+                }
+                if (!rs.next()) {
+                    closeStatement();
+                    continue;
+                }
+                switch (columnType) {
+                    case 0 -> intValue = rs.getInt(1);
+                    case 1 -> longValue = rs.getLong(1);
+                    default -> doubleValue = rs.getDouble(1);
+                }
+                if (!rs.wasNull()) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (Exception e) {
+            close();
+            throw new IllegalStateException("error on reading the cursor", e);
+        }
+    }
+
+    private void closeStatement() throws SQLException {
+        try {
+            if (rs != null) rs.close();
+        } finally {
+            rs = null;
+            if (ps != null) ps.close();
+            ps = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            closeStatement();
+        } catch (SQLException e) {
+            // the connection is released anyway
+        } finally {
+            try {
+                release.close();
+            } catch (Exception e) {
+                throw new IllegalStateException("error on releasing the cursor connection", e);
+            }
+        }
+    }
+
+    IntStream intStream() {
+        return StreamSupport.intStream(new Spliterators.AbstractIntSpliterator(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                if (!next(0)) {
+                    return false;
+                }
+                action.accept(intValue);
+                return true;
+            }
+        }, false).onClose(this::close);
+    }
+
+    LongStream longStream() {
+        return StreamSupport.longStream(new Spliterators.AbstractLongSpliterator(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(LongConsumer action) {
+                if (!next(1)) {
+                    return false;
+                }
+                action.accept(longValue);
+                return true;
+            }
+        }, false).onClose(this::close);
+    }
+
+    DoubleStream doubleStream() {
+        return StreamSupport.doubleStream(new Spliterators.AbstractDoubleSpliterator(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(DoubleConsumer action) {
+                if (!next(2)) {
+                    return false;
+                }
+                action.accept(doubleValue);
+                return true;
+            }
+        }, false).onClose(this::close);
+    }
+}
@@ -13,8 +13,12 @@ public class DaoDescriptorBean {
     private String dbTable;
     private String primaryKey;
     private Boolean transientBean = false;
+    private DaoIdStrategy idStrategy = DaoIdStrategy.COUNTER;
     private List<String> allProperties = new ArrayList<>();
     private List<String> allDbProperties = new ArrayList<>();
     private Map<String, String> dbPropertyMapping = new HashMap<>();
     private Map<String, DaoDescriptorProperty> properties = new HashMap<>();
+    private String insertStatement;
+    private String updateStatement;
+    private String deleteStatement;
 }
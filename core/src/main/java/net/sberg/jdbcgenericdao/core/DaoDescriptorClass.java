@@ -11,4 +11,5 @@ public @interface DaoDescriptorClass {
     public String dbTable() default DaoDescriptorHelper.unknown;
     public String primaryKey() default "id";
     public boolean transientBean() default false;
+    public DaoIdStrategy idStrategy() default DaoIdStrategy.COUNTER;
 }
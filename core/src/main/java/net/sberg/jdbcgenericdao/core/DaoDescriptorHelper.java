@@ -1,11 +1,14 @@
 package net.sberg.jdbcgenericdao.core;
 
 import org.apache.commons.lang3.ClassUtils;
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.Field;
 import java.net.JarURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.*;
 import java.util.jar.JarEntry;
@@ -16,24 +19,49 @@ public class DaoDescriptorHelper {
 
     public static final String properties = "properties";
     public static final String unknown = "_unknown_";
+    public static final int maxInListSize = 256;
 
     private static final String insertTemplate = "insert into {0} ({1}) values ({2})";
     private static final String updateTemplate = "update {0} set {1} where {2}";
     private static final String deleteTemplate = "delete from {0} where {1}";
+    private static final String deleteInTemplate = "delete from {0} where {1} in ({2})";
     private static final String selectMaxIdTemplate = "select max({0}) from {1}";
     private static final String selectSimpleTemplate = "select {0} from {1} where {2}";
+    private static final String selectInTemplate = "select {0} from {1} where {2} in ({3})";
     private static final String placeHolderTemplate = "{0} = ?";
+    private static final String inTemplate = "{0} in ({1})";
+    private static final String selectExistsTemplate = "select 1 from {0} where {1}";
+    private static final String selectCountTemplate = "select count(*) from {0} where {1}";
+    private static final String keysetTemplate = "{0} and {1} > ?";
+    private static final String orderByTemplate = "{0} order by {1}";
 
     private final List<String> annotatedClasses = new ArrayList<>();
     private final Map<String, List<String>> annotatedElements = new HashMap<>();
 
+    // the database assigns the primary key of identity entities
+    public static List<String> getInsertDbProperties(DaoDescriptorBean daoDescriptorBean) {
+        if (daoDescriptorBean.getIdStrategy() != DaoIdStrategy.IDENTITY) {
+            return daoDescriptorBean.getAllDbProperties();
+        }
+        List<String> dbProperties = new ArrayList<>(daoDescriptorBean.getAllDbProperties());
+        dbProperties.remove(daoDescriptorBean.getPrimaryKey());
+        return dbProperties;
+    }
+
     public String createInsertStatement(DaoDescriptorBean daoDescriptorBean, Optional<String> tableName) throws Exception {
-        String projection = daoDescriptorBean.getAllDbProperties().stream().map(String::valueOf).collect(Collectors.joining(", "));
-        String placeholders = daoDescriptorBean.getAllDbProperties().stream().map(o -> "?").collect(Collectors.joining(", "));
+        if (tableName.isEmpty() && daoDescriptorBean.getInsertStatement() != null) {
+            return daoDescriptorBean.getInsertStatement();
+        }
+        List<String> dbProperties = getInsertDbProperties(daoDescriptorBean);
+        String projection = dbProperties.stream().map(String::valueOf).collect(Collectors.joining(", "));
+        String placeholders = dbProperties.stream().map(o -> "?").collect(Collectors.joining(", "));
         return MessageFormat.format(insertTemplate, tableName.isEmpty()?daoDescriptorBean.getDbTable():tableName.get(), projection, placeholders);
     }
 
     public String createUpdateStatement(DaoDescriptorBean daoDescriptorBean, Optional<String> tableName) throws Exception {
+        if (tableName.isEmpty() && daoDescriptorBean.getUpdateStatement() != null) {
+            return daoDescriptorBean.getUpdateStatement();
+        }
         List<String> dbProperties = new ArrayList<>(daoDescriptorBean.getAllDbProperties());
         dbProperties.remove(daoDescriptorBean.getPrimaryKey());
         String placeholders = dbProperties.stream().map(o -> o + " = ?").collect(Collectors.joining(", "));
@@ -44,7 +72,37 @@ public class DaoDescriptorHelper {
         return MessageFormat.format(selectMaxIdTemplate, daoDescriptorBean.getPrimaryKey(), tableName.isEmpty()?daoDescriptorBean.getDbTable():tableName.get());
     }
 
-    public String createSelectSimpleStatement(DaoProjectionBean daoProjectionBean, DaoDescriptorBean daoDescriptorBean, List<DaoPlaceholderProperty> placeholders) throws Exception {
+    public String createSelectSimpleStatement(DaoProjectionBean daoProjectionBean, DaoDescriptorBean daoDescriptorBean, List<DaoPlaceholderProperty> placeholders, Optional<String> tableName) throws Exception {
+        return MessageFormat.format(selectSimpleTemplate, createProjection(daoProjectionBean, daoDescriptorBean), tableName.isEmpty()?daoDescriptorBean.getDbTable():tableName.get(), createWhereClause(daoDescriptorBean, placeholders));
+    }
+
+    public String createSelectOrderedStatement(DaoProjectionBean daoProjectionBean, DaoDescriptorBean daoDescriptorBean, List<DaoPlaceholderProperty> placeholders, Optional<String> tableName, String orderProperty) throws Exception {
+        return MessageFormat.format(orderByTemplate, createSelectSimpleStatement(daoProjectionBean, daoDescriptorBean, placeholders, tableName), daoDescriptorBean.getProperties().get(orderProperty).getDbProperty());
+    }
+
+    public String createSelectFirstStatement(DaoProjectionBean daoProjectionBean, DaoDescriptorBean daoDescriptorBean, List<DaoPlaceholderProperty> placeholders, Optional<String> tableName, DaoDialect dialect) throws Exception {
+        return MessageFormat.format(dialect.getLimitTemplate(), createSelectSimpleStatement(daoProjectionBean, daoDescriptorBean, placeholders, tableName));
+    }
+
+    public String createSelectExistsStatement(DaoDescriptorBean daoDescriptorBean, List<DaoPlaceholderProperty> placeholders, Optional<String> tableName, DaoDialect dialect) throws Exception {
+        return MessageFormat.format(dialect.getLimitTemplate(), MessageFormat.format(selectExistsTemplate, tableName.isEmpty()?daoDescriptorBean.getDbTable():tableName.get(), createWhereClause(daoDescriptorBean, placeholders)));
+    }
+
+    public String createSelectCountStatement(DaoDescriptorBean daoDescriptorBean, List<DaoPlaceholderProperty> placeholders, Optional<String> tableName) throws Exception {
+        return MessageFormat.format(selectCountTemplate, tableName.isEmpty()?daoDescriptorBean.getDbTable():tableName.get(), createWhereClause(daoDescriptorBean, placeholders));
+    }
+
+    public String createSelectPageStatement(DaoProjectionBean daoProjectionBean, DaoDescriptorBean daoDescriptorBean, List<DaoPlaceholderProperty> placeholders, Optional<String> tableName, boolean keyset, boolean withOffset, DaoDialect dialect) throws Exception {
+        String where = createWhereClause(daoDescriptorBean, placeholders);
+        if (keyset) {
+            where = MessageFormat.format(keysetTemplate, where, daoDescriptorBean.getPrimaryKey());
+        }
+        String select = MessageFormat.format(selectSimpleTemplate, createProjection(daoProjectionBean, daoDescriptorBean), tableName.isEmpty()?daoDescriptorBean.getDbTable():tableName.get(), where);
+        select = MessageFormat.format(orderByTemplate, select, daoDescriptorBean.getPrimaryKey());
+        return MessageFormat.format(withOffset ? dialect.getPageTemplate() : dialect.getLimitTemplate(), select);
+    }
+
+    private String createWhereClause(DaoDescriptorBean daoDescriptorBean, List<DaoPlaceholderProperty> placeholders) {
         StringBuilder params = new StringBuilder("1=1");
         if (placeholders != null && !placeholders.isEmpty()) {
             params = new StringBuilder();
@@ -56,26 +114,121 @@ public class DaoDescriptorHelper {
                 if (params.length() > 0) {
                     params.append(" and ");
                 }
-                params.append(MessageFormat.format(placeHolderTemplate, daoDescriptorProperty.getDbProperty()));
+                if (daoPlaceholderProperty.getValue() instanceof Collection) {
+                    params.append(createInListClause(daoDescriptorProperty.getDbProperty(), ((Collection) daoPlaceholderProperty.getValue()).size()));
+                } else {
+                    params.append(MessageFormat.format(placeHolderTemplate, daoDescriptorProperty.getDbProperty()));
+                }
             }
         }
-        String projection = "";
-        if (daoProjectionBean == null) {
-            projection = daoDescriptorBean.getAllDbProperties().stream().map(String::valueOf).collect(Collectors.joining(", "));
-        } else {
-            projection = daoProjectionBean.getProperties().stream().map(o -> daoDescriptorBean.getProperties().get(o).getDbProperty()).collect(Collectors.joining(", "));
+        return params.toString();
+    }
+
+    public String createSelectByIdsStatement(DaoProjectionBean daoProjectionBean, DaoDescriptorBean daoDescriptorBean, Optional<String> tableName, int bucketSize) throws Exception {
+        String placeholders = String.join(", ", Collections.nCopies(bucketSize, "?"));
+        return MessageFormat.format(selectInTemplate, createProjection(daoProjectionBean, daoDescriptorBean), tableName.isEmpty()?daoDescriptorBean.getDbTable():tableName.get(), daoDescriptorBean.getPrimaryKey(), placeholders);
+    }
+
+    // pad in-lists to powers of two, so only a handful of distinct statements reach the statement caches
+    public static int getInListBucketSize(int size) {
+        int bucketSize = 1;
+        while (bucketSize < size && bucketSize < maxInListSize) {
+            bucketSize <<= 1;
+        }
+        return bucketSize;
+    }
+
+    // chunks of maxInListSize values, each padded to its bucket size
+    public static List<Integer> getInListBuckets(int size) {
+        List<Integer> buckets = new ArrayList<>();
+        for (int i = 0; i < size; i += maxInListSize) {
+            buckets.add(getInListBucketSize(Math.min(maxInListSize, size - i)));
         }
+        return buckets;
+    }
 
-        return MessageFormat.format(selectSimpleTemplate, projection, daoDescriptorBean.getDbTable(), params.toString());
+    public static String createInListClause(String dbProperty, int size) {
+        List<Integer> buckets = getInListBuckets(size);
+        if (buckets.isEmpty()) {
+            return "1=0";
+        }
+        StringBuilder result = new StringBuilder("(");
+        for (int i = 0; i < buckets.size(); i++) {
+            if (i > 0) {
+                result.append(" or ");
+            }
+            result.append(MessageFormat.format(inTemplate, dbProperty, String.join(", ", Collections.nCopies(buckets.get(i), "?"))));
+        }
+        return result.append(")").toString();
+    }
+
+    private String createProjection(DaoProjectionBean daoProjectionBean, DaoDescriptorBean daoDescriptorBean) {
+        if (daoProjectionBean == null) {
+            return daoDescriptorBean.getAllDbProperties().stream().map(String::valueOf).collect(Collectors.joining(", "));
+        }
+        return daoProjectionBean.getProperties().stream().map(o -> daoDescriptorBean.getProperties().get(o).getDbProperty()).collect(Collectors.joining(", "));
     }
 
     public String createDeleteStatement(DaoDescriptorBean daoDescriptorBean, Optional<String> tableName) throws Exception {
+        if (tableName.isEmpty() && daoDescriptorBean.getDeleteStatement() != null) {
+            return daoDescriptorBean.getDeleteStatement();
+        }
         return MessageFormat.format(deleteTemplate, tableName.isEmpty()?daoDescriptorBean.getDbTable():tableName.get(), MessageFormat.format(placeHolderTemplate, daoDescriptorBean.getPrimaryKey()));
     }
 
+    public String createSelectCriteriaStatement(DaoProjectionBean daoProjectionBean, DaoDescriptorBean daoDescriptorBean, String where, Optional<String> tableName) throws Exception {
+        return MessageFormat.format(selectSimpleTemplate, createProjection(daoProjectionBean, daoDescriptorBean), tableName.isEmpty()?daoDescriptorBean.getDbTable():tableName.get(), where);
+    }
+
+    public String createUpdateCriteriaStatement(DaoDescriptorBean daoDescriptorBean, List<DaoPlaceholderProperty> values, String where, Optional<String> tableName) throws Exception {
+        String placeholders = values.stream().map(o -> MessageFormat.format(placeHolderTemplate, daoDescriptorBean.getProperties().get(o.getProperty()).getDbProperty())).collect(Collectors.joining(", "));
+        return MessageFormat.format(updateTemplate, tableName.isEmpty()?daoDescriptorBean.getDbTable():tableName.get(), placeholders, where);
+    }
+
+    public String createDeleteCriteriaStatement(DaoDescriptorBean daoDescriptorBean, String where, Optional<String> tableName) throws Exception {
+        return MessageFormat.format(deleteTemplate, tableName.isEmpty()?daoDescriptorBean.getDbTable():tableName.get(), where);
+    }
+
+    public String createDeleteByIdsStatement(DaoDescriptorBean daoDescriptorBean, Optional<String> tableName, int bucketSize) throws Exception {
+        String placeholders = String.join(", ", Collections.nCopies(bucketSize, "?"));
+        return MessageFormat.format(deleteInTemplate, tableName.isEmpty()?daoDescriptorBean.getDbTable():tableName.get(), daoDescriptorBean.getPrimaryKey(), placeholders);
+    }
+
+    // one statement for any number of ids, the ids are bound as one array parameter
+    public String createSelectByIdArrayStatement(DaoProjectionBean daoProjectionBean, DaoDescriptorBean daoDescriptorBean, Optional<String> tableName, DaoDialect dialect) throws Exception {
+        return MessageFormat.format(selectSimpleTemplate, createProjection(daoProjectionBean, daoDescriptorBean), tableName.isEmpty()?daoDescriptorBean.getDbTable():tableName.get(), MessageFormat.format(dialect.getIdArrayTemplate(), daoDescriptorBean.getPrimaryKey()));
+    }
+
+    public String createDeleteByIdArrayStatement(DaoDescriptorBean daoDescriptorBean, Optional<String> tableName, DaoDialect dialect) throws Exception {
+        return MessageFormat.format(deleteTemplate, tableName.isEmpty()?daoDescriptorBean.getDbTable():tableName.get(), MessageFormat.format(dialect.getIdArrayTemplate(), daoDescriptorBean.getPrimaryKey()));
+    }
+
+    private void checkIdStrategy(DaoDescriptorBean daoDescriptorBean) {
+        if (daoDescriptorBean.getTransientBean() || daoDescriptorBean.getIdStrategy() == DaoIdStrategy.COUNTER) {
+            return;
+        }
+        DaoDescriptorProperty idProperty = daoDescriptorBean.getProperties().get(daoDescriptorBean.getDbPropertyMapping().get(daoDescriptorBean.getPrimaryKey()));
+        Class idType = idProperty == null ? null : idProperty.getTypeClass();
+        boolean supported = switch (daoDescriptorBean.getIdStrategy()) {
+            case SNOWFLAKE -> Long.class.equals(idType);
+            case UUID_V7 -> UUID.class.equals(idType) || String.class.equals(idType);
+            case IDENTITY -> Integer.class.equals(idType) || Long.class.equals(idType);
+            default -> true;
+        };
+        if (!supported) {
+            throw new IllegalStateException("id strategy " + daoDescriptorBean.getIdStrategy() + " does not support the primary key type " + idType + " of the entity: " + daoDescriptorBean.getName());
+        }
+    }
+
     public Map<String, DaoDescriptorBean> createBeanMap(String scanPackage) throws Exception {
-        // Discover classes annotated with @DaoDescriptorClass without Spring
-        Set<Class<?>> candidates = findAnnotatedClasses(scanPackage);
+        // Discover classes annotated with @DaoDescriptorClass without Spring, from the compile time index where it covers the
+        // scan package, otherwise by the class path scan (the scan finds nothing where the class path is not a file system, e.g. native images)
+        Optional<Set<Class<?>>> indexed = findIndexedClasses(scanPackage);
+        return createBeanMap(indexed.isPresent() ? indexed.get() : findAnnotatedClasses(scanPackage));
+    }
+
+    // the quarkus extension calls it at build time with the entities of the jandex index
+    public Map<String, DaoDescriptorBean> createBeanMap(Collection<Class<?>> candidates) throws Exception {
         for (Class<?> beanClass : candidates) {
             annotatedClasses.add(beanClass.getName());
             for (Field field : beanClass.getDeclaredFields()) {
@@ -101,6 +254,7 @@ public class DaoDescriptorHelper {
             daoDescriptorBean.setTransientBean(aClass.getAnnotation(DaoDescriptorClass.class).transientBean());
             daoDescriptorBean.setDbTable(aClass.getAnnotation(DaoDescriptorClass.class).dbTable());
             daoDescriptorBean.setPrimaryKey(aClass.getAnnotation(DaoDescriptorClass.class).primaryKey());
+            daoDescriptorBean.setIdStrategy(aClass.getAnnotation(DaoDescriptorClass.class).idStrategy());
             daoDescriptorBean.setName(aClass.getName());
             if (daoDescriptorBean.getDbTable().equals(unknown)) {
                 daoDescriptorBean.setDbTable(aClass.getSimpleName());
@@ -133,11 +287,53 @@ public class DaoDescriptorHelper {
                 daoDescriptorBean.getDbPropertyMapping().put(daoDescriptorProperty.getDbProperty(), aField.getName());
 
             }
+            checkIdStrategy(daoDescriptorBean);
+            // the statements of the entity table are rendered once
+            if (!daoDescriptorBean.getTransientBean()) {
+                daoDescriptorBean.setInsertStatement(createInsertStatement(daoDescriptorBean, Optional.empty()));
+                daoDescriptorBean.setUpdateStatement(createUpdateStatement(daoDescriptorBean, Optional.empty()));
+                daoDescriptorBean.setDeleteStatement(createDeleteStatement(daoDescriptorBean, Optional.empty()));
+            }
         }
 
         return result;
     }
 
+    // entities listed by DaoDescriptorProcessor, one index per jar or class output directory. empty unless the scan package
+    // itself was compiled with the processor, entities of sub packages compiled elsewhere need the processor there as well
+    private Optional<Set<Class<?>>> findIndexedClasses(String basePackage) throws IOException, ClassNotFoundException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = DaoDescriptorHelper.class.getClassLoader();
+        }
+        if (!readIndex(classLoader, DaoDescriptorProcessor.packageIndex).contains(basePackage)) {
+            return Optional.empty();
+        }
+        Set<Class<?>> classes = new HashSet<>();
+        for (String className : readIndex(classLoader, DaoDescriptorProcessor.entityIndex)) {
+            if (className.startsWith(basePackage + ".")) {
+                classes.add(Class.forName(className, false, classLoader));
+            }
+        }
+        return Optional.of(classes);
+    }
+
+    private Set<String> readIndex(ClassLoader classLoader, String resource) throws IOException {
+        Set<String> lines = new HashSet<>();
+        Enumeration<URL> resources = classLoader.getResources(resource);
+        while (resources.hasMoreElements()) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resources.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        lines.add(line.trim());
+                    }
+                }
+            }
+        }
+        return lines;
+    }
+
     private Set<Class<?>> findAnnotatedClasses(String basePackage) throws IOException, ClassNotFoundException {
         Set<Class<?>> classes = new HashSet<>();
         String path = basePackage.replace('.', '/');
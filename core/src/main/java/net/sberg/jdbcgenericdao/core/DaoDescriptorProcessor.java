@@ -0,0 +1,92 @@
+package net.sberg.jdbcgenericdao.core;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// writes the @DaoDescriptorClass entities and the compiled packages of a module into an index, DaoDescriptorHelper skips the
+// class path scan for scan packages listed there. Also writes a native-image reflect-config for the entities and their enum
+// properties. Only active with -AjdbcGenericDao.entityIndex=true
+@SupportedAnnotationTypes("net.sberg.jdbcgenericdao.core.DaoDescriptorClass")
+@SupportedOptions(DaoDescriptorProcessor.enableOption)
+public class DaoDescriptorProcessor extends AbstractProcessor {
+
+    static final String enableOption = "jdbcGenericDao.entityIndex";
+    static final String entityIndex = "META-INF/jdbcgenericdao/entities";
+    static final String packageIndex = "META-INF/jdbcgenericdao/packages";
+    static final String reflectConfig = "META-INF/native-image/jdbcgenericdao/entities/reflect-config.json";
+
+    private final Set<String> entities = new TreeSet<>();
+    private final Set<String> enums = new TreeSet<>();
+    private final Set<String> packages = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (!Boolean.parseBoolean(processingEnv.getOptions().get(enableOption))) {
+            return false;
+        }
+        for (Element element : roundEnv.getRootElements()) {
+            packages.add(processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString());
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(DaoDescriptorClass.class)) {
+            if (!(element instanceof TypeElement typeElement)) {
+                continue;
+            }
+            entities.add(processingEnv.getElementUtils().getBinaryName(typeElement).toString());
+            for (Element member : typeElement.getEnclosedElements()) {
+                if (member.getKind() == ElementKind.FIELD && member.getAnnotation(DaoDescriptorElement.class) != null
+                        && member.asType().getKind() == TypeKind.DECLARED) {
+                    TypeElement fieldType = (TypeElement) ((DeclaredType) member.asType()).asElement();
+                    if (fieldType.getKind() == ElementKind.ENUM) {
+                        enums.add(processingEnv.getElementUtils().getBinaryName(fieldType).toString());
+                    }
+                }
+            }
+        }
+        if (roundEnv.processingOver() && !entities.isEmpty()) {
+            write(entityIndex, String.join("\n", entities) + "\n");
+            write(packageIndex, String.join("\n", packages) + "\n");
+            write(reflectConfig, createReflectConfig());
+        }
+        return false;
+    }
+
+    private String createReflectConfig() {
+        String entityEntries = entities.stream()
+                .map(o -> "  {\"name\": \"" + o + "\", \"allDeclaredFields\": true, \"allDeclaredConstructors\": true, \"allDeclaredMethods\": true, \"allPublicMethods\": true}")
+                .collect(Collectors.joining(",\n"));
+        String enumEntries = enums.stream()
+                .map(o -> "  {\"name\": \"" + o + "\", \"allPublicMethods\": true, \"allDeclaredFields\": true}")
+                .collect(Collectors.joining(",\n"));
+        return "[\n" + entityEntries + (enums.isEmpty() ? "" : ",\n" + enumEntries) + "\n]\n";
+    }
+
+    private void write(String resource, String content) {
+        try {
+            FileObject fileObject = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", resource);
+            try (Writer writer = fileObject.openWriter()) {
+                writer.write(content);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "error on writing " + resource + ": " + e.getMessage());
+        }
+    }
+}
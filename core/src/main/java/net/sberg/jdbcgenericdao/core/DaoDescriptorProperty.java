@@ -2,11 +2,16 @@ package net.sberg.jdbcgenericdao.core;
 
 import lombok.Data;
 
+import java.io.InputStream;
+import java.io.Reader;
 import java.math.BigDecimal;
+import java.sql.Blob;
+import java.sql.Clob;
 import java.sql.Types;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.UUID;
 
 @Data
 public class DaoDescriptorProperty {
@@ -18,6 +23,13 @@ public class DaoDescriptorProperty {
         if (typeClass.equals(Integer.class)) {
             return Types.INTEGER;
         }
+        else if (typeClass.equals(Long.class)) {
+            return Types.BIGINT;
+        }
+        // bound untyped, the driver maps it to its uuid type
+        else if (typeClass.equals(UUID.class)) {
+            return Types.OTHER;
+        }
         else if (typeClass.equals(LocalDate.class)) {
             return Types.DATE;
         }
@@ -30,6 +42,16 @@ public class DaoDescriptorProperty {
         else if (typeClass.equals(String.class)) {
             return Types.VARCHAR;
         }
+        // checked before the enum check, interfaces like Blob and Clob have no superclass
+        else if (typeClass.equals(byte[].class)) {
+            return Types.VARBINARY;
+        }
+        else if (InputStream.class.isAssignableFrom(typeClass) || Blob.class.isAssignableFrom(typeClass)) {
+            return Types.BLOB;
+        }
+        else if (Reader.class.isAssignableFrom(typeClass) || Clob.class.isAssignableFrom(typeClass)) {
+            return Types.CLOB;
+        }
         else if (typeClass.getSuperclass().equals(Enum.class)) {
             return Types.VARCHAR;
         }
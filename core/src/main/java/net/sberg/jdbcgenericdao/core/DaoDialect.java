@@ -0,0 +1,27 @@
+package net.sberg.jdbcgenericdao.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum DaoDialect {
+    // sql:2008, e.g. h2, postgresql, oracle 12c+, sql server 2012+, db2, mariadb 10.6+
+    ANSI("{0} fetch first ? rows only", "{0} offset ? rows fetch first ? rows only", true, null),
+    // e.g. mysql, postgresql, h2, sqlite
+    LIMIT_OFFSET("{0} limit ?", "{0} limit ? offset ?", false, null),
+    // like ANSI, id lists are bound as one array parameter
+    H2("{0} fetch first ? rows only", "{0} offset ? rows fetch first ? rows only", true, "{0} = any(?)"),
+    // like LIMIT_OFFSET, id lists are bound as one array parameter
+    POSTGRESQL("{0} limit ?", "{0} limit ? offset ?", false, "{0} = any(?)");
+
+    private final String limitTemplate;
+    private final String pageTemplate;
+    private final boolean offsetFirst;
+    // null where the database has no array parameters, the ids are then bound as padded in-lists
+    private final String idArrayTemplate;
+
+    public boolean supportsIdArray() {
+        return idArrayTemplate != null;
+    }
+}
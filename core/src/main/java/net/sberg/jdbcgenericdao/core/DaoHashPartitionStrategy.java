@@ -0,0 +1,53 @@
+package net.sberg.jdbcgenericdao.core;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// partitions <table>_0 ... <table>_<partitions - 1> by a hash of the property value that is stable across jvms
+@Getter
+public class DaoHashPartitionStrategy implements DaoPartitionStrategy {
+
+    private final String property;
+    private final String baseTableName;
+    private final int partitions;
+
+    public DaoHashPartitionStrategy(String property, String baseTableName, int partitions) {
+        this.property = property;
+        this.baseTableName = baseTableName;
+        this.partitions = partitions;
+    }
+
+    @Override
+    public String getTableName(Object value) {
+        return baseTableName + "_" + Math.floorMod(hash(value), partitions);
+    }
+
+    // crc32 of the utf-8 string form. enums hash by name (their hashCode differs per jvm run), integral numbers as long
+    // (-1 and -1L land in the same partition)
+    static int hash(Object value) {
+        String normalized;
+        if (value instanceof Enum) {
+            normalized = ((Enum) value).name();
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            normalized = Long.toString(((Number) value).longValue());
+        } else {
+            normalized = String.valueOf(value);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(normalized.getBytes(StandardCharsets.UTF_8));
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public List<String> getTableNames() {
+        List<String> result = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            result.add(baseTableName + "_" + i);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,48 @@
+package net.sberg.jdbcgenericdao.core;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// node-local and lock-free, ids of one node are strictly increasing even if the clock steps back
+public class DaoIdGenerator {
+
+    private static final long epoch = 1704067200000L;
+    private static final int nodeBits = 10;
+    private static final int sequenceBits = 12;
+    private static final long sequenceMask = (1L << sequenceBits) - 1;
+
+    private final long nodeId;
+    private final AtomicLong snowflakeState = new AtomicLong();
+    private final AtomicLong uuidState = new AtomicLong();
+
+    public DaoIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId >= 1 << nodeBits) {
+            throw new IllegalArgumentException("nodeId must be between 0 and " + ((1 << nodeBits) - 1) + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    // state is millis << 12 | sequence, an exhausted sequence borrows the next millisecond
+    private static long next(AtomicLong state, long millis) {
+        while (true) {
+            long current = state.get();
+            long next = Math.max(current + 1, millis << sequenceBits);
+            if (state.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    public long nextSnowflake() {
+        long state = next(snowflakeState, System.currentTimeMillis() - epoch);
+        return (state >>> sequenceBits) << (nodeBits + sequenceBits) | nodeId << sequenceBits | (state & sequenceMask);
+    }
+
+    public UUID nextUuidV7() {
+        long state = next(uuidState, System.currentTimeMillis());
+        long mostSigBits = (state >>> sequenceBits) << 16 | 0x7000L | (state & sequenceMask);
+        long leastSigBits = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,12 @@
+package net.sberg.jdbcgenericdao.core;
+
+public enum DaoIdStrategy {
+    // in-memory counter per entity/table, starts at the max id of the table
+    COUNTER,
+    // time ordered long: 41 bit millis since 2024, 10 bit node id, 12 bit sequence
+    SNOWFLAKE,
+    // time ordered uuid (rfc 9562 version 7), for UUID or String primary keys
+    UUID_V7,
+    // assigned by an identity/auto increment column, inserts omit the primary key and read the generated keys back
+    IDENTITY
+}
@@ -0,0 +1,155 @@
+package net.sberg.jdbcgenericdao.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// collects the single inserts of many threads for one entity/table and writes them as one jdbc batch
+// every batchSize rows or maxDelayMicros after the first pending row
+class DaoInsertBatcher {
+
+    interface Flusher {
+        void flush(List<Object> entities) throws Exception;
+    }
+
+    private record Pending(Object entity, CompletableFuture<Object> future) {
+    }
+
+    private final BlockingQueue<Pending> queue;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final Flusher flusher;
+    private final Thread thread;
+    private volatile boolean running = true;
+    // submits hold the read lock while enqueueing, stopping takes the write lock, so no row is enqueued after the stop
+    private final ReadWriteLock stopLock = new ReentrantReadWriteLock();
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong maxFlushMicros = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile long lastFlushMicros;
+
+    DaoInsertBatcher(String name, int batchSize, long maxDelayMicros, int queueCapacity, Flusher flusher) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+        this.flusher = flusher;
+        this.thread = Thread.ofPlatform().daemon().name("jdbcGenericDao-insert-" + name).start(this::run);
+    }
+
+    // blocks while the queue is full
+    CompletableFuture<Object> submit(Object entity) throws InterruptedException {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        Pending pending = new Pending(entity, future);
+        stopLock.readLock().lock();
+        try {
+            do {
+                if (!running) {
+                    throw new IllegalStateException("error on inserting the entity: " + entity.getClass().getName() + " async insert is shut down");
+                }
+            } while (!queue.offer(pending, 100, TimeUnit.MILLISECONDS));
+        } finally {
+            stopLock.readLock().unlock();
+        }
+        return future;
+    }
+
+    private void stop() {
+        stopLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            stopLock.writeLock().unlock();
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                stop();
+                flush(batch);
+            }
+            batch.clear();
+        }
+        // rows still queued when the thread ends are failed, not left pending
+        stop();
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future().completeExceptionally(new IllegalStateException("async insert is shut down"));
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Object> entities = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            entities.add(pending.entity());
+        }
+        long start = System.nanoTime();
+        Exception error = null;
+        try {
+            flusher.flush(entities);
+        } catch (Exception e) {
+            error = e;
+        }
+        // the stats are updated before the callers are released
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        batches.incrementAndGet();
+        lastBatchSize = batch.size();
+        lastFlushMicros = micros;
+        maxFlushMicros.accumulateAndGet(micros, Math::max);
+        if (error == null) {
+            rows.addAndGet(batch.size());
+        } else {
+            failedBatches.incrementAndGet();
+        }
+        for (Pending pending : batch) {
+            if (error == null) {
+                pending.future().complete(pending.entity());
+            } else {
+                pending.future().completeExceptionally(error);
+            }
+        }
+    }
+
+    DaoAsyncInsertStats getStats() {
+        return new DaoAsyncInsertStats(queue.size(), batches.get(), rows.get(), failedBatches.get(), lastBatchSize, lastFlushMicros, maxFlushMicros.get());
+    }
+
+    // the pending rows are still written, rows submitted after the shutdown fail
+    void shutdown() throws InterruptedException {
+        stop();
+        thread.join();
+    }
+}
@@ -0,0 +1,131 @@
+package net.sberg.jdbcgenericdao.core;
+
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.util.Arrays;
+
+// binds and reads lob properties: streams up to the threshold are materialised, larger ones are spooled to a temp file
+// which is deleted when the returned stream is closed, so the value outlives the connection without living on the heap.
+// the caller owns the returned streams and has to close them
+class DaoLobSupport {
+
+    static boolean isLob(Class typeClass) {
+        return typeClass.equals(byte[].class)
+                || InputStream.class.isAssignableFrom(typeClass)
+                || Reader.class.isAssignableFrom(typeClass)
+                || Blob.class.isAssignableFrom(typeClass)
+                || Clob.class.isAssignableFrom(typeClass);
+    }
+
+    // true if the value was bound, everything else goes through setObject
+    static boolean bind(PreparedStatement ps, int idx, Object value) throws SQLException {
+        if (value instanceof InputStream) {
+            ps.setBinaryStream(idx, (InputStream) value);
+        } else if (value instanceof Reader) {
+            ps.setCharacterStream(idx, (Reader) value);
+        } else if (value instanceof Blob) {
+            ps.setBlob(idx, (Blob) value);
+        } else if (value instanceof Clob) {
+            ps.setClob(idx, (Clob) value);
+        } else if (value instanceof byte[]) {
+            ps.setBytes(idx, (byte[]) value);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    static Object read(ResultSet rs, String column, Class typeClass, int threshold) throws Exception {
+        if (typeClass.equals(byte[].class)) {
+            return rs.getBytes(column);
+        } else if (InputStream.class.isAssignableFrom(typeClass)) {
+            InputStream in = rs.getBinaryStream(column);
+            return in == null ? null : readBinary(in, threshold);
+        } else if (Reader.class.isAssignableFrom(typeClass)) {
+            Reader in = rs.getCharacterStream(column);
+            return in == null ? null : readCharacters(in, threshold);
+        } else if (Blob.class.isAssignableFrom(typeClass)) {
+            // the driver blob is only valid as long as the connection, a blob property is always materialised
+            Blob blob = rs.getBlob(column);
+            return blob == null ? null : new SerialBlob(blob);
+        } else {
+            Clob clob = rs.getClob(column);
+            return clob == null ? null : new SerialClob(clob);
+        }
+    }
+
+    private static InputStream readBinary(InputStream in, int threshold) throws IOException {
+        try (in) {
+            byte[] head = in.readNBytes(threshold + 1);
+            if (head.length <= threshold) {
+                return new ByteArrayInputStream(head);
+            }
+            Path file = Files.createTempFile("jdbcgenericdao", ".lob");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                out.write(head);
+                in.transferTo(out);
+            } catch (IOException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            return new BufferedInputStream(openSpooled(file));
+        }
+    }
+
+    private static Reader readCharacters(Reader in, int threshold) throws IOException {
+        try (in) {
+            // grows up to threshold + 1 chars, short texts don't pay for the threshold
+            char[] head = new char[(int) Math.min(threshold + 1L, 8192)];
+            int length = 0;
+            int read;
+            while (length < head.length && (read = in.read(head, length, head.length - length)) >= 0) {
+                length += read;
+                if (length == head.length && head.length <= threshold) {
+                    head = Arrays.copyOf(head, (int) Math.min(threshold + 1L, head.length * 2L));
+                }
+            }
+            if (length <= threshold) {
+                return new CharArrayReader(Arrays.copyOf(head, length));
+            }
+            Path file = Files.createTempFile("jdbcgenericdao", ".lob");
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                out.write(head, 0, length);
+                in.transferTo(out);
+            } catch (IOException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            return new BufferedReader(new InputStreamReader(openSpooled(file), StandardCharsets.UTF_8));
+        }
+    }
+
+    // on unix DELETE_ON_CLOSE unlinks the file when it is opened, so nothing is left on disk even if the stream is never
+    // closed, elsewhere the file goes with the close. the file is removed if it can't be opened
+    private static InputStream openSpooled(Path file) throws IOException {
+        try {
+            return Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    // releases the spooled files of a row whose mapping failed
+    static void closeQuietly(Object[] values) {
+        for (Object value : values) {
+            if (value instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (IOException e) {
+                    // the row is dropped anyway
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package net.sberg.jdbcgenericdao.core;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+// monthly partitions <table>_yyyyMM from the first to the last month, by a LocalDate or LocalDateTime property
+@Getter
+public class DaoMonthPartitionStrategy implements DaoPartitionStrategy {
+
+    private static final DateTimeFormatter suffixFormatter = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final String property;
+    private final String baseTableName;
+    private final YearMonth firstMonth;
+    private final YearMonth lastMonth;
+
+    public DaoMonthPartitionStrategy(String property, String baseTableName, YearMonth firstMonth, YearMonth lastMonth) {
+        this.property = property;
+        this.baseTableName = baseTableName;
+        this.firstMonth = firstMonth;
+        this.lastMonth = lastMonth;
+    }
+
+    @Override
+    public String getTableName(Object value) {
+        YearMonth month;
+        if (value instanceof LocalDate) {
+            month = YearMonth.from((LocalDate) value);
+        } else if (value instanceof LocalDateTime) {
+            month = YearMonth.from((LocalDateTime) value);
+        } else if (value instanceof YearMonth) {
+            month = (YearMonth) value;
+        } else {
+            throw new IllegalStateException("error on partitioning the table: " + baseTableName + " property " + property + " must be a LocalDate or LocalDateTime");
+        }
+        return baseTableName + "_" + suffixFormatter.format(month);
+    }
+
+    @Override
+    public List<String> getTableNames() {
+        List<String> result = new ArrayList<>();
+        for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            result.add(baseTableName + "_" + suffixFormatter.format(month));
+        }
+        return result;
+    }
+}
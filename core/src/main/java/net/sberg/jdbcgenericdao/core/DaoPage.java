@@ -0,0 +1,15 @@
+package net.sberg.jdbcgenericdao.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class DaoPage {
+    private List content;
+    private Object nextCursor;
+    private int nextOffset;
+    private boolean hasNext;
+}
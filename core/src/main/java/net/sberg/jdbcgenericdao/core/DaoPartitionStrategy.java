@@ -0,0 +1,14 @@
+package net.sberg.jdbcgenericdao.core;
+
+import java.util.List;
+
+public interface DaoPartitionStrategy {
+
+    // the entity property deciding the partition
+    String getProperty();
+
+    String getTableName(Object value);
+
+    // all partitions, queried when the placeholders do not contain the partition property
+    List<String> getTableNames();
+}
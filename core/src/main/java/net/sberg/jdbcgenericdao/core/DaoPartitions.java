@@ -0,0 +1,222 @@
+package net.sberg.jdbcgenericdao.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+// the partition strategies of the entities: routes entities and selects to their partition tables, queries several
+// partitions in parallel and merges ordered partitions while they are read
+class DaoPartitions {
+
+    interface Context {
+        // false inside a transaction or a session, the partitions are then queried one after another on its connection
+        boolean isParallelAllowed();
+
+        void flushUnitOfWork() throws Exception;
+
+        Object getProperty(Object row, String property) throws Exception;
+    }
+
+    private final Map<String, DaoPartitionStrategy> strategies = new ConcurrentHashMap<>();
+    private final Context context;
+    private int fanOutWidth = 8;
+
+    DaoPartitions(Context context) {
+        this.context = context;
+    }
+
+    void setFanOutWidth(int fanOutWidth) {
+        this.fanOutWidth = Math.max(1, fanOutWidth);
+    }
+
+    void register(String entityName, DaoPartitionStrategy partitionStrategy) {
+        strategies.put(entityName, partitionStrategy);
+    }
+
+    boolean isPartitioned(String entityName) {
+        return strategies.containsKey(entityName);
+    }
+
+    void clear() {
+        strategies.clear();
+    }
+
+    Optional<String> getTableName(DaoDescriptorBean daoDescriptorBean, Object entity, Optional<String> tableName) throws Exception {
+        DaoPartitionStrategy partitionStrategy = strategies.get(daoDescriptorBean.getName());
+        if (tableName.isPresent() || partitionStrategy == null) {
+            return tableName;
+        }
+        return Optional.of(partitionStrategy.getTableName(context.getProperty(entity, partitionStrategy.getProperty())));
+    }
+
+    Map<Optional<String>, List<Object>> partitionEntities(DaoDescriptorBean daoDescriptorBean, List<Object> entities, Optional<String> tableName) throws Exception {
+        Map<Optional<String>, List<Object>> result = new LinkedHashMap<>();
+        if (tableName.isPresent() || !strategies.containsKey(daoDescriptorBean.getName())) {
+            result.put(tableName, entities);
+            return result;
+        }
+        for (Object entity : entities) {
+            result.computeIfAbsent(getTableName(daoDescriptorBean, entity, tableName), k -> new ArrayList<>()).add(entity);
+        }
+        return result;
+    }
+
+    List<Optional<String>> getAllTableNames(DaoDescriptorBean daoDescriptorBean, Optional<String> tableName) {
+        DaoPartitionStrategy partitionStrategy = strategies.get(daoDescriptorBean.getName());
+        if (tableName.isPresent() || partitionStrategy == null) {
+            return List.of(tableName);
+        }
+        return partitionStrategy.getTableNames().stream().map(Optional::of).collect(Collectors.toList());
+    }
+
+    // an equality placeholder on the partition property prunes the query to one partition
+    List<Optional<String>> getTableNames(DaoDescriptorBean daoDescriptorBean, List<DaoPlaceholderProperty> placeholders) {
+        DaoPartitionStrategy partitionStrategy = strategies.get(daoDescriptorBean.getName());
+        if (partitionStrategy == null) {
+            return List.of(Optional.empty());
+        }
+        if (placeholders != null) {
+            for (DaoPlaceholderProperty placeholder : placeholders) {
+                if (placeholder.getProperty().equals(partitionStrategy.getProperty())) {
+                    if (placeholder.getValue() instanceof Collection) {
+                        return ((Collection<?>) placeholder.getValue()).stream().map(o -> Optional.of(partitionStrategy.getTableName(o))).distinct().collect(Collectors.toList());
+                    }
+                    return List.of(Optional.of(partitionStrategy.getTableName(placeholder.getValue())));
+                }
+            }
+        }
+        return getAllTableNames(daoDescriptorBean, Optional.empty());
+    }
+
+    interface Query<T> {
+        T query(Optional<String> tableName) throws Exception;
+    }
+
+    // several partitions are queried in parallel on virtual threads with their own connections, at most
+    // fanOutWidth at a time. inside a transaction or a session they are queried one after another to stay on its connection
+    <T> List<T> fanOut(List<Optional<String>> tableNames, Query<T> query) throws Exception {
+        List<T> result = new ArrayList<>(tableNames.size());
+        if (tableNames.size() == 1 || !context.isParallelAllowed()) {
+            for (Optional<String> tableName : tableNames) {
+                result.add(query.query(tableName));
+            }
+            return result;
+        }
+        context.flushUnitOfWork();
+        Semaphore permits = new Semaphore(fanOutWidth);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<T>> futures = new ArrayList<>(tableNames.size());
+            for (Optional<String> tableName : tableNames) {
+                permits.acquire();
+                futures.add(executor.submit(() -> {
+                    try {
+                        return query.query(tableName);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<T> future : futures) {
+                result.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+        return result;
+    }
+
+    interface Reader {
+        void read(Optional<String> tableName, BlockingQueue<Object> rows) throws Exception;
+    }
+
+    private record PartitionEnd(Exception error) {
+    }
+
+    private record MergeCursor(Comparable value, Object row, int partition) {
+    }
+
+    private static final int mergeBufferRows = 256;
+
+    // streaming k-way merge of partitions read ordered by the property: every partition is read on its own virtual thread
+    // into a queue of mergeBufferRows rows, which is consumed while it is filled. inside a transaction or a session and
+    // with more partitions than fanOutWidth the partitions are read one after another and merged afterwards
+    List mergeOrdered(List<Optional<String>> tableNames, Reader reader, String orderProperty, int maxRows) throws Exception {
+        List<BlockingQueue<Object>> partitions = new ArrayList<>(tableNames.size());
+        ExecutorService executor = null;
+        try {
+            if (tableNames.size() > fanOutWidth || !context.isParallelAllowed()) {
+                for (Optional<String> tableName : tableNames) {
+                    BlockingQueue<Object> rows = new LinkedBlockingQueue<>();
+                    reader.read(tableName, rows);
+                    rows.add(new PartitionEnd(null));
+                    partitions.add(rows);
+                }
+            } else {
+                context.flushUnitOfWork();
+                executor = Executors.newVirtualThreadPerTaskExecutor();
+                for (Optional<String> tableName : tableNames) {
+                    BlockingQueue<Object> rows = new ArrayBlockingQueue<>(mergeBufferRows);
+                    partitions.add(rows);
+                    executor.submit(() -> {
+                        Exception error = null;
+                        try {
+                            reader.read(tableName, rows);
+                        } catch (Exception e) {
+                            error = e;
+                        }
+                        rows.put(new PartitionEnd(error));
+                        return null;
+                    });
+                }
+            }
+
+            Comparator<Comparable> valueComparator = Comparator.nullsFirst(Comparator.naturalOrder());
+            PriorityQueue<MergeCursor> heap = new PriorityQueue<>(tableNames.size(), (a, b) -> {
+                int result = valueComparator.compare(a.value(), b.value());
+                return result != 0 ? result : Integer.compare(a.partition(), b.partition());
+            });
+            for (int i = 0; i < partitions.size(); i++) {
+                pushNext(heap, partitions.get(i), i, orderProperty);
+            }
+            List result = new ArrayList();
+            while (!heap.isEmpty() && (maxRows == 0 || result.size() < maxRows)) {
+                MergeCursor cursor = heap.poll();
+                result.add(cursor.row());
+                pushNext(heap, partitions.get(cursor.partition()), cursor.partition(), orderProperty);
+            }
+            return result;
+        } finally {
+            // readers still blocked on a full queue (maxRows reached or an error) are interrupted
+            if (executor != null) {
+                executor.shutdownNow();
+                executor.close();
+            }
+        }
+    }
+
+    private void pushNext(PriorityQueue<MergeCursor> heap, BlockingQueue<Object> rows, int partition, String orderProperty) throws Exception {
+        Object row = rows.take();
+        if (row instanceof PartitionEnd end) {
+            if (end.error() != null) {
+                throw end.error();
+            }
+            return;
+        }
+        heap.add(new MergeCursor((Comparable) context.getProperty(row, orderProperty), row, partition));
+    }
+}
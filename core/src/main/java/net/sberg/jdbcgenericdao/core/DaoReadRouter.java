@@ -0,0 +1,51 @@
+package net.sberg.jdbcgenericdao.core;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// picks one of the read targets (replica datasources or templates) of an adapter
+public class DaoReadRouter<T> {
+
+    private final List<T> targets;
+    private final DaoReadRouting routing;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicIntegerArray running;
+
+    public DaoReadRouter(List<T> targets, DaoReadRouting routing) {
+        this.targets = List.copyOf(targets);
+        this.routing = routing;
+        this.running = new AtomicIntegerArray(targets.size());
+    }
+
+    public boolean isEmpty() {
+        return targets.isEmpty();
+    }
+
+    public int acquire() {
+        int start = Math.floorMod(next.getAndIncrement(), targets.size());
+        int idx = start;
+        if (routing == DaoReadRouting.LEAST_BUSY) {
+            for (int i = 1; i < targets.size(); i++) {
+                int candidate = (start + i) % targets.size();
+                if (running.get(candidate) < running.get(idx)) {
+                    idx = candidate;
+                }
+            }
+        }
+        running.incrementAndGet(idx);
+        return idx;
+    }
+
+    public T get(int idx) {
+        return targets.get(idx);
+    }
+
+    public void release(int idx) {
+        running.decrementAndGet(idx);
+    }
+
+    public int getRunning(int idx) {
+        return running.get(idx);
+    }
+}
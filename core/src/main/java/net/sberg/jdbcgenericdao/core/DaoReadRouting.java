@@ -0,0 +1,7 @@
+package net.sberg.jdbcgenericdao.core;
+
+public enum DaoReadRouting {
+    ROUND_ROBIN,
+    // the read target with the fewest running queries, ties go round robin
+    LEAST_BUSY
+}
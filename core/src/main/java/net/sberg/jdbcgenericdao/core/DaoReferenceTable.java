@@ -0,0 +1,463 @@
+package net.sberg.jdbcgenericdao.core;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+// read-only copy of a table: the rows are encoded into a direct buffer, the indexes are primitive arrays holding row
+// numbers, so millions of rows cost a handful of heap objects. filled once by the loading thread, immutable afterwards
+class DaoReferenceTable {
+
+    private static final byte NULL = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte FLOAT = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte STRING = 6;
+    private static final byte DECIMAL = 7;
+    private static final byte DATE = 8;
+    private static final byte DATE_TIME = 9;
+    private static final byte UUID_VALUE = 10;
+    private static final byte BYTES = 11;
+    private static final byte ENUM = 12;
+
+    // hash chains of a secondary index: heads per bucket and next per row, both hold row + 1
+    private record HashIndex(int[] heads, int[] next) {
+    }
+
+    private final List<String> properties;
+    private final Class[] types;
+    private final int idColumn;
+    private final List<String> indexedProperties;
+    private final int[] indexColumns;
+    private ByteBuffer data = ByteBuffer.allocateDirect(0);
+    private int[] rowOffsets = new int[1024];
+    private long[] ids;
+    private int[][] hashes;
+    private int rows;
+    private int bytes;
+    private final long start = System.nanoTime();
+    private long loadMicros;
+
+    // open addressing by id, slots hold row + 1
+    private long[] idKeys;
+    private int[] idSlots;
+    private final Map<String, HashIndex> hashIndexes = new HashMap<>();
+
+    DaoReferenceTable(List<String> properties, Class[] types, String idProperty, List<String> indexedProperties) {
+        this.properties = properties;
+        this.types = types;
+        int idColumn = properties.indexOf(idProperty);
+        // ids without a primitive representation get a hash index
+        if (idColumn >= 0 && !types[idColumn].equals(Integer.class) && !types[idColumn].equals(Long.class)) {
+            if (!indexedProperties.contains(idProperty)) {
+                indexedProperties = new ArrayList<>(indexedProperties);
+                indexedProperties.add(idProperty);
+            }
+            idColumn = -1;
+        } else if (idColumn >= 0) {
+            ids = new long[1024];
+        }
+        this.idColumn = idColumn;
+        this.indexedProperties = List.copyOf(indexedProperties);
+        this.indexColumns = new int[indexedProperties.size()];
+        this.hashes = new int[indexedProperties.size()][1024];
+        for (int i = 0; i < indexColumns.length; i++) {
+            indexColumns[i] = properties.indexOf(indexedProperties.get(i));
+            if (indexColumns[i] < 0) {
+                throw new IllegalStateException("error on creating the reference table: unknown property " + indexedProperties.get(i));
+            }
+        }
+    }
+
+    List<String> getIndexedProperties() {
+        return indexedProperties;
+    }
+
+    DaoReferenceTableStats getStats() {
+        return new DaoReferenceTableStats(rows, bytes, indexedProperties, loadMicros);
+    }
+
+    int size() {
+        return rows;
+    }
+
+    // the largest id, 0 without a primitive id index
+    long getMaxId() {
+        long maxId = 0;
+        if (idSlots != null) {
+            for (int slot = 0; slot < idSlots.length; slot++) {
+                if (idSlots[slot] != 0) {
+                    maxId = Math.max(maxId, idKeys[slot]);
+                }
+            }
+        }
+        return maxId;
+    }
+
+    int getSnapshotLength() {
+        long length = 12L + rows * 4L + (idSlots == null ? 0 : idSlots.length * 12L) + bytes;
+        for (HashIndex hashIndex : hashIndexes.values()) {
+            length += 4 + hashIndex.heads().length * 4L + rows * 4L;
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalStateException("error on writing the reference table: " + length + " bytes exceed the snapshot limit");
+        }
+        return (int) length;
+    }
+
+    // snapshot layout: rows, data length, row offsets, id index, hash indexes in the order of the indexed properties, data
+    void save(DataOutputStream out) throws IOException {
+        out.writeInt(rows);
+        out.writeInt(bytes);
+        for (int row = 0; row < rows; row++) {
+            out.writeInt(rowOffsets[row]);
+        }
+        out.writeInt(idSlots == null ? 0 : idSlots.length);
+        if (idSlots != null) {
+            for (long idKey : idKeys) {
+                out.writeLong(idKey);
+            }
+            for (int idSlot : idSlots) {
+                out.writeInt(idSlot);
+            }
+        }
+        for (String indexedProperty : indexedProperties) {
+            HashIndex hashIndex = hashIndexes.get(indexedProperty);
+            out.writeInt(hashIndex.heads().length);
+            for (int head : hashIndex.heads()) {
+                out.writeInt(head);
+            }
+            for (int next : hashIndex.next()) {
+                out.writeInt(next);
+            }
+        }
+        byte[] chunk = new byte[1 << 16];
+        for (int offset = 0; offset < bytes; offset += chunk.length) {
+            int length = Math.min(chunk.length, bytes - offset);
+            data.get(offset, chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+    }
+
+    // the indexes are copied to the heap, the rows are read from the snapshot buffer itself
+    void restore(ByteBuffer in) {
+        rows = DaoSnapshot.readCount(in, 4);
+        bytes = DaoSnapshot.readInt(in);
+        rowOffsets = new int[rows];
+        in.asIntBuffer().get(rowOffsets);
+        in.position(in.position() + rows * 4);
+        int idCapacity = DaoSnapshot.readCount(in, 12);
+        if (idCapacity > 0) {
+            if (Integer.bitCount(idCapacity) != 1) {
+                throw new IllegalStateException("error on restoring the reference table: id index capacity " + idCapacity);
+            }
+            idKeys = new long[idCapacity];
+            in.asLongBuffer().get(idKeys);
+            in.position(in.position() + idCapacity * 8);
+            idSlots = new int[idCapacity];
+            in.asIntBuffer().get(idSlots);
+            in.position(in.position() + idCapacity * 4);
+        }
+        for (String indexedProperty : indexedProperties) {
+            int[] heads = new int[DaoSnapshot.readCount(in, 4)];
+            if (Integer.bitCount(heads.length) != 1) {
+                throw new IllegalStateException("error on restoring the reference table: hash index capacity " + heads.length);
+            }
+            in.asIntBuffer().get(heads);
+            in.position(in.position() + heads.length * 4);
+            DaoSnapshot.require(in, rows * 4L);
+            int[] next = new int[rows];
+            in.asIntBuffer().get(next);
+            in.position(in.position() + rows * 4);
+            hashIndexes.put(indexedProperty, new HashIndex(heads, next));
+        }
+        DaoSnapshot.require(in, bytes);
+        data = in.slice(in.position(), bytes);
+        in.position(in.position() + bytes);
+        ids = null;
+        hashes = null;
+        loadMicros = (System.nanoTime() - start) / 1000;
+    }
+
+    void add(Object[] values) {
+        if (rows == rowOffsets.length) {
+            rowOffsets = Arrays.copyOf(rowOffsets, rows * 2);
+            if (ids != null) {
+                ids = Arrays.copyOf(ids, rows * 2);
+            }
+            for (int i = 0; i < hashes.length; i++) {
+                hashes[i] = Arrays.copyOf(hashes[i], rows * 2);
+            }
+        }
+        rowOffsets[rows] = data.position();
+        for (Object value : values) {
+            write(value);
+        }
+        if (ids != null) {
+            ids[rows] = ((Number) values[idColumn]).longValue();
+        }
+        for (int i = 0; i < indexColumns.length; i++) {
+            hashes[i][rows] = hash(values[indexColumns[i]]);
+        }
+        rows++;
+    }
+
+    // builds the indexes once all rows are added
+    void finish() {
+        int capacity = Integer.highestOneBit(Math.max(rows, 1) * 2 - 1) << 1;
+        int mask = capacity - 1;
+        if (ids != null) {
+            idKeys = new long[capacity];
+            idSlots = new int[capacity];
+            for (int row = 0; row < rows; row++) {
+                int slot = mix(Long.hashCode(ids[row])) & mask;
+                while (idSlots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                idKeys[slot] = ids[row];
+                idSlots[slot] = row + 1;
+            }
+            ids = null;
+        }
+        for (int i = 0; i < indexColumns.length; i++) {
+            int[] heads = new int[capacity];
+            int[] next = new int[rows];
+            // walked backwards, so the chains list the rows in table order
+            for (int row = rows - 1; row >= 0; row--) {
+                int bucket = mix(hashes[i][row]) & mask;
+                next[row] = heads[bucket];
+                heads[bucket] = row + 1;
+            }
+            hashIndexes.put(indexedProperties.get(i), new HashIndex(heads, next));
+        }
+        hashes = null;
+        rowOffsets = Arrays.copyOf(rowOffsets, rows);
+        ByteBuffer compact = ByteBuffer.allocateDirect(Math.max(data.position(), 1));
+        compact.put(data.flip());
+        data = compact;
+        bytes = data.position();
+        loadMicros = (System.nanoTime() - start) / 1000;
+    }
+
+    // equality placeholders on known properties with a value of the column type, in-lists, nulls (never equal in sql) and
+    // other value types (database conversion rules) go to the database
+    boolean canServe(List<DaoPlaceholderProperty> placeholders) {
+        if (placeholders == null) {
+            return true;
+        }
+        for (DaoPlaceholderProperty placeholder : placeholders) {
+            int column = properties.indexOf(placeholder.getProperty());
+            if (column < 0 || placeholder.getValue() == null || !matchesType(types[column], placeholder.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // the pairs normalize compares by value
+    private static boolean matchesType(Class type, Object value) {
+        if (isIntegral(type) && isIntegral(value.getClass())) {
+            return true;
+        }
+        if (type.isEnum()) {
+            return type.isInstance(value) || value instanceof String;
+        }
+        return type.equals(value.getClass());
+    }
+
+    private static boolean isIntegral(Class type) {
+        return type.equals(Integer.class) || type.equals(Long.class) || type.equals(Short.class) || type.equals(Byte.class);
+    }
+
+    // the id placeholder is looked up first, then the first indexed placeholder, otherwise all rows are scanned
+    List<Object[]> find(List<DaoPlaceholderProperty> placeholders, int maxRows) {
+        List<DaoPlaceholderProperty> filter = placeholders == null ? List.of() : placeholders;
+        List<Object[]> result = new ArrayList<>();
+        for (DaoPlaceholderProperty placeholder : filter) {
+            if (idKeys != null && placeholder.getProperty().equals(properties.get(idColumn))) {
+                if (placeholder.getValue() instanceof Number) {
+                    int row = findId(((Number) placeholder.getValue()).longValue());
+                    if (row >= 0) {
+                        collect(row, filter, result);
+                    }
+                }
+                return result;
+            }
+        }
+        for (DaoPlaceholderProperty placeholder : filter) {
+            HashIndex hashIndex = hashIndexes.get(placeholder.getProperty());
+            if (hashIndex != null) {
+                int row = hashIndex.heads()[mix(hash(placeholder.getValue())) & (hashIndex.heads().length - 1)];
+                while (row != 0 && (maxRows == 0 || result.size() < maxRows)) {
+                    collect(row - 1, filter, result);
+                    row = hashIndex.next()[row - 1];
+                }
+                return result;
+            }
+        }
+        for (int row = 0; row < rows && (maxRows == 0 || result.size() < maxRows); row++) {
+            collect(row, filter, result);
+        }
+        return result;
+    }
+
+    private int findId(long id) {
+        int mask = idSlots.length - 1;
+        int slot = mix(Long.hashCode(id)) & mask;
+        while (idSlots[slot] != 0) {
+            if (idKeys[slot] == id) {
+                return idSlots[slot] - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void collect(int row, List<DaoPlaceholderProperty> filter, List<Object[]> result) {
+        Object[] values = read(row);
+        for (DaoPlaceholderProperty placeholder : filter) {
+            if (!Objects.equals(normalize(values[properties.indexOf(placeholder.getProperty())]), normalize(placeholder.getValue()))) {
+                return;
+            }
+        }
+        result.add(values);
+    }
+
+    // integral numbers, decimals and enums compare by value, whatever type or scale the placeholder uses
+    private static Object normalize(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.stripTrailingZeros();
+        }
+        if (value instanceof Enum) {
+            return ((Enum) value).name();
+        }
+        return value;
+    }
+
+    private static int hash(Object value) {
+        return Objects.hashCode(normalize(value));
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private void ensure(int length) {
+        if (data.remaining() >= length) {
+            return;
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(Math.max(data.capacity() * 2, 1 << 16), data.position() + length));
+        grown.put(data.flip());
+        data = grown;
+    }
+
+    private void writeBytes(byte tag, byte[] value) {
+        ensure(5 + value.length);
+        data.put(tag).putInt(value.length).put(value);
+    }
+
+    private void write(Object value) {
+        if (value == null) {
+            ensure(1);
+            data.put(NULL);
+        } else if (value instanceof Integer v) {
+            ensure(5);
+            data.put(INT).putInt(v);
+        } else if (value instanceof Long v) {
+            ensure(9);
+            data.put(LONG).putLong(v);
+        } else if (value instanceof Double v) {
+            ensure(9);
+            data.put(DOUBLE).putDouble(v);
+        } else if (value instanceof Float v) {
+            ensure(5);
+            data.put(FLOAT).putFloat(v);
+        } else if (value instanceof Boolean v) {
+            ensure(2);
+            data.put(BOOLEAN).put((byte) (v ? 1 : 0));
+        } else if (value instanceof String v) {
+            writeBytes(STRING, v.getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof BigDecimal v) {
+            writeBytes(DECIMAL, v.toString().getBytes(StandardCharsets.US_ASCII));
+        } else if (value instanceof LocalDate v) {
+            ensure(9);
+            data.put(DATE).putLong(v.toEpochDay());
+        } else if (value instanceof LocalDateTime v) {
+            ensure(13);
+            data.put(DATE_TIME).putLong(v.toEpochSecond(ZoneOffset.UTC)).putInt(v.getNano());
+        } else if (value instanceof UUID v) {
+            ensure(17);
+            data.put(UUID_VALUE).putLong(v.getMostSignificantBits()).putLong(v.getLeastSignificantBits());
+        } else if (value instanceof byte[] v) {
+            writeBytes(BYTES, v);
+        } else if (value instanceof Enum v) {
+            writeBytes(ENUM, v.name().getBytes(StandardCharsets.UTF_8));
+        } else {
+            throw new IllegalStateException("error on creating the reference table: unsupported value type " + value.getClass().getName());
+        }
+    }
+
+    // absolute reads only, the buffer is shared by all reading threads
+    private Object[] read(int row) {
+        Object[] values = new Object[types.length];
+        int offset = rowOffsets[row];
+        for (int i = 0; i < values.length; i++) {
+            byte tag = data.get(offset++);
+            switch (tag) {
+                case NULL -> values[i] = null;
+                case INT -> {
+                    values[i] = data.getInt(offset);
+                    offset += 4;
+                }
+                case LONG -> {
+                    values[i] = data.getLong(offset);
+                    offset += 8;
+                }
+                case DOUBLE -> {
+                    values[i] = data.getDouble(offset);
+                    offset += 8;
+                }
+                case FLOAT -> {
+                    values[i] = data.getFloat(offset);
+                    offset += 4;
+                }
+                case BOOLEAN -> values[i] = data.get(offset++) != 0;
+                case DATE -> {
+                    values[i] = LocalDate.ofEpochDay(data.getLong(offset));
+                    offset += 8;
+                }
+                case DATE_TIME -> {
+                    values[i] = LocalDateTime.ofEpochSecond(data.getLong(offset), data.getInt(offset + 8), ZoneOffset.UTC);
+                    offset += 12;
+                }
+                case UUID_VALUE -> {
+                    values[i] = new UUID(data.getLong(offset), data.getLong(offset + 8));
+                    offset += 16;
+                }
+                default -> {
+                    byte[] bytes = new byte[data.getInt(offset)];
+                    data.get(offset + 4, bytes);
+                    offset += 4 + bytes.length;
+                    values[i] = switch (tag) {
+                        case STRING -> new String(bytes, StandardCharsets.UTF_8);
+                        case DECIMAL -> new BigDecimal(new String(bytes, StandardCharsets.US_ASCII));
+                        case ENUM -> Enum.valueOf(types[i], new String(bytes, StandardCharsets.UTF_8));
+                        default -> bytes;
+                    };
+                }
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,15 @@
+package net.sberg.jdbcgenericdao.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class DaoReferenceTableStats {
+    private int rows;
+    private int bytes;
+    private List<String> indexedProperties;
+    private long loadMicros;
+}
@@ -0,0 +1,130 @@
+package net.sberg.jdbcgenericdao.core;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// the reference tables of the entities. a table is loaded as a whole and swapped in, readers keep the table they got
+class DaoReferenceTables {
+
+    interface Context {
+        DaoDescriptorBean getDescriptor(String entityName);
+
+        boolean isPartitioned(String entityName);
+
+        // the mapped properties in column order, null if one of them is a lob
+        List<String> getProperties(DaoDescriptorBean daoDescriptorBean) throws Exception;
+
+        // reads all rows of the entity table into the reference table
+        void load(DaoDescriptorBean daoDescriptorBean, DaoReferenceTable referenceTable) throws Exception;
+    }
+
+    private final Map<String, DaoReferenceTable> tables = new ConcurrentHashMap<>();
+    private final Context context;
+
+    DaoReferenceTables(Context context) {
+        this.context = context;
+    }
+
+    void register(String entityName, List<String> indexedProperties) throws Exception {
+        // a table restored from a snapshot with these indexes is kept
+        DaoReferenceTable current = tables.get(entityName);
+        if (current != null && current.getIndexedProperties().containsAll(indexedProperties)) {
+            return;
+        }
+        tables.put(entityName, load(entityName, indexedProperties));
+    }
+
+    void reload(String entityName) throws Exception {
+        DaoReferenceTable current = tables.get(entityName);
+        if (current == null) {
+            throw new IllegalStateException("error on reloading the reference table: " + entityName + " is not registered");
+        }
+        tables.put(entityName, load(entityName, current.getIndexedProperties()));
+    }
+
+    void unregister(String entityName) {
+        tables.remove(entityName);
+    }
+
+    void clear() {
+        tables.clear();
+    }
+
+    DaoReferenceTable get(String entityName) {
+        return tables.get(entityName);
+    }
+
+    // sorted by entity name
+    Map<String, DaoReferenceTable> getAll() {
+        return new TreeMap<>(tables);
+    }
+
+    void put(String entityName, DaoReferenceTable referenceTable) {
+        tables.put(entityName, referenceTable);
+    }
+
+    Map<String, DaoReferenceTableStats> getStats() {
+        Map<String, DaoReferenceTableStats> result = new TreeMap<>();
+        tables.forEach((key, referenceTable) -> result.put(key, referenceTable.getStats()));
+        return result;
+    }
+
+    // null if the reference table of the entity can't answer the equality placeholders
+    List<Object[]> find(String entityName, List<DaoPlaceholderProperty> placeholders, int maxRows) {
+        DaoReferenceTable referenceTable = tables.get(entityName);
+        if (referenceTable == null || !referenceTable.canServe(placeholders)) {
+            return null;
+        }
+        return referenceTable.find(placeholders, maxRows);
+    }
+
+    private DaoReferenceTable load(String entityName, List<String> indexedProperties) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = context.getDescriptor(entityName);
+        if (context.isPartitioned(entityName)) {
+            throw new IllegalStateException("error on loading the reference table: " + entityName + " is partitioned");
+        }
+        List<String> properties = context.getProperties(daoDescriptorBean);
+        if (properties == null) {
+            throw new IllegalStateException("error on loading the reference table: " + entityName + " has lob properties");
+        }
+        DaoReferenceTable referenceTable = create(daoDescriptorBean, properties, indexedProperties);
+        context.load(daoDescriptorBean, referenceTable);
+        referenceTable.finish();
+        return referenceTable;
+    }
+
+    private static DaoReferenceTable create(DaoDescriptorBean daoDescriptorBean, List<String> properties, List<String> indexedProperties) {
+        Class[] types = properties.stream().map(o -> daoDescriptorBean.getProperties().get(o).getTypeClass()).toArray(Class[]::new);
+        return new DaoReferenceTable(properties, types, daoDescriptorBean.getDbPropertyMapping().get(daoDescriptorBean.getPrimaryKey()), indexedProperties);
+    }
+
+    // an empty table to restore a snapshot into, null if the entity is unknown, partitioned, has lobs or another schema
+    DaoReferenceTable createForRestore(String entityName, List<String> indexedProperties, long schemaHash) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = context.getDescriptor(entityName);
+        if (daoDescriptorBean == null || context.isPartitioned(entityName)) {
+            return null;
+        }
+        List<String> properties = context.getProperties(daoDescriptorBean);
+        if (properties == null || getSchemaHash(daoDescriptorBean, properties) != schemaHash) {
+            return null;
+        }
+        return create(daoDescriptorBean, properties, indexedProperties);
+    }
+
+    long getSchemaHash(String entityName) throws Exception {
+        DaoDescriptorBean daoDescriptorBean = context.getDescriptor(entityName);
+        return getSchemaHash(daoDescriptorBean, context.getProperties(daoDescriptorBean));
+    }
+
+    // a snapshot table is only restored if the entity still has the same table, columns and types
+    private static long getSchemaHash(DaoDescriptorBean daoDescriptorBean, List<String> properties) {
+        StringBuilder schema = new StringBuilder(daoDescriptorBean.getName()).append('|').append(daoDescriptorBean.getDbTable()).append('|').append(daoDescriptorBean.getPrimaryKey());
+        for (String property : properties) {
+            DaoDescriptorProperty daoDescriptorProperty = daoDescriptorBean.getProperties().get(property);
+            schema.append('|').append(property).append(':').append(daoDescriptorProperty.getDbProperty()).append(':').append(daoDescriptorProperty.getTypeClass().getName());
+        }
+        return DaoSnapshot.schemaHash(schema.toString());
+    }
+}
@@ -0,0 +1,201 @@
+package net.sberg.jdbcgenericdao.core;
+
+import java.io.Serializable;
+import java.util.*;
+
+// map projection row: all rows of a query share one key schema, the values live in a plain array
+public class DaoRowMap extends AbstractMap<String, Object> implements Serializable {
+
+    // a key put with a null value, an enum keeps its identity through serialization
+    private enum Null {
+        VALUE
+    }
+
+    private final Schema schema;
+    private final Object[] values;
+    private HashMap<String, Object> extra;
+
+    DaoRowMap(Schema schema, Object[] values) {
+        this.schema = schema;
+        this.values = values;
+    }
+
+    private static Object mask(Object value) {
+        return value == null ? Null.VALUE : value;
+    }
+
+    private static Object unmask(Object value) {
+        return value == Null.VALUE ? null : value;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Object value : values) {
+            if (value != null) {
+                size++;
+            }
+        }
+        return extra == null ? size : size + extra.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        Integer idx = schema.index.get(key);
+        if (idx != null) {
+            return values[idx] != null;
+        }
+        return extra != null && extra.containsKey(key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        Integer idx = schema.index.get(key);
+        if (idx != null) {
+            return unmask(values[idx]);
+        }
+        return extra == null ? null : extra.get(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Integer idx = schema.index.get(key);
+        if (idx != null) {
+            Object old = unmask(values[idx]);
+            values[idx] = mask(value);
+            return old;
+        }
+        if (extra == null) {
+            extra = new HashMap<>();
+        }
+        return extra.put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        Integer idx = schema.index.get(key);
+        if (idx != null) {
+            Object old = unmask(values[idx]);
+            values[idx] = null;
+            return old;
+        }
+        return extra == null ? null : extra.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+        extra = null;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public int size() {
+                return DaoRowMap.this.size();
+            }
+
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<>() {
+                    private int next = advance(0);
+                    private int current = -1;
+                    private Iterator<Entry<String, Object>> extraIterator;
+                    private boolean currentIsExtra;
+
+                    private int advance(int from) {
+                        while (from < values.length && values[from] == null) {
+                            from++;
+                        }
+                        return from;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        if (next < values.length) {
+                            return true;
+                        }
+                        if (extraIterator == null && extra != null) {
+                            extraIterator = extra.entrySet().iterator();
+                        }
+                        return extraIterator != null && extraIterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        if (next < values.length) {
+                            current = next;
+                            currentIsExtra = false;
+                            next = advance(next + 1);
+                            return new RowEntry(current);
+                        }
+                        currentIsExtra = true;
+                        return extraIterator.next();
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (currentIsExtra) {
+                            extraIterator.remove();
+                        } else if (current >= 0 && values[current] != null) {
+                            values[current] = null;
+                        } else {
+                            throw new IllegalStateException();
+                        }
+                    }
+                };
+            }
+        };
+    }
+
+    private class RowEntry implements Entry<String, Object> {
+        private final int idx;
+
+        private RowEntry(int idx) {
+            this.idx = idx;
+        }
+
+        @Override
+        public String getKey() {
+            return schema.keys[idx];
+        }
+
+        @Override
+        public Object getValue() {
+            return unmask(values[idx]);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object old = unmask(values[idx]);
+            values[idx] = mask(value);
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry<?, ?> e && Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+    }
+
+    static class Schema implements Serializable {
+        private final String[] keys;
+        private final HashMap<String, Integer> index = new HashMap<>();
+
+        Schema(List<String> keys) {
+            this.keys = keys.toArray(new String[0]);
+            for (int i = 0; i < this.keys.length; i++) {
+                index.put(this.keys[i], i);
+            }
+        }
+    }
+}
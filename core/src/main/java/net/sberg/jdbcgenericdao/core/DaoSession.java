@@ -0,0 +1,181 @@
+package net.sberg.jdbcgenericdao.core;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// one connection for the dao operations of a thread until the session is closed, statements are prepared once per sql
+// and reused from a lru cache, nested openSession calls share the session. with a cache size of 0 or less every
+// operation prepares its statement and closes it after use
+public class DaoSession implements AutoCloseable {
+
+    public interface Work<T> {
+        T execute() throws Exception;
+    }
+
+    private final Connection connection;
+    private final AutoCloseable release;
+    private final Map<String, PreparedStatement> statements;
+    private final boolean caching;
+    private final Set<PreparedStatement> uncached = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int depth = 1;
+
+    DaoSession(Connection connection, int statementCacheSize, AutoCloseable release) {
+        this.connection = connection;
+        this.release = release;
+        this.caching = statementCacheSize > 0;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= statementCacheSize) {
+                    return false;
+                }
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public int getPreparedStatementCount() {
+        return statements.size();
+    }
+
+    void enter() {
+        depth++;
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException e) {
+            // the statement is dropped anyway
+        }
+    }
+
+    // uncached statements stay open until they are released or the session is closed
+    PreparedStatement prepare(String sql, String keyColumn) throws SQLException {
+        if (!caching) {
+            PreparedStatement ps = keyColumn == null ? connection.prepareStatement(sql) : connection.prepareStatement(sql, new String[]{keyColumn});
+            uncached.add(ps);
+            return ps;
+        }
+        String key = keyColumn == null ? sql : sql + '\u0000' + keyColumn;
+        PreparedStatement ps = statements.get(key);
+        if (ps == null || ps.isClosed()) {
+            ps = keyColumn == null ? connection.prepareStatement(sql) : connection.prepareStatement(sql, new String[]{keyColumn});
+            statements.put(key, ps);
+        } else {
+            ps.clearParameters();
+        }
+        return ps;
+    }
+
+    void release(PreparedStatement ps) {
+        if (uncached.remove(ps)) {
+            closeQuietly(ps);
+        }
+    }
+
+    <T> List<T> query(String sql, AbstractJdbcGenericDao.PreparedStatementFiller filler, AbstractJdbcGenericDao.RowMapperFn<T> mapper, int maxRows) throws Exception {
+        PreparedStatement ps = prepare(sql, null);
+        try {
+            ps.setMaxRows(maxRows);
+            if (filler != null) filler.setValues(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<T> result = new ArrayList<>();
+                int i = 0;
+                while (rs.next()) {
+                    result.add(mapper.mapRow(rs, i++));
+                }
+                return result;
+            }
+        } finally {
+            release(ps);
+        }
+    }
+
+    <T> T queryForObject(String sql, AbstractJdbcGenericDao.PreparedStatementFiller filler, AbstractJdbcGenericDao.ResultSetExtractor<T> extractor) throws Exception {
+        PreparedStatement ps = prepare(sql, null);
+        try {
+            ps.setMaxRows(0);
+            if (filler != null) filler.setValues(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                return extractor.extract(rs);
+            }
+        } finally {
+            release(ps);
+        }
+    }
+
+    int manipulate(String sql, AbstractJdbcGenericDao.PreparedStatementFiller filler) throws Exception {
+        PreparedStatement ps = prepare(sql, null);
+        try {
+            if (filler != null) filler.setValues(ps);
+            return ps.executeUpdate();
+        } finally {
+            release(ps);
+        }
+    }
+
+    int[] batchManipulate(String sql, AbstractJdbcGenericDao.PreparedBatchStatementFiller filler) throws Exception {
+        PreparedStatement ps = prepare(sql, null);
+        try {
+            for (int i = 0; i < filler.getBatchSize(); i++) {
+                filler.setValues(ps, i);
+                ps.addBatch();
+            }
+            return ps.executeBatch();
+        } finally {
+            release(ps);
+        }
+    }
+
+    List<Object> batchManipulateReturningKeys(String sql, AbstractJdbcGenericDao.PreparedBatchStatementFiller filler, String keyColumn) throws Exception {
+        PreparedStatement ps = prepare(sql, keyColumn);
+        try {
+            for (int i = 0; i < filler.getBatchSize(); i++) {
+                filler.setValues(ps, i);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            List<Object> keys = new ArrayList<>(filler.getBatchSize());
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                while (rs.next()) {
+                    keys.add(rs.getObject(1));
+                }
+            }
+            return keys;
+        } finally {
+            release(ps);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (--depth > 0) {
+            return;
+        }
+        try {
+            for (PreparedStatement ps : statements.values()) {
+                closeQuietly(ps);
+            }
+            statements.clear();
+            uncached.forEach(DaoSession::closeQuietly);
+            uncached.clear();
+        } finally {
+            release.close();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package net.sberg.jdbcgenericdao.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// concurrent identical selects share one execution: the first caller runs it, the others wait for its raw rows,
+// nothing is kept once the execution is done
+class DaoSingleFlight {
+
+    interface Loader {
+        List<Object[]> load() throws Exception;
+    }
+
+    record Key(String sql, int maxRows, List<String> columns, List<DaoPlaceholderProperty> placeholders) {
+    }
+
+    private final Map<Key, CompletableFuture<List<Object[]>>> flights = new ConcurrentHashMap<>();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+    private volatile boolean enabled;
+
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    // selects are identical with the same sql, row limit, columns and placeholder values
+    List<Object[]> execute(String sql, int maxRows, List<String> columns, List<DaoPlaceholderProperty> placeholders, Loader loader) throws Exception {
+        return execute(new Key(sql, maxRows, columns, placeholders == null ? List.of() : new ArrayList<>(placeholders)), loader);
+    }
+
+    // the rows are shared between the callers, they have to be copied before they are converted
+    List<Object[]> execute(Key key, Loader loader) throws Exception {
+        CompletableFuture<List<Object[]>> flight = new CompletableFuture<>();
+        CompletableFuture<List<Object[]>> running = flights.putIfAbsent(key, flight);
+        if (running != null) {
+            shared.incrementAndGet();
+            try {
+                return running.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+        executions.incrementAndGet();
+        try {
+            List<Object[]> rows = loader.load();
+            flight.complete(rows);
+            return rows;
+        } catch (Exception | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    DaoSingleFlightStats getStats() {
+        return new DaoSingleFlightStats(executions.get(), shared.get());
+    }
+}
@@ -0,0 +1,11 @@
+package net.sberg.jdbcgenericdao.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DaoSingleFlightStats {
+    private long executions;
+    private long shared;
+}
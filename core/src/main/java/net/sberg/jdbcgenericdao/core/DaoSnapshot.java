@@ -0,0 +1,174 @@
+package net.sberg.jdbcgenericdao.core;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// writes and reads the snapshot file. layout: magic, version, the id counters, then per reference table the entity name, its schema
+// hash, the indexed properties, the row count and max id of the time of writing, the table itself and its crc32.
+// every read is bounds checked, a truncated or corrupt file fails with an IllegalStateException
+class DaoSnapshot {
+
+    static final int magic = 0x4A474453;
+    static final int version = 2;
+
+    record Table(String entityName, DaoReferenceTable referenceTable, int rows, long maxId) {
+    }
+
+    record Content(Map<String, Long> counters, List<Table> tables) {
+    }
+
+    // written to a temp file next to the target, which replaces the target at once
+    static void write(Path file, Map<String, Long> counters, DaoReferenceTables referenceTables) throws Exception {
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(magic);
+                out.writeInt(version);
+                out.writeInt(counters.size());
+                for (Map.Entry<String, Long> counter : counters.entrySet()) {
+                    writeString(out, counter.getKey());
+                    out.writeLong(counter.getValue());
+                }
+                Map<String, DaoReferenceTable> tables = referenceTables.getAll();
+                out.writeInt(tables.size());
+                for (Map.Entry<String, DaoReferenceTable> table : tables.entrySet()) {
+                    DaoReferenceTable referenceTable = table.getValue();
+                    writeString(out, table.getKey());
+                    out.writeLong(referenceTables.getSchemaHash(table.getKey()));
+                    out.writeInt(referenceTable.getIndexedProperties().size());
+                    for (String indexedProperty : referenceTable.getIndexedProperties()) {
+                        writeString(out, indexedProperty);
+                    }
+                    out.writeInt(referenceTable.size());
+                    out.writeLong(referenceTable.getMaxId());
+                    out.writeInt(referenceTable.getSnapshotLength());
+                    CheckedOutputStream checked = new CheckedOutputStream(out, new CRC32());
+                    referenceTable.save(new DataOutputStream(checked));
+                    out.writeLong(checked.getChecksum().getValue());
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // the whole file is read before anything is applied. null for a missing, truncated or corrupt file or one of
+    // another version, tables of changed entities are left out
+    static Content read(Path file, DaoReferenceTables referenceTables) throws Exception {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("error on loading the snapshot: " + file + " exceeds " + Integer.MAX_VALUE + " bytes");
+            }
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (in.remaining() < 8 || in.getInt() != magic || in.getInt() != version) {
+            return null;
+        }
+        Map<String, Long> counters = new HashMap<>();
+        List<Table> snapshotTables = new ArrayList<>();
+        try {
+            int counterCount = readCount(in, 12);
+            for (int i = 0; i < counterCount; i++) {
+                counters.put(readString(in), readLong(in));
+            }
+            int tables = readCount(in, 40);
+            for (int i = 0; i < tables; i++) {
+                String entityName = readString(in);
+                long schemaHash = readLong(in);
+                List<String> indexedProperties = new ArrayList<>();
+                int indexes = readCount(in, 4);
+                for (int j = 0; j < indexes; j++) {
+                    indexedProperties.add(readString(in));
+                }
+                int rows = readInt(in);
+                long maxId = readLong(in);
+                int length = readCount(in, 1);
+                ByteBuffer section = in.slice(in.position(), length);
+                in.position(in.position() + length);
+                if (checksum(section) != readLong(in)) {
+                    throw new IllegalStateException("error on loading the snapshot: " + file + " is corrupt at " + entityName);
+                }
+
+                DaoReferenceTable referenceTable = referenceTables.createForRestore(entityName, indexedProperties, schemaHash);
+                if (referenceTable == null) {
+                    continue;
+                }
+                referenceTable.restore(section);
+                if (referenceTable.size() != rows || referenceTable.getMaxId() != maxId) {
+                    throw new IllegalStateException("error on loading the snapshot: " + file + " is corrupt at " + entityName);
+                }
+                snapshotTables.add(new Table(entityName, referenceTable, rows, maxId));
+            }
+        } catch (RuntimeException e) {
+            // a truncated or corrupt snapshot is skipped, the reference tables are loaded from the database when registered
+            return null;
+        }
+        return new Content(counters, snapshotTables);
+    }
+
+    static long schemaHash(String schema) {
+        CRC32 crc = new CRC32();
+        crc.update(schema.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static long checksum(ByteBuffer section) {
+        CRC32 crc = new CRC32();
+        crc.update(section.duplicate());
+        return crc.getValue();
+    }
+
+    static void require(ByteBuffer in, long bytes) {
+        if (bytes < 0 || bytes > in.remaining()) {
+            throw new IllegalStateException("error on reading the snapshot: " + bytes + " bytes expected, " + in.remaining() + " left");
+        }
+    }
+
+    static int readInt(ByteBuffer in) {
+        require(in, 4);
+        return in.getInt();
+    }
+
+    static long readLong(ByteBuffer in) {
+        require(in, 8);
+        return in.getLong();
+    }
+
+    // a count of elements that take at least elementBytes each
+    static int readCount(ByteBuffer in, int elementBytes) {
+        int count = readInt(in);
+        require(in, (long) count * elementBytes);
+        return count;
+    }
+
+    static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[readCount(in, 1)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,121 @@
+package net.sberg.jdbcgenericdao.core;
+
+import java.util.*;
+
+// write-behind buffer of a thread: coalesces the changes per entity/table/id until they are flushed as batches
+class DaoUnitOfWork {
+
+    enum Operation {INSERT, UPDATE, DELETE}
+
+    record Group(Operation operation, DaoDescriptorBean daoDescriptorBean, Optional<String> tableName, List<Object> entities, List<Object> ids) {
+    }
+
+    private record Key(String entityName, String tableName, Object id) {
+    }
+
+    private record GroupKey(Operation operation, String entityName, String tableName) {
+    }
+
+    private static class Change {
+        private Operation operation;
+        private Object entity;
+        private final Object id;
+        private final DaoDescriptorBean daoDescriptorBean;
+        private final Optional<String> tableName;
+
+        private Change(Operation operation, Object entity, Object id, DaoDescriptorBean daoDescriptorBean, Optional<String> tableName) {
+            this.operation = operation;
+            this.entity = entity;
+            this.id = id;
+            this.daoDescriptorBean = daoDescriptorBean;
+            this.tableName = tableName;
+        }
+    }
+
+    private final LinkedHashMap<Key, Change> changes = new LinkedHashMap<>();
+    private final Set<String> dirtyTables = new HashSet<>();
+
+    void record(Operation operation, DaoDescriptorBean daoDescriptorBean, Optional<String> tableName, Object id, Object entity) {
+        Key key = new Key(daoDescriptorBean.getName(), tableName.orElse(null), id);
+        dirtyTables.add(tableName.orElse(daoDescriptorBean.getDbTable()).toLowerCase());
+
+        Change change = changes.get(key);
+        if (change == null) {
+            changes.put(key, new Change(operation, entity, id, daoDescriptorBean, tableName));
+            return;
+        }
+        switch (operation) {
+            case INSERT -> {
+                if (change.operation == Operation.INSERT || change.operation == Operation.UPDATE) {
+                    throw new IllegalStateException("error on inserting the entity: " + daoDescriptorBean.getName() + " id " + id + " is already pending");
+                }
+                // delete followed by an insert of the same id
+                change.operation = Operation.UPDATE;
+                change.entity = entity;
+            }
+            case UPDATE -> {
+                if (change.operation == Operation.DELETE) {
+                    throw new IllegalStateException("error on updating the entity: " + daoDescriptorBean.getName() + " id " + id + " is already deleted");
+                }
+                change.entity = entity;
+            }
+            case DELETE -> {
+                if (change.operation == Operation.INSERT) {
+                    changes.remove(key);
+                } else {
+                    change.operation = Operation.DELETE;
+                    change.entity = entity;
+                }
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    // the table names are matched against the sql text, a false positive only costs an early flush
+    boolean isDirtyFor(String sql) {
+        if (changes.isEmpty()) {
+            return false;
+        }
+        String lowerSql = sql.toLowerCase();
+        for (String dirtyTable : dirtyTables) {
+            if (lowerSql.contains(dirtyTable)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // inserts and updates in the order the entity/table was first touched, deletes in reverse order
+    List<Group> drain() {
+        Map<GroupKey, Group> groups = new LinkedHashMap<>();
+        for (Change change : changes.values()) {
+            GroupKey groupKey = new GroupKey(change.operation, change.daoDescriptorBean.getName(), change.tableName.orElse(null));
+            Group group = groups.computeIfAbsent(groupKey, k -> new Group(change.operation, change.daoDescriptorBean, change.tableName, new ArrayList<>(), new ArrayList<>()));
+            group.entities().add(change.entity);
+            group.ids().add(change.id);
+        }
+        changes.clear();
+        dirtyTables.clear();
+
+        List<Group> result = new ArrayList<>();
+        List<Group> deletes = new ArrayList<>();
+        for (Operation operation : List.of(Operation.INSERT, Operation.UPDATE)) {
+            for (Group group : groups.values()) {
+                if (group.operation() == operation) {
+                    result.add(group);
+                }
+            }
+        }
+        for (Group group : groups.values()) {
+            if (group.operation() == Operation.DELETE) {
+                deletes.add(group);
+            }
+        }
+        Collections.reverse(deletes);
+        result.addAll(deletes);
+        return result;
+    }
+}
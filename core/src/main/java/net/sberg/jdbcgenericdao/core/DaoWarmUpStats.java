@@ -0,0 +1,13 @@
+package net.sberg.jdbcgenericdao.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DaoWarmUpStats {
+    private int entities;
+    private int statements;
+    private int rows;
+    private long micros;
+}
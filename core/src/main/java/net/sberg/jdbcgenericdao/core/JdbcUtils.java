@@ -10,6 +10,8 @@ import java.util.List;
 
 public class JdbcUtils {
 
+    // inlines the values into the sql, use a collection placeholder with getInListStr instead
+    @Deprecated
     public static final String getListAsStr(List l) throws Exception {
         String values = Arrays.toString(l.toArray());
         values = values.replaceAll("\\s","");
@@ -18,6 +20,13 @@ public class JdbcUtils {
         return values;
     }
 
+    // "(column in (?, ?, ...))" padded for a collection placeholder of the given size, for hand written sql
+    public static final String getInListStr(String column, int size) {
+        return DaoDescriptorHelper.createInListClause(column, size);
+    }
+
+    // inlines the value into the sql, use DaoCriteria.like with placeholders instead
+    @Deprecated
     public static final StringBuilder getLikeStr(String value, String delimiter, String property) {
         StringBuilder result = new StringBuilder();
         result.append(" ( ");
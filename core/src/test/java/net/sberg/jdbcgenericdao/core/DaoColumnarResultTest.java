@@ -0,0 +1,64 @@
+package net.sberg.jdbcgenericdao.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoColumnarResultTest {
+
+    private static final List<String> columns = List.of("id", "amount", "price", "name");
+
+    private static DaoColumnarResult read(ResultSet rs, DaoColumnarResult result) throws Exception {
+        while (rs.next()) {
+            result.readRow(rs);
+        }
+        return result;
+    }
+
+    @Test
+    void readRows() throws Exception {
+        DaoColumnarResult result;
+        DaoColumnarResult other;
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:"); Statement statement = connection.createStatement()) {
+            statement.execute("create table ITEM (ID int primary key, AMOUNT bigint, PRICE decimal(10, 2), NAME varchar(20))");
+            statement.execute("insert into ITEM values (1, 10, 1.50, 'a'), (2, null, 2.25, null), (3, 30, null, 'c')");
+            // enough rows to grow past the first chunk
+            statement.execute("insert into ITEM select X + 3, X, 1, 'x' from system_range(1, 2000)");
+            try (ResultSet rs = statement.executeQuery("select ID, AMOUNT, PRICE, NAME from ITEM where ID <= 3 order by ID")) {
+                result = read(rs, DaoColumnarResult.create(columns, rs.getMetaData()));
+            }
+            try (ResultSet rs = statement.executeQuery("select ID, AMOUNT, PRICE, NAME from ITEM where ID > 3 order by ID")) {
+                other = read(rs, DaoColumnarResult.create(columns, List.of(Integer.class, Long.class, BigDecimal.class, String.class)));
+            }
+        }
+        assertEquals(3, result.getRowCount());
+        // the arrays keep their chunk capacity until trimmed
+        assertEquals(1024, result.getInts("id").length);
+        result.trim();
+        assertArrayEquals(new int[]{1, 2, 3}, result.getInts("id"));
+        // sql nulls are marked in the bitmap, the typed arrays hold defaults
+        assertTrue(result.isNull("amount", 1));
+        assertNull(result.getValue("amount", 1));
+        assertEquals(30L, result.getValue("amount", 2));
+        assertEquals(2, result.countNotNull("name"));
+        assertEquals(40, result.sumLong("amount"));
+        assertEquals(new BigDecimal("3.75"), result.sumBigDecimal("price"));
+        assertThrows(IllegalStateException.class, () -> result.sumLong("name"));
+        assertThrows(IllegalStateException.class, () -> result.getValue("unknown", 0));
+
+        result.append(other);
+        result.trim();
+        assertEquals(2003, result.getRowCount());
+        assertEquals(2003, result.getInts("id").length);
+        assertTrue(result.isNull("amount", 1));
+        assertEquals("x", result.getValue("name", 2002));
+        assertEquals(40 + 2000 * 2001 / 2, result.sumLong("amount"));
+    }
+}
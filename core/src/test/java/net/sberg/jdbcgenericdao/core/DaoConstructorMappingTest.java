@@ -0,0 +1,43 @@
+package net.sberg.jdbcgenericdao.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoConstructorMappingTest {
+
+    record Name(String lastName, int id) {
+    }
+
+    static class View {
+        final String fullName;
+
+        @DaoDescriptorConstructor
+        View(String firstName, String lastName) {
+            this.fullName = firstName + " " + lastName;
+        }
+    }
+
+    @Test
+    void record() throws Exception {
+        DaoConstructorMapping mapping = DaoConstructorMapping.create(Name.class);
+        // record components are matched by name, a missing primitive takes its default
+        int[] argumentIndex = mapping.createArgumentIndex(List.of("id", "lastName"));
+        assertArrayEquals(new int[]{1, 0}, argumentIndex);
+        Name name = (Name) mapping.newInstance(new Object[]{3, "Smith"}, argumentIndex);
+        assertEquals(new Name("Smith", 3), name);
+        assertEquals(new Name("Doe", 0), mapping.newInstance(new Object[]{null, "Doe"}, argumentIndex));
+        assertEquals("Smith", mapping.getProperty(name, "lastName"));
+        assertThrows(IllegalStateException.class, () -> mapping.getProperty(name, "firstName"));
+    }
+
+    @Test
+    void annotatedConstructor() throws Exception {
+        DaoConstructorMapping mapping = DaoConstructorMapping.create(View.class);
+        View view = (View) mapping.newInstance(new Object[]{"John", "Doe"}, mapping.createArgumentIndex(List.of("firstName", "lastName")));
+        assertEquals("John Doe", view.fullName);
+        assertNull(DaoConstructorMapping.create(String.class));
+    }
+}
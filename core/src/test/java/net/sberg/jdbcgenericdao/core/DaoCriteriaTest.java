@@ -0,0 +1,55 @@
+package net.sberg.jdbcgenericdao.core;
+
+import net.sberg.jdbcgenericdao.core.testentity.Person;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoCriteriaTest {
+
+    private static DaoDescriptorBean person;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        person = new DaoDescriptorHelper().createBeanMap(List.of(Person.class)).get(Person.class.getName());
+    }
+
+    private static List<Object> placeholders(DaoCriteria criteria) {
+        List<DaoPlaceholderProperty> placeholders = new ArrayList<>();
+        criteria.collectPlaceholders(placeholders);
+        return placeholders.stream().map(DaoPlaceholderProperty::getValue).toList();
+    }
+
+    @Test
+    void sql() {
+        DaoCriteria criteria = DaoCriteria.and(DaoCriteria.in("id", List.of(1, 2, 3)), DaoCriteria.or(DaoCriteria.like("lastName", "Doe", ","), DaoCriteria.eq("firstName", "Bob")));
+        assertEquals("((ID in (?, ?, ?, ?)) and ((LAST_NAME like ? or LAST_NAME = ? or LAST_NAME like ? or LAST_NAME like ?) or FIRST_NAME = ?))", criteria.createSql(person));
+        // the in-list is one collection placeholder, expanded and padded by the binding
+        assertEquals(List.of(List.of(1, 2, 3), "%,Doe,%", "Doe", "Doe,%", "%,Doe", "Bob"), placeholders(criteria));
+
+        assertEquals("FIRST_NAME is null", DaoCriteria.eq("firstName", null).createSql(person));
+        assertEquals(List.of(), placeholders(DaoCriteria.eq("firstName", null)));
+        assertEquals("ID >= ?", DaoCriteria.range("id", 2, null).createSql(person));
+        assertEquals("(ID >= ? and ID <= ?)", DaoCriteria.range("id", 2, 5).createSql(person));
+        assertEquals("1=1", DaoCriteria.range("id", null, null).createSql(person));
+        assertEquals("1=0", DaoCriteria.in("id", List.of()).createSql(person));
+        assertEquals("1=0", DaoCriteria.or().createSql(person));
+        assertEquals("1=1", DaoCriteria.and().createSql(person));
+        assertThrows(IllegalStateException.class, () -> DaoCriteria.eq("age", 42).createSql(person));
+    }
+
+    @Test
+    void shape() {
+        // the shape keys the cached sql: the same for other values, different for another structure
+        assertEquals(DaoCriteria.eq("lastName", "Doe").getShape(), DaoCriteria.eq("lastName", "Smith").getShape());
+        assertNotEquals(DaoCriteria.eq("lastName", "Doe").getShape(), DaoCriteria.eq("lastName", null).getShape());
+        assertEquals(DaoCriteria.in("id", List.of(1, 2, 3)).getShape(), DaoCriteria.in("id", List.of(4, 5, 6, 6, 7)).getShape());
+        assertNotEquals(DaoCriteria.in("id", List.of(1, 2)).getShape(), DaoCriteria.in("id", List.of(1, 2, 3)).getShape());
+        assertNotEquals(DaoCriteria.range("id", 1, null).getShape(), DaoCriteria.range("id", null, 1).getShape());
+        assertNotEquals(DaoCriteria.and(DaoCriteria.eq("id", 1)).getShape(), DaoCriteria.or(DaoCriteria.eq("id", 1)).getShape());
+    }
+}
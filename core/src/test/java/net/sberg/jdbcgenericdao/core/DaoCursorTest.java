@@ -0,0 +1,60 @@
+package net.sberg.jdbcgenericdao.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoCursorTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table ITEM_0 (ID int primary key, AMOUNT bigint)");
+            statement.execute("create table ITEM_1 (ID int primary key, AMOUNT bigint)");
+            statement.execute("insert into ITEM_0 values (1, 10), (2, null), (3, 30)");
+            statement.execute("insert into ITEM_1 values (4, 40)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    void selectsInOrder() throws Exception {
+        AtomicInteger released = new AtomicInteger();
+        DaoCursor cursor = new DaoCursor(connection, List.of("select AMOUNT from ITEM_0 order by ID", "select AMOUNT from ITEM_1"), null, released::incrementAndGet);
+        // sql nulls are skipped, the connection is released once the rows are exhausted
+        try (LongStream stream = cursor.longStream()) {
+            assertArrayEquals(new long[]{10, 30, 40}, stream.toArray());
+            assertEquals(1, released.get());
+        }
+        assertEquals(1, released.get());
+    }
+
+    @Test
+    void closedEarly() throws Exception {
+        AtomicInteger released = new AtomicInteger();
+        DaoCursor cursor = new DaoCursor(connection, List.of("select ID from ITEM_0 where ID > ? order by ID"), ps -> ps.setInt(1, 1), released::incrementAndGet);
+        try (IntStream stream = cursor.intStream()) {
+            assertEquals(2, stream.findFirst().getAsInt());
+            assertEquals(0, released.get());
+        }
+        assertEquals(1, released.get());
+        assertFalse(connection.isClosed());
+    }
+}
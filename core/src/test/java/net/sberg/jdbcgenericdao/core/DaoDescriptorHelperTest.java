@@ -0,0 +1,70 @@
+package net.sberg.jdbcgenericdao.core;
+
+import net.sberg.jdbcgenericdao.core.testentity.Person;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoDescriptorHelperTest {
+
+    private static DaoDescriptorHelper helper;
+    private static DaoDescriptorBean person;
+    private static final DaoProjectionBean names = new DaoProjectionBean(List.of("firstName", "lastName"), Map.class, false);
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        helper = new DaoDescriptorHelper();
+        person = helper.createBeanMap(List.of(Person.class)).get(Person.class.getName());
+    }
+
+    @Test
+    void selectByIds() throws Exception {
+        assertEquals("select FIRST_NAME, LAST_NAME from PERSON where ID in (?, ?, ?, ?)", helper.createSelectByIdsStatement(names, person, Optional.empty(), 4));
+        assertEquals("delete from PERSON_1 where ID in (?, ?)", helper.createDeleteByIdsStatement(person, Optional.of("PERSON_1"), 2));
+
+        // one statement for any number of ids where the dialect binds arrays
+        assertFalse(DaoDialect.ANSI.supportsIdArray());
+        assertTrue(DaoDialect.POSTGRESQL.supportsIdArray());
+        assertEquals("select FIRST_NAME, LAST_NAME from PERSON where ID = any(?)", helper.createSelectByIdArrayStatement(names, person, Optional.empty(), DaoDialect.H2));
+        assertEquals("delete from PERSON where ID = any(?)", helper.createDeleteByIdArrayStatement(person, Optional.empty(), DaoDialect.POSTGRESQL));
+    }
+
+    @Test
+    void selectPage() throws Exception {
+        List<DaoPlaceholderProperty> does = List.of(new DaoPlaceholderProperty("lastName", "Doe"));
+        assertEquals("select FIRST_NAME, LAST_NAME from PERSON where LAST_NAME = ? and ID > ? order by ID fetch first ? rows only",
+                helper.createSelectPageStatement(names, person, does, Optional.empty(), true, false, DaoDialect.ANSI));
+        assertEquals("select FIRST_NAME, LAST_NAME from PERSON where 1=1 order by ID offset ? rows fetch first ? rows only",
+                helper.createSelectPageStatement(names, person, null, Optional.empty(), false, true, DaoDialect.ANSI));
+        // limit before offset, the binding follows offsetFirst of the dialect
+        assertFalse(DaoDialect.LIMIT_OFFSET.isOffsetFirst());
+        assertEquals("select FIRST_NAME, LAST_NAME from PERSON where 1=1 order by ID limit ? offset ?",
+                helper.createSelectPageStatement(names, person, null, Optional.empty(), false, true, DaoDialect.LIMIT_OFFSET));
+    }
+
+    @Test
+    void selectFirstExistsCount() throws Exception {
+        List<DaoPlaceholderProperty> does = List.of(new DaoPlaceholderProperty("lastName", "Doe"));
+        assertEquals("select FIRST_NAME, LAST_NAME from PERSON where LAST_NAME = ? fetch first ? rows only",
+                helper.createSelectFirstStatement(names, person, does, Optional.empty(), DaoDialect.ANSI));
+        assertEquals("select 1 from PERSON where LAST_NAME = ? limit ?", helper.createSelectExistsStatement(person, does, Optional.empty(), DaoDialect.LIMIT_OFFSET));
+        assertEquals("select count(*) from PERSON where 1=1", helper.createSelectCountStatement(person, null, Optional.empty()));
+    }
+
+    @Test
+    void inListBuckets() throws Exception {
+        // padded to powers of two, chunked beyond maxInListSize
+        assertEquals(1, DaoDescriptorHelper.getInListBucketSize(1));
+        assertEquals(8, DaoDescriptorHelper.getInListBucketSize(5));
+        assertEquals(List.of(256, 256, 4), DaoDescriptorHelper.getInListBuckets(DaoDescriptorHelper.maxInListSize * 2 + 3));
+        assertEquals("1=0", DaoDescriptorHelper.createInListClause("ID", 0));
+        assertEquals("(ID in (?, ?, ?, ?))", JdbcUtils.getInListStr("ID", 3));
+        assertEquals("select FIRST_NAME, LAST_NAME from PERSON where (ID in (?, ?)) and LAST_NAME = ?",
+                helper.createSelectSimpleStatement(names, person, List.of(new DaoPlaceholderProperty("id", List.of(1, 3)), new DaoPlaceholderProperty("lastName", "Doe")), Optional.empty()));
+    }
+}
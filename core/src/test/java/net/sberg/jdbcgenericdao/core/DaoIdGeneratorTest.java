@@ -0,0 +1,65 @@
+package net.sberg.jdbcgenericdao.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoIdGeneratorTest {
+
+    @Test
+    void snowflake() throws Exception {
+        DaoIdGenerator generator = new DaoIdGenerator(5);
+        long previous = 0;
+        // more ids than one millisecond has sequence numbers
+        for (int i = 0; i < 10000; i++) {
+            long id = generator.nextSnowflake();
+            assertTrue(id > previous);
+            assertEquals(5, id >>> 12 & 0x3FF);
+            previous = id;
+        }
+        assertTrue(previous > Integer.MAX_VALUE);
+
+        // two nodes never collide
+        assertNotEquals(new DaoIdGenerator(1).nextSnowflake() >>> 12 & 0x3FF, new DaoIdGenerator(2).nextSnowflake() >>> 12 & 0x3FF);
+        assertThrows(IllegalArgumentException.class, () -> new DaoIdGenerator(1024));
+        assertThrows(IllegalArgumentException.class, () -> new DaoIdGenerator(-1));
+    }
+
+    @Test
+    void uuidV7() {
+        DaoIdGenerator generator = new DaoIdGenerator(0);
+        UUID previous = generator.nextUuidV7();
+        assertEquals(7, previous.version());
+        assertEquals(2, previous.variant());
+        assertTrue(Math.abs((previous.getMostSignificantBits() >>> 16) - System.currentTimeMillis()) < 1000);
+        for (int i = 0; i < 10000; i++) {
+            UUID id = generator.nextUuidV7();
+            assertTrue(previous.compareTo(id) < 0);
+            previous = id;
+        }
+    }
+
+    @Test
+    void concurrent() throws Exception {
+        DaoIdGenerator generator = new DaoIdGenerator(0);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    ids.add(generator.nextSnowflake());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(20000, ids.size());
+    }
+}
@@ -0,0 +1,56 @@
+package net.sberg.jdbcgenericdao.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoInsertBatcherTest {
+
+    @Test
+    void batches() throws Exception {
+        List<List<Object>> flushed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = new CountDownLatch(1);
+        DaoInsertBatcher batcher = new DaoInsertBatcher("test", 4, 1_000_000, 100, entities -> {
+            release.await();
+            flushed.add(entities);
+        });
+        // the first row blocks the writer, the others queue up and leave in batches of at most batchSize
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            futures.add(batcher.submit(i));
+        }
+        release.countDown();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        assertEquals(7, futures.get(7).join());
+        assertTrue(flushed.stream().allMatch(o -> o.size() <= 4));
+        assertEquals(9, flushed.stream().mapToInt(List::size).sum());
+
+        DaoAsyncInsertStats stats = batcher.getStats();
+        assertEquals(9, stats.getRows());
+        assertEquals(flushed.size(), stats.getBatches());
+        assertEquals(0, stats.getQueueDepth());
+
+        batcher.shutdown();
+        assertThrows(IllegalStateException.class, () -> batcher.submit(9));
+    }
+
+    @Test
+    void failedBatch() throws Exception {
+        DaoInsertBatcher batcher = new DaoInsertBatcher("test", 10, 1000, 100, entities -> {
+            throw new IllegalStateException("duplicate key");
+        });
+        CompletableFuture<Object> future = batcher.submit("a");
+        CompletionException e = assertThrows(CompletionException.class, future::join);
+        assertEquals("duplicate key", e.getCause().getMessage());
+        assertEquals(1, batcher.getStats().getFailedBatches());
+        assertEquals(0, batcher.getStats().getRows());
+        batcher.shutdown();
+    }
+}
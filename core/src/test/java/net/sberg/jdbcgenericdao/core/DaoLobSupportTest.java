@@ -0,0 +1,65 @@
+package net.sberg.jdbcgenericdao.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.CharArrayReader;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoLobSupportTest {
+
+    @Test
+    void readAndBind() throws Exception {
+        byte[] content = new byte[4096];
+        new Random(7).nextBytes(content);
+        String text = "lorem ipsum ".repeat(300);
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:"); Statement statement = connection.createStatement()) {
+            statement.execute("create table DOCUMENT (ID int primary key, CONTENT blob, TEXT clob)");
+            try (PreparedStatement ps = connection.prepareStatement("insert into DOCUMENT values (?, ?, ?)")) {
+                for (int id = 1; id <= 2; id++) {
+                    ps.setInt(1, id);
+                    assertTrue(DaoLobSupport.bind(ps, 2, new ByteArrayInputStream(id == 1 ? content : new byte[]{4, 5})));
+                    assertTrue(DaoLobSupport.bind(ps, 3, new StringReader(id == 1 ? text : "short")));
+                    ps.executeUpdate();
+                }
+                assertFalse(DaoLobSupport.bind(ps, 1, 3));
+            }
+
+            try (ResultSet rs = statement.executeQuery("select CONTENT, TEXT from DOCUMENT order by ID")) {
+                // above the threshold the value is spooled to a temp file, below it stays on the heap
+                rs.next();
+                try (InputStream in = (InputStream) DaoLobSupport.read(rs, "CONTENT", InputStream.class, 1024);
+                     Reader reader = (Reader) DaoLobSupport.read(rs, "TEXT", Reader.class, 1024)) {
+                    assertFalse(in instanceof ByteArrayInputStream);
+                    assertArrayEquals(content, in.readAllBytes());
+                    StringWriter writer = new StringWriter();
+                    reader.transferTo(writer);
+                    assertEquals(text, writer.toString());
+                }
+                rs.next();
+                Object in = DaoLobSupport.read(rs, "CONTENT", InputStream.class, 1024);
+                assertInstanceOf(ByteArrayInputStream.class, in);
+                assertArrayEquals(new byte[]{4, 5}, ((InputStream) in).readAllBytes());
+                assertInstanceOf(CharArrayReader.class, DaoLobSupport.read(rs, "TEXT", Reader.class, 1024));
+                // a blob property outlives the connection
+                assertEquals(2, ((Blob) DaoLobSupport.read(rs, "CONTENT", Blob.class, 1024)).length());
+                assertArrayEquals(new byte[]{4, 5}, (byte[]) DaoLobSupport.read(rs, "CONTENT", byte[].class, 1024));
+            }
+        }
+        assertTrue(DaoLobSupport.isLob(byte[].class));
+        assertTrue(DaoLobSupport.isLob(Blob.class));
+        assertFalse(DaoLobSupport.isLob(String.class));
+    }
+}
@@ -0,0 +1,117 @@
+package net.sberg.jdbcgenericdao.core;
+
+import net.sberg.jdbcgenericdao.core.testentity.Person;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoPartitionsTest {
+
+    private static DaoDescriptorBean person;
+    private static final DaoHashPartitionStrategy byLastName = new DaoHashPartitionStrategy("lastName", "PERSON", 4);
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        person = new DaoDescriptorHelper().createBeanMap(List.of(Person.class)).get(Person.class.getName());
+    }
+
+    private static DaoPartitions create(boolean parallel) {
+        DaoPartitions partitions = new DaoPartitions(new DaoPartitions.Context() {
+            @Override
+            public boolean isParallelAllowed() {
+                return parallel;
+            }
+
+            @Override
+            public void flushUnitOfWork() {
+            }
+
+            @Override
+            public Object getProperty(Object row, String property) {
+                return property.equals("lastName") ? ((Person) row).getLastName() : ((Person) row).getFirstName();
+            }
+        });
+        partitions.register(person.getName(), byLastName);
+        return partitions;
+    }
+
+    private static Person person(String firstName, String lastName) {
+        Person result = new Person();
+        result.setFirstName(firstName);
+        result.setLastName(lastName);
+        return result;
+    }
+
+    @Test
+    void routing() throws Exception {
+        DaoPartitions partitions = create(true);
+        Optional<String> doe = Optional.of(byLastName.getTableName("Doe"));
+        assertEquals(doe, partitions.getTableName(person, person("John", "Doe"), Optional.empty()));
+        assertEquals(Optional.of("PERSON_X"), partitions.getTableName(person, person("John", "Doe"), Optional.of("PERSON_X")));
+        Map<Optional<String>, List<Object>> byTable = partitions.partitionEntities(person, List.of(person("John", "Doe"), person("Bob", "Smith"), person("Jane", "Doe")), Optional.empty());
+        assertEquals(2, byTable.get(doe).size());
+
+        // an equality or in-list placeholder on the partition property prunes the partitions
+        assertEquals(List.of(doe), partitions.getTableNames(person, List.of(new DaoPlaceholderProperty("lastName", "Doe"))));
+        assertEquals(List.of(doe), partitions.getTableNames(person, List.of(new DaoPlaceholderProperty("lastName", List.of("Doe", "Doe")))));
+        assertEquals(4, partitions.getTableNames(person, List.of(new DaoPlaceholderProperty("firstName", "John"))).size());
+
+        // integral values land in the same partition whatever their boxed type
+        assertEquals(byLastName.getTableName(-7), byLastName.getTableName(-7L));
+        DaoMonthPartitionStrategy byMonth = new DaoMonthPartitionStrategy("created", "EVENT", YearMonth.of(2024, 11), YearMonth.of(2025, 2));
+        assertEquals(List.of("EVENT_202411", "EVENT_202412", "EVENT_202501", "EVENT_202502"), byMonth.getTableNames());
+        assertEquals("EVENT_202412", byMonth.getTableName(LocalDate.of(2024, 12, 31)));
+        assertThrows(IllegalStateException.class, () -> byMonth.getTableName("2024-12"));
+    }
+
+    @Test
+    void mergeOrdered() throws Exception {
+        // each partition is read ordered by the first name, the merge keeps that order across partitions
+        Map<String, List<Person>> tables = Map.of(
+                "PERSON_0", List.of(person("Anna", "Doe"), person("Dana", "Doe")),
+                "PERSON_1", List.of(person("Bob", "Smith"), person("Carl", "Miller"), person("Eve", "Miller")),
+                "PERSON_2", List.of());
+        List<Optional<String>> tableNames = List.of(Optional.of("PERSON_0"), Optional.of("PERSON_1"), Optional.of("PERSON_2"));
+        DaoPartitions.Reader reader = (tableName, rows) -> {
+            for (Person row : tables.get(tableName.get())) {
+                rows.put(row);
+            }
+        };
+        for (boolean parallel : List.of(true, false)) {
+            List<Person> merged = create(parallel).mergeOrdered(tableNames, reader, "firstName", 0);
+            assertEquals(List.of("Anna", "Bob", "Carl", "Dana", "Eve"), merged.stream().map(Person::getFirstName).toList());
+            assertEquals(3, create(parallel).mergeOrdered(tableNames, reader, "firstName", 3).size());
+
+            IllegalStateException error = new IllegalStateException("partition gone");
+            assertSame(error, assertThrows(IllegalStateException.class, () -> create(parallel).mergeOrdered(tableNames, (tableName, rows) -> {
+                if (tableName.get().equals("PERSON_2")) {
+                    throw error;
+                }
+                reader.read(tableName, rows);
+            }, "firstName", 0)));
+        }
+    }
+
+    @Test
+    void fanOut() throws Exception {
+        DaoPartitions partitions = create(true);
+        partitions.setFanOutWidth(2);
+        List<Optional<String>> tableNames = new ArrayList<>();
+        for (String tableName : byLastName.getTableNames()) {
+            tableNames.add(Optional.of(tableName));
+        }
+        // results in the order of the partitions, not of completion
+        assertEquals(byLastName.getTableNames(), partitions.fanOut(tableNames, tableName -> {
+            Thread.sleep(tableName.get().endsWith("0") ? 50 : 0);
+            return tableName.get();
+        }));
+    }
+}
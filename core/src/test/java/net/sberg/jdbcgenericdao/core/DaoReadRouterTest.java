@@ -0,0 +1,31 @@
+package net.sberg.jdbcgenericdao.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoReadRouterTest {
+
+    @Test
+    void roundRobin() {
+        DaoReadRouter<String> router = new DaoReadRouter<>(List.of("a", "b", "c"), DaoReadRouting.ROUND_ROBIN);
+        assertEquals(List.of("a", "b", "c", "a"), List.of(router.get(router.acquire()), router.get(router.acquire()), router.get(router.acquire()), router.get(router.acquire())));
+        assertEquals(2, router.getRunning(0));
+        router.release(0);
+        assertEquals(1, router.getRunning(0));
+    }
+
+    @Test
+    void leastBusy() {
+        DaoReadRouter<String> router = new DaoReadRouter<>(List.of("a", "b"), DaoReadRouting.LEAST_BUSY);
+        int busy = router.acquire();
+        // the idle target wins over the busy one, ties go round robin
+        assertNotEquals(busy, router.acquire());
+        router.release(1 - busy);
+        assertEquals(1 - busy, router.acquire());
+        assertEquals(1 - busy, router.acquire());
+        assertFalse(router.isEmpty());
+    }
+}
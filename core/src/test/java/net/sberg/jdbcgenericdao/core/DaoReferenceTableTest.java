@@ -0,0 +1,110 @@
+package net.sberg.jdbcgenericdao.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoReferenceTableTest {
+
+    @Test
+    void decimalScale() {
+        DaoReferenceTable referenceTable = new DaoReferenceTable(List.of("id", "price"), new Class[]{Integer.class, BigDecimal.class}, "id", List.of("price"));
+        referenceTable.add(new Object[]{1, new BigDecimal("1.00")});
+        referenceTable.add(new Object[]{2, new BigDecimal("2.50")});
+        referenceTable.finish();
+
+        // the database compares decimals by value, so does the hash index
+        List<DaoPlaceholderProperty> placeholders = List.of(new DaoPlaceholderProperty("price", new BigDecimal("1")));
+        assertTrue(referenceTable.canServe(placeholders));
+        assertEquals(1, referenceTable.find(placeholders, 0).size());
+        assertEquals(1, referenceTable.find(List.of(new DaoPlaceholderProperty("price", new BigDecimal("2.5000"))), 0).size());
+        assertEquals(0, referenceTable.find(List.of(new DaoPlaceholderProperty("price", new BigDecimal("2.51"))), 0).size());
+    }
+
+    private static DaoReferenceTable createPersons() {
+        DaoReferenceTable referenceTable = new DaoReferenceTable(List.of("id", "lastName", "firstName", "born"), new Class[]{Integer.class, String.class, String.class, LocalDate.class}, "id", List.of("lastName"));
+        // more rows than the initial capacity
+        for (int id = 1; id <= 2000; id++) {
+            referenceTable.add(new Object[]{id, "Last" + id % 100, id % 7 == 0 ? null : "First" + id, LocalDate.of(2000, 1, 1).plusDays(id)});
+        }
+        referenceTable.finish();
+        return referenceTable;
+    }
+
+    private static List<Object> ids(List<Object[]> rows) {
+        return rows.stream().map(o -> o[0]).toList();
+    }
+
+    @Test
+    void lookups() {
+        DaoReferenceTable referenceTable = createPersons();
+        assertEquals(2000, referenceTable.size());
+        assertEquals(2000, referenceTable.getMaxId());
+
+        // by id, whatever integral type the placeholder uses
+        assertEquals(List.of(42), ids(referenceTable.find(List.of(new DaoPlaceholderProperty("id", 42L)), 0)));
+        assertEquals(List.of(), referenceTable.find(List.of(new DaoPlaceholderProperty("id", 4242)), 0));
+        assertEquals(List.of(), referenceTable.find(List.of(new DaoPlaceholderProperty("id", 42), new DaoPlaceholderProperty("lastName", "Last43")), 0));
+
+        // by the hash index in table order, the other placeholders filter
+        List<DaoPlaceholderProperty> last42 = List.of(new DaoPlaceholderProperty("lastName", "Last42"));
+        assertEquals(20, referenceTable.find(last42, 0).size());
+        assertEquals(List.of(42, 142, 242), ids(referenceTable.find(last42, 3)));
+        assertEquals(List.of(542), ids(referenceTable.find(List.of(new DaoPlaceholderProperty("lastName", "Last42"), new DaoPlaceholderProperty("firstName", "First542")), 0)));
+
+        // without an index the rows are scanned
+        assertEquals(List.of(10), ids(referenceTable.find(List.of(new DaoPlaceholderProperty("born", LocalDate.of(2000, 1, 11))), 0)));
+        assertEquals(2000, referenceTable.find(null, 0).size());
+        assertArrayEquals(new Object[]{7, "Last7", null, LocalDate.of(2000, 1, 8)}, referenceTable.find(List.of(new DaoPlaceholderProperty("id", 7)), 0).getFirst());
+
+        // in-lists, unknown properties and values of another type are left to the database
+        assertTrue(referenceTable.canServe(last42));
+        assertTrue(referenceTable.canServe(List.of(new DaoPlaceholderProperty("id", 7L))));
+        assertFalse(referenceTable.canServe(List.of(new DaoPlaceholderProperty("id", List.of(1, 2)))));
+        assertFalse(referenceTable.canServe(List.of(new DaoPlaceholderProperty("age", 42))));
+        assertFalse(referenceTable.canServe(List.of(new DaoPlaceholderProperty("id", "7"))));
+    }
+
+    @Test
+    void nonNumericId() {
+        // an id without a primitive representation gets a hash index
+        DaoReferenceTable referenceTable = new DaoReferenceTable(List.of("id", "name"), new Class[]{UUID.class, String.class}, "id", List.of());
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(UUID.randomUUID());
+            referenceTable.add(new Object[]{ids.getLast(), "token" + i});
+        }
+        referenceTable.finish();
+        assertEquals(List.of("id"), referenceTable.getIndexedProperties());
+        assertEquals(0, referenceTable.getMaxId());
+        assertEquals("token3", referenceTable.find(List.of(new DaoPlaceholderProperty("id", ids.get(3))), 0).getFirst()[1]);
+        assertThrows(IllegalStateException.class, () -> new DaoReferenceTable(List.of("id"), new Class[]{Integer.class}, "id", List.of("name")));
+    }
+
+    @Test
+    void saveAndRestore() throws Exception {
+        DaoReferenceTable referenceTable = createPersons();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        referenceTable.save(new DataOutputStream(bytes));
+        assertEquals(referenceTable.getSnapshotLength(), bytes.size());
+
+        DaoReferenceTable restored = new DaoReferenceTable(List.of("id", "lastName", "firstName", "born"), new Class[]{Integer.class, String.class, String.class, LocalDate.class}, "id", List.of("lastName"));
+        ByteBuffer in = ByteBuffer.wrap(bytes.toByteArray());
+        restored.restore(in);
+        assertFalse(in.hasRemaining());
+        assertEquals(referenceTable.size(), restored.size());
+        assertEquals(referenceTable.getMaxId(), restored.getMaxId());
+        List<DaoPlaceholderProperty> last42 = List.of(new DaoPlaceholderProperty("lastName", "Last42"));
+        assertEquals(ids(referenceTable.find(last42, 0)), ids(restored.find(last42, 0)));
+        assertArrayEquals(referenceTable.find(List.of(new DaoPlaceholderProperty("id", 1999)), 0).getFirst(), restored.find(List.of(new DaoPlaceholderProperty("id", 1999)), 0).getFirst());
+    }
+}
@@ -0,0 +1,95 @@
+package net.sberg.jdbcgenericdao.core;
+
+import net.sberg.jdbcgenericdao.core.testentity.Person;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoReferenceTablesTest {
+
+    static DaoDescriptorBean person;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        person = new DaoDescriptorHelper().createBeanMap(List.of(Person.class)).get(Person.class.getName());
+    }
+
+    // the rows stand in for the PERSON table
+    static DaoReferenceTables create(List<Object[]> rows, boolean partitioned, boolean lobs) {
+        return new DaoReferenceTables(new DaoReferenceTables.Context() {
+            @Override
+            public DaoDescriptorBean getDescriptor(String entityName) {
+                return entityName.equals(person.getName()) ? person : null;
+            }
+
+            @Override
+            public boolean isPartitioned(String entityName) {
+                return partitioned;
+            }
+
+            @Override
+            public List<String> getProperties(DaoDescriptorBean daoDescriptorBean) {
+                return lobs ? null : List.of("id", "firstName", "lastName");
+            }
+
+            @Override
+            public void load(DaoDescriptorBean daoDescriptorBean, DaoReferenceTable referenceTable) {
+                rows.forEach(referenceTable::add);
+            }
+        });
+    }
+
+    static List<Object[]> rows() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1, "John", "Doe"});
+        rows.add(new Object[]{2, "Jane", "Doe"});
+        rows.add(new Object[]{3, "Bob", "Smith"});
+        return rows;
+    }
+
+    @Test
+    void registry() throws Exception {
+        List<Object[]> rows = rows();
+        DaoReferenceTables referenceTables = create(rows, false, false);
+        List<DaoPlaceholderProperty> does = List.of(new DaoPlaceholderProperty("lastName", "Doe"));
+        assertNull(referenceTables.find(person.getName(), does, 0));
+
+        referenceTables.register(person.getName(), List.of("lastName"));
+        assertEquals(2, referenceTables.find(person.getName(), does, 0).size());
+        assertEquals(3, referenceTables.getStats().get(person.getName()).getRows());
+        assertNull(referenceTables.find(person.getName(), List.of(new DaoPlaceholderProperty("lastName", List.of("Doe"))), 0));
+
+        // a table with the requested indexes is kept, a reload swaps in a new one
+        DaoReferenceTable current = referenceTables.get(person.getName());
+        referenceTables.register(person.getName(), List.of("lastName"));
+        assertSame(current, referenceTables.get(person.getName()));
+        rows.add(new Object[]{4, "Ann", "Doe"});
+        assertEquals(2, referenceTables.find(person.getName(), does, 0).size());
+        referenceTables.reload(person.getName());
+        assertEquals(3, referenceTables.find(person.getName(), does, 0).size());
+        // readers keep the table they got
+        assertEquals(2, current.find(does, 0).size());
+
+        referenceTables.unregister(person.getName());
+        assertNull(referenceTables.find(person.getName(), does, 0));
+        assertThrows(IllegalStateException.class, () -> referenceTables.reload(person.getName()));
+        assertThrows(IllegalStateException.class, () -> create(rows(), true, false).register(person.getName(), List.of()));
+        assertThrows(IllegalStateException.class, () -> create(rows(), false, true).register(person.getName(), List.of()));
+    }
+
+    @Test
+    void createForRestore() throws Exception {
+        DaoReferenceTables referenceTables = create(rows(), false, false);
+        long schemaHash = referenceTables.getSchemaHash(person.getName());
+        assertNotNull(referenceTables.createForRestore(person.getName(), List.of("lastName"), schemaHash));
+        // unknown, changed, partitioned or lob entities are not restored
+        assertNull(referenceTables.createForRestore("unknown", List.of(), schemaHash));
+        assertNull(referenceTables.createForRestore(person.getName(), List.of(), schemaHash + 1));
+        assertNull(create(rows(), true, false).createForRestore(person.getName(), List.of(), schemaHash));
+        assertNull(create(rows(), false, true).createForRestore(person.getName(), List.of(), schemaHash));
+    }
+}
@@ -0,0 +1,60 @@
+package net.sberg.jdbcgenericdao.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoRowMapTest {
+
+    private static final DaoRowMap.Schema schema = new DaoRowMap.Schema(List.of("id", "firstName", "lastName"));
+
+    @Test
+    void mapContract() {
+        DaoRowMap row = new DaoRowMap(schema, new Object[]{1, "John", "Doe"});
+        assertEquals(Map.of("id", 1, "firstName", "John", "lastName", "Doe"), row);
+        assertEquals(new HashMap<>(row), row);
+        assertEquals(new HashMap<>(row).hashCode(), row.hashCode());
+
+        // a schema key put with null is still contained, a removed one is not
+        row.put("firstName", null);
+        assertTrue(row.containsKey("firstName"));
+        assertNull(row.get("firstName"));
+        assertEquals("Doe", row.remove("lastName"));
+        assertFalse(row.containsKey("lastName"));
+        row.put("age", 42);
+        assertEquals(3, row.size());
+        assertEquals(42, row.get("age"));
+
+        row.entrySet().removeIf(o -> o.getKey().equals("id"));
+        assertEquals(2, row.size());
+        assertFalse(row.containsKey("id"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void serialization() throws Exception {
+        DaoRowMap row = new DaoRowMap(schema, new Object[]{1, "John", "Doe"});
+        row.put("firstName", null);
+        row.put("age", 42);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(row);
+        }
+        Map<String, Object> copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (Map<String, Object>) in.readObject();
+        }
+        assertEquals(row, copy);
+        assertTrue(copy.containsKey("firstName"));
+        assertNull(copy.get("firstName"));
+        assertEquals(42, copy.get("age"));
+    }
+}
@@ -0,0 +1,91 @@
+package net.sberg.jdbcgenericdao.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoSessionTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table ITEM (ID int primary key, NAME varchar(20))");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connection.close();
+    }
+
+    private List<String> names(DaoSession session) throws Exception {
+        return session.query("select NAME from ITEM order by ID", null, (rs, i) -> rs.getString(1), 0);
+    }
+
+    @Test
+    void noStatementCache() throws Exception {
+        PreparedStatement[] used = new PreparedStatement[1];
+        try (DaoSession session = new DaoSession(connection, 0, () -> {})) {
+            assertEquals(1, session.manipulate("insert into ITEM (ID, NAME) values (?, ?)", ps -> {
+                ps.setInt(1, 1);
+                ps.setString(2, "a");
+                used[0] = ps;
+            }));
+            // closed after use instead of right after it was prepared
+            assertTrue(used[0].isClosed());
+            session.batchManipulate("insert into ITEM (ID, NAME) values (?, ?)", new AbstractJdbcGenericDao.PreparedBatchStatementFiller() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setInt(1, i + 2);
+                    ps.setString(2, "b" + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return 2;
+                }
+            });
+            assertEquals(List.of("a", "b0", "b1"), names(session));
+            assertEquals(List.of("a", "b0", "b1"), names(session));
+            assertEquals(3, (int) session.queryForObject("select count(*) from ITEM", null, rs -> rs.next() ? rs.getInt(1) : 0));
+            assertEquals(0, session.getPreparedStatementCount());
+
+            // a statement prepared without an operation is closed with the session
+            used[0] = session.prepare("select NAME from ITEM", null);
+            assertFalse(used[0].isClosed());
+        }
+        assertTrue(used[0].isClosed());
+    }
+
+    @Test
+    void statementCache() throws Exception {
+        try (DaoSession session = new DaoSession(connection, 1, () -> {})) {
+            session.manipulate("insert into ITEM (ID, NAME) values (?, ?)", ps -> {
+                ps.setInt(1, 1);
+                ps.setString(2, "a");
+            });
+            PreparedStatement cached = session.prepare("select NAME from ITEM order by ID", null);
+            assertSame(cached, session.prepare("select NAME from ITEM order by ID", null));
+            assertEquals(List.of("a"), names(session));
+            assertFalse(cached.isClosed());
+            assertEquals(1, session.getPreparedStatementCount());
+
+            // the least recently used statement is closed beyond the cache size
+            assertEquals(1, (int) session.queryForObject("select count(*) from ITEM", null, rs -> rs.next() ? rs.getInt(1) : 0));
+            assertTrue(cached.isClosed());
+            assertEquals(1, session.getPreparedStatementCount());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package net.sberg.jdbcgenericdao.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoSingleFlightTest {
+
+    private static final List<DaoPlaceholderProperty> does = List.of(new DaoPlaceholderProperty("lastName", "Doe"));
+
+    @Test
+    void shared() throws Exception {
+        DaoSingleFlight singleFlight = new DaoSingleFlight();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        List<Object[]> rows = List.<Object[]>of(new Object[]{1, "Doe"});
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Object[]>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> singleFlight.execute("select", 0, List.of("id", "lastName"), new ArrayList<>(does), () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return rows;
+                })));
+            }
+            // the first caller blocks in the loader until the others joined its execution
+            long deadline = System.currentTimeMillis() + 5000;
+            while (singleFlight.getStats().getShared() < 7 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<List<Object[]>> future : futures) {
+                assertSame(rows, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(new DaoSingleFlightStats(1, 7), singleFlight.getStats());
+
+        // nothing is kept once the execution is done
+        assertNotSame(rows, singleFlight.execute("select", 0, List.of("id", "lastName"), does, () -> List.<Object[]>of(new Object[]{1, "Doe"})));
+        assertEquals(2, singleFlight.getStats().getExecutions());
+    }
+
+    @Test
+    void key() {
+        // another row limit, column list or placeholder value is another select
+        DaoSingleFlight.Key key = new DaoSingleFlight.Key("select", 0, List.of("id"), does);
+        assertEquals(key, new DaoSingleFlight.Key("select", 0, List.of("id"), List.of(new DaoPlaceholderProperty("lastName", "Doe"))));
+        assertNotEquals(key, new DaoSingleFlight.Key("select", 1, List.of("id"), does));
+        assertNotEquals(key, new DaoSingleFlight.Key("select", 0, List.of("id", "lastName"), does));
+        assertNotEquals(key, new DaoSingleFlight.Key("select", 0, List.of("id"), List.of(new DaoPlaceholderProperty("lastName", "Smith"))));
+    }
+
+    @Test
+    void failedLoad() throws Exception {
+        DaoSingleFlight singleFlight = new DaoSingleFlight();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException error = new IllegalStateException("connection lost");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<Object[]>> first = executor.submit(() -> singleFlight.execute("select", 0, List.of("id"), does, () -> {
+                started.countDown();
+                release.await();
+                throw error;
+            }));
+            started.await();
+            // the waiting caller gets the error of the execution it joined
+            Future<?> joined = executor.submit(() -> assertSame(error, assertThrows(IllegalStateException.class, () -> singleFlight.execute("select", 0, List.of("id"), does, List::of))));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (singleFlight.getStats().getShared() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            joined.get();
+            assertSame(error, assertThrows(ExecutionException.class, first::get).getCause());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(new DaoSingleFlightStats(1, 1), singleFlight.getStats());
+    }
+}
@@ -0,0 +1,87 @@
+package net.sberg.jdbcgenericdao.core;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        DaoReferenceTablesTest.setUp();
+    }
+
+    private Path write() throws Exception {
+        DaoReferenceTables referenceTables = DaoReferenceTablesTest.create(DaoReferenceTablesTest.rows(), false, false);
+        referenceTables.register(DaoReferenceTablesTest.person.getName(), List.of("lastName"));
+        Path file = dir.resolve("dao.snapshot");
+        DaoSnapshot.write(file, Map.of("PERSON", 3L, "COMMENT", 7L), referenceTables);
+        return file;
+    }
+
+    private static DaoSnapshot.Content read(Path file) throws Exception {
+        return DaoSnapshot.read(file, DaoReferenceTablesTest.create(List.of(), false, false));
+    }
+
+    @Test
+    void roundTrip() throws Exception {
+        Path file = write();
+        // the temp file was moved over the target
+        assertEquals(List.of(file), Files.list(dir).toList());
+
+        DaoSnapshot.Content content = read(file);
+        assertEquals(Map.of("PERSON", 3L, "COMMENT", 7L), content.counters());
+        assertEquals(1, content.tables().size());
+        DaoSnapshot.Table table = content.tables().getFirst();
+        assertEquals(DaoReferenceTablesTest.person.getName(), table.entityName());
+        assertEquals(3, table.rows());
+        assertEquals(3, table.maxId());
+        assertEquals(List.of("lastName"), table.referenceTable().getIndexedProperties());
+        assertEquals(2, table.referenceTable().find(List.of(new DaoPlaceholderProperty("lastName", "Doe")), 0).size());
+
+        // a table of an entity that changed since is left out, the counters are kept
+        content = DaoSnapshot.read(file, DaoReferenceTablesTest.create(List.of(), true, false));
+        assertEquals(2, content.counters().size());
+        assertTrue(content.tables().isEmpty());
+    }
+
+    @Test
+    void skipped() throws Exception {
+        Path file = write();
+        byte[] bytes = Files.readAllBytes(file);
+        assertNull(read(dir.resolve("missing.snapshot")));
+
+        // another version
+        byte[] otherVersion = bytes.clone();
+        ByteBuffer.wrap(otherVersion).putInt(4, DaoSnapshot.version + 1);
+        Files.write(file, otherVersion);
+        assertNull(read(file));
+
+        // truncated in the counters, in the table and in its checksum
+        for (int length : List.of(10, bytes.length / 2, bytes.length - 5)) {
+            Files.write(file, Arrays.copyOf(bytes, length));
+            assertNull(read(file));
+        }
+
+        // the last byte of the table does not match the crc32 behind it
+        byte[] corrupt = bytes.clone();
+        corrupt[corrupt.length - 9] ^= 1;
+        Files.write(file, corrupt);
+        assertNull(read(file));
+
+        Files.write(file, bytes);
+        assertNotNull(read(file));
+    }
+}
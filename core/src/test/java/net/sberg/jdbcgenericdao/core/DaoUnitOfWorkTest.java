@@ -0,0 +1,49 @@
+package net.sberg.jdbcgenericdao.core;
+
+import net.sberg.jdbcgenericdao.core.testentity.Person;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoUnitOfWorkTest {
+
+    private static DaoDescriptorBean person;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        person = new DaoDescriptorHelper().createBeanMap(List.of(Person.class)).get(Person.class.getName());
+    }
+
+    @Test
+    void coalesce() {
+        DaoUnitOfWork unitOfWork = new DaoUnitOfWork();
+        unitOfWork.record(DaoUnitOfWork.Operation.INSERT, person, Optional.empty(), 1, "a");
+        unitOfWork.record(DaoUnitOfWork.Operation.UPDATE, person, Optional.empty(), 1, "a2");
+        unitOfWork.record(DaoUnitOfWork.Operation.INSERT, person, Optional.empty(), 2, "b");
+        unitOfWork.record(DaoUnitOfWork.Operation.DELETE, person, Optional.empty(), 2, "b");
+        unitOfWork.record(DaoUnitOfWork.Operation.DELETE, person, Optional.empty(), 3, "c");
+        unitOfWork.record(DaoUnitOfWork.Operation.INSERT, person, Optional.empty(), 3, "c2");
+        unitOfWork.record(DaoUnitOfWork.Operation.DELETE, person, Optional.of("PERSON_1"), 4, "d");
+        unitOfWork.record(DaoUnitOfWork.Operation.DELETE, person, Optional.empty(), 5, "e");
+        assertThrows(IllegalStateException.class, () -> unitOfWork.record(DaoUnitOfWork.Operation.INSERT, person, Optional.empty(), 1, "a3"));
+        assertThrows(IllegalStateException.class, () -> unitOfWork.record(DaoUnitOfWork.Operation.UPDATE, person, Optional.empty(), 5, "e2"));
+
+        assertTrue(unitOfWork.isDirtyFor("select * from person_1 where id = ?"));
+        assertFalse(unitOfWork.isDirtyFor("select * from comment"));
+
+        // insert then delete cancels out, delete then insert is an update. deletes run last, in reverse order
+        List<DaoUnitOfWork.Group> groups = unitOfWork.drain();
+        assertEquals(List.of(DaoUnitOfWork.Operation.INSERT, DaoUnitOfWork.Operation.UPDATE, DaoUnitOfWork.Operation.DELETE, DaoUnitOfWork.Operation.DELETE),
+                groups.stream().map(DaoUnitOfWork.Group::operation).toList());
+        assertEquals(List.of("a2"), groups.get(0).entities());
+        assertEquals(List.of("c2"), groups.get(1).entities());
+        assertEquals(List.of(5), groups.get(2).ids());
+        assertEquals(Optional.of("PERSON_1"), groups.get(3).tableName());
+        assertTrue(unitOfWork.isEmpty());
+        assertFalse(unitOfWork.isDirtyFor("select * from person"));
+    }
+}
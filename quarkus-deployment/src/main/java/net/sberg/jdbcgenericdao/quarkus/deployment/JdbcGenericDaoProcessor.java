@@ -0,0 +1,94 @@
+package net.sberg.jdbcgenericdao.quarkus.deployment;
+
+import io.quarkus.arc.deployment.AdditionalBeanBuildItem;
+import io.quarkus.arc.deployment.SyntheticBeanBuildItem;
+import io.quarkus.deployment.annotations.BuildProducer;
+import io.quarkus.deployment.annotations.BuildStep;
+import io.quarkus.deployment.annotations.ExecutionTime;
+import io.quarkus.deployment.annotations.Record;
+import io.quarkus.deployment.builditem.CombinedIndexBuildItem;
+import io.quarkus.deployment.builditem.FeatureBuildItem;
+import io.quarkus.deployment.builditem.nativeimage.ReflectiveClassBuildItem;
+import jakarta.inject.Singleton;
+import net.sberg.jdbcgenericdao.core.DaoDescriptorBean;
+import net.sberg.jdbcgenericdao.core.DaoDescriptorClass;
+import net.sberg.jdbcgenericdao.core.DaoDescriptorConstructor;
+import net.sberg.jdbcgenericdao.core.DaoDescriptorHelper;
+import net.sberg.jdbcgenericdao.core.DaoDescriptorProperty;
+import net.sberg.jdbcgenericdao.quarkus.DaoDescriptors;
+import net.sberg.jdbcgenericdao.quarkus.JdbcGenericDao;
+import net.sberg.jdbcgenericdao.quarkus.JdbcGenericDaoRecorder;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationTarget;
+import org.jboss.jandex.DotName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// discovers the entities in the jandex index, builds their descriptors and statements at build time and records them into
+// the DaoDescriptors bean, so the application starts without class path scan and reflective descriptor construction
+class JdbcGenericDaoProcessor {
+
+    private static final String feature = "jdbc-generic-dao";
+    private static final DotName descriptorClass = DotName.createSimple(DaoDescriptorClass.class);
+    private static final DotName descriptorConstructor = DotName.createSimple(DaoDescriptorConstructor.class);
+
+    @BuildStep
+    FeatureBuildItem feature() {
+        return new FeatureBuildItem(feature);
+    }
+
+    // the runtime jar carries no bean index
+    @BuildStep
+    AdditionalBeanBuildItem beans() {
+        return AdditionalBeanBuildItem.builder()
+                .addBeanClasses(JdbcGenericDao.class.getName(), "net.sberg.jdbcgenericdao.quarkus.DaoStatementCache")
+                .setUnremovable()
+                .build();
+    }
+
+    @BuildStep
+    @Record(ExecutionTime.STATIC_INIT)
+    SyntheticBeanBuildItem descriptors(CombinedIndexBuildItem combinedIndex, JdbcGenericDaoRecorder recorder,
+                                       BuildProducer<ReflectiveClassBuildItem> reflectiveClasses) throws Exception {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        List<Class<?>> entities = new ArrayList<>();
+        for (AnnotationInstance annotation : combinedIndex.getIndex().getAnnotations(descriptorClass)) {
+            if (annotation.target().kind() == AnnotationTarget.Kind.CLASS) {
+                entities.add(Class.forName(annotation.target().asClass().name().toString(), false, classLoader));
+            }
+        }
+        Map<String, DaoDescriptorBean> descriptors = new DaoDescriptorHelper().createBeanMap(entities);
+
+        // native image: the entities are mapped by reflection, enums by valueOf, records and annotated constructors by method handles
+        Set<String> mappedClasses = new TreeSet<>(descriptors.keySet());
+        for (AnnotationInstance annotation : combinedIndex.getIndex().getAnnotations(descriptorConstructor)) {
+            if (annotation.target().kind() == AnnotationTarget.Kind.METHOD) {
+                mappedClasses.add(annotation.target().asMethod().declaringClass().name().toString());
+            }
+        }
+        Set<String> enums = new TreeSet<>();
+        for (DaoDescriptorBean daoDescriptorBean : descriptors.values()) {
+            for (DaoDescriptorProperty daoDescriptorProperty : daoDescriptorBean.getProperties().values()) {
+                if (daoDescriptorProperty.getTypeClass().isEnum()) {
+                    enums.add(daoDescriptorProperty.getTypeClass().getName());
+                }
+            }
+        }
+        reflectiveClasses.produce(ReflectiveClassBuildItem.builder(mappedClasses.toArray(String[]::new))
+                .constructors().methods().fields().reason(feature).build());
+        if (!enums.isEmpty()) {
+            reflectiveClasses.produce(ReflectiveClassBuildItem.builder(enums.toArray(String[]::new))
+                    .methods().fields().reason(feature).build());
+        }
+
+        return SyntheticBeanBuildItem.configure(DaoDescriptors.class)
+                .scope(Singleton.class)
+                .unremovable()
+                .supplier(recorder.createDescriptors(descriptors))
+                .done();
+    }
+}
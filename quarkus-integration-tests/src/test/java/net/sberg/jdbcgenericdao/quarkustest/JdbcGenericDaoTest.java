@@ -0,0 +1,973 @@
+package net.sberg.jdbcgenericdao.quarkustest;
+
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.UserTransaction;
+import net.sberg.jdbcgenericdao.core.DaoAsyncInsertStats;
+import net.sberg.jdbcgenericdao.core.DaoColumnarResult;
+import net.sberg.jdbcgenericdao.core.DaoCriteria;
+import net.sberg.jdbcgenericdao.core.DaoDescriptorBean;
+import net.sberg.jdbcgenericdao.core.DaoHashPartitionStrategy;
+import net.sberg.jdbcgenericdao.core.DaoPage;
+import net.sberg.jdbcgenericdao.core.DaoPlaceholderProperty;
+import net.sberg.jdbcgenericdao.core.DaoProjectionBean;
+import net.sberg.jdbcgenericdao.core.DaoRowMap;
+import net.sberg.jdbcgenericdao.core.DaoSession;
+import net.sberg.jdbcgenericdao.core.DaoSingleFlightStats;
+import net.sberg.jdbcgenericdao.core.DaoWarmUpStats;
+import net.sberg.jdbcgenericdao.core.JdbcUtils;
+import net.sberg.jdbcgenericdao.quarkus.DaoDescriptors;
+import net.sberg.jdbcgenericdao.quarkus.DaoStatementCacheStats;
+import net.sberg.jdbcgenericdao.quarkus.JdbcGenericDao;
+import net.sberg.jdbcgenericdao.quarkustest.testentity.Comment;
+import net.sberg.jdbcgenericdao.quarkustest.testentity.Document;
+import net.sberg.jdbcgenericdao.quarkustest.testentity.Event;
+import net.sberg.jdbcgenericdao.quarkustest.testentity.Person;
+import net.sberg.jdbcgenericdao.quarkustest.testentity.PersonName;
+import net.sberg.jdbcgenericdao.quarkustest.testentity.PersonRecord;
+import net.sberg.jdbcgenericdao.quarkustest.testentity.PersonView;
+import net.sberg.jdbcgenericdao.quarkustest.testentity.Token;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class JdbcGenericDaoTest {
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    JdbcGenericDao jdbcGenericDao;
+
+    @Inject
+    DaoDescriptors daoDescriptors;
+
+    @Inject
+    UserTransaction userTransaction;
+
+    @BeforeEach
+    void setupSchema() throws Exception {
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS PERSON");
+            st.execute("CREATE TABLE PERSON (ID INT PRIMARY KEY, FIRST_NAME VARCHAR(64), LAST_NAME VARCHAR(64))");
+            for (String s : Arrays.asList(
+                    "INSERT INTO PERSON (ID, FIRST_NAME, LAST_NAME) VALUES (1, 'John', 'Doe')",
+                    "INSERT INTO PERSON (ID, FIRST_NAME, LAST_NAME) VALUES (2, 'Jane', 'Doe')",
+                    "INSERT INTO PERSON (ID, FIRST_NAME, LAST_NAME) VALUES (3, 'Bob', 'Smith')")) {
+                st.execute(s);
+            }
+        }
+        jdbcGenericDao.initialize();
+    }
+
+    @Test
+    void delete_bySql() throws Exception {
+        List<DaoPlaceholderProperty> placeholders = List.of(new DaoPlaceholderProperty("lastName", "Smith"));
+        jdbcGenericDao.delete("DELETE FROM PERSON WHERE LAST_NAME = ?", placeholders);
+        Person person = (Person) jdbcGenericDao.selectOne(Person.class.getName(),
+                null, List.of(new DaoPlaceholderProperty("id", 3)));
+        assertNull(person);
+        person = (Person) jdbcGenericDao.selectOne(Person.class.getName(),
+                null, List.of(new DaoPlaceholderProperty("id", 2)));
+        assertNotNull(person);
+    }
+
+    @Test
+    void delete_byObject() throws Exception {
+        Person person = (Person) jdbcGenericDao.selectOne(Person.class.getName(),
+                null, List.of(new DaoPlaceholderProperty("id", 3)));
+        assertNotNull(person);
+        jdbcGenericDao.delete(person, Optional.empty());
+        person = (Person) jdbcGenericDao.selectOne(Person.class.getName(),
+                null, List.of(new DaoPlaceholderProperty("id", 3)));
+        assertNull(person);
+    }
+
+    @Test
+    void delete_byId() throws Exception {
+        Person person = (Person) jdbcGenericDao.selectOne(Person.class.getName(),
+                null, List.of(new DaoPlaceholderProperty("id", 3)));
+        assertNotNull(person);
+        jdbcGenericDao.delete(person.getId(), Person.class.getName(), Optional.empty());
+        person = (Person) jdbcGenericDao.selectOne(Person.class.getName(),
+                null, List.of(new DaoPlaceholderProperty("id", 3)));
+        assertNull(person);
+    }
+
+    @Test
+    void batchInsert() throws Exception {
+        /*
+        ToDo: this construct of create person object list is not working !!!
+        batchInsert will find the corresponding descriptorBean.
+         */
+        @SuppressWarnings("unused")
+        List<Object> persons1 = new ArrayList<>() {{
+            add(new Person() {{
+                setFirstName("Christian");
+                setLastName("Dethloff");
+            }});
+            add(new Person() {{
+                setFirstName("Marlen");
+                setLastName("Dethloff");
+            }});
+        }};
+
+        List<Object> persons = new ArrayList<>();
+        Person p = new Person();
+        p.setFirstName("Christian");
+        p.setLastName("Dethloff");
+        persons.add(p);
+
+        p = new Person();
+        p.setFirstName("Marlen");
+        p.setLastName("Dethloff");
+        persons.add(p);
+
+        jdbcGenericDao.batchInsert(persons, Optional.empty());
+
+        Person person = (Person) jdbcGenericDao.selectOne(Person.class.getName(),
+                null, List.of(new DaoPlaceholderProperty("id", 4)));
+        assertNotNull(person);
+    }
+
+    @Test
+    void batchUpdate() throws Exception {
+        List<Object> persons = new ArrayList<>();
+
+        Person person = (Person) jdbcGenericDao.selectOne(Person.class.getName(),
+                null, List.of(new DaoPlaceholderProperty("id", 3)));
+        person.setFirstName("uschi");
+        persons.add(person);
+
+        person = (Person) jdbcGenericDao.selectOne(Person.class.getName(),
+                null, List.of(new DaoPlaceholderProperty("id", 2)));
+        person.setFirstName("uschi");
+        persons.add(person);
+
+        jdbcGenericDao.batchUpdate(persons, Optional.empty());
+
+        person = (Person) jdbcGenericDao.selectOne(Person.class.getName(),
+                null, List.of(new DaoPlaceholderProperty("id", 3)));
+        assertEquals("uschi", person.getFirstName());
+
+        person = (Person) jdbcGenericDao.selectOne(Person.class.getName(),
+                null, List.of(new DaoPlaceholderProperty("id", 2)));
+        assertEquals("uschi", person.getFirstName());
+    }
+
+    @Test
+    void update_byObject() throws Exception {
+        Person person = (Person) jdbcGenericDao.selectOne(Person.class.getName(),
+                null, List.of(new DaoPlaceholderProperty("id", 3)));
+        person.setFirstName("uschi");
+
+        jdbcGenericDao.update(person, Optional.empty());
+
+        person = (Person) jdbcGenericDao.selectOne(Person.class.getName(),
+                null, List.of(new DaoPlaceholderProperty("id", 3)));
+        assertEquals("uschi", person.getFirstName());
+    }
+
+    @Test
+    void update_bySql() throws Exception {
+        jdbcGenericDao.update("update Person set FIRST_NAME='uschi' where id = ?", Person.class.getName(),
+                List.of(new DaoPlaceholderProperty("id", 3)));
+
+        Person person = (Person) jdbcGenericDao.selectOne(Person.class.getName(), null,
+                List.of(new DaoPlaceholderProperty("id", 3)));
+        assertEquals("uschi", person.getFirstName());
+    }
+
+    @Test
+    void insert() throws Exception {
+        Person p = new Person();
+        p.setFirstName("Christian");
+        p.setLastName("Dethloff");
+
+        jdbcGenericDao.insert(p, Optional.empty());
+
+        Person person = (Person) jdbcGenericDao.selectOne(Person.class.getName(), null,
+                List.of(new DaoPlaceholderProperty("id", 4)));
+        assertNotNull(person);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void selectMany_byEntityName() throws Exception {
+        List<Person> persons = jdbcGenericDao.selectMany(Person.class.getName(), null, null);
+        assertEquals(3, persons.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void selectMany_bySql() throws Exception {
+        List<Person> persons = jdbcGenericDao.selectMany("select * from Person", Person.class.getName(),
+                null, null);
+        assertEquals(3, persons.size());
+    }
+
+    @Test
+    void selectOne_byEntityName() throws Exception {
+        Person person = (Person) jdbcGenericDao.selectOne(Person.class.getName(), null,
+                List.of(new DaoPlaceholderProperty("id", 1)));
+        assertNotNull(person);
+    }
+
+    @Test
+    void selectOne_bySql() throws Exception {
+        Person person = (Person) jdbcGenericDao.selectOne("select * from Person where id = ?", Person.class.getName(),
+                null, List.of(new DaoPlaceholderProperty("id", 1)));
+        assertNotNull(person);
+    }
+
+    @Test
+    void selectByIds() throws Exception {
+        Map<Integer, Object> persons = jdbcGenericDao.selectByIds(Person.class.getName(), List.of(3, 1, 99, 3), null);
+        assertEquals(List.of(3, 1), new ArrayList<>(persons.keySet()));
+        assertEquals("Bob", ((Person) persons.get(3)).getFirstName());
+
+        // Long ids of an Integer primary key, keyed as passed
+        Map<Long, Object> byLongIds = jdbcGenericDao.selectByIds(Person.class.getName(), List.of(3L, 1L, 99L), null);
+        assertEquals(List.of(3L, 1L), new ArrayList<>(byLongIds.keySet()));
+        assertEquals("Bob", ((Person) byLongIds.get(3L)).getFirstName());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void selectByIds_withMapProjection() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 1; i <= 300; i++) {
+            ids.add(i);
+        }
+        Map<Integer, Object> persons = jdbcGenericDao.selectByIds(Person.class.getName(), ids,
+                new DaoProjectionBean(List.of("id", "lastName"), Map.class, false));
+        assertEquals(3, persons.size());
+        assertEquals("Doe", ((Map<String, Object>) persons.get(2)).get("lastName"));
+    }
+
+    @Test
+    void selectPage() throws Exception {
+        DaoPage page = jdbcGenericDao.selectPage(Person.class.getName(), null, null, null, 2);
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.isHasNext());
+        assertEquals(2, page.getNextCursor());
+
+        page = jdbcGenericDao.selectPage(Person.class.getName(), null, null, page.getNextCursor(), 2);
+        assertEquals(1, page.getContent().size());
+        assertFalse(page.isHasNext());
+        assertEquals("Bob", ((Person) page.getContent().get(0)).getFirstName());
+    }
+
+    @Test
+    void selectPageByOffset() throws Exception {
+        DaoPage page = jdbcGenericDao.selectPageByOffset(Person.class.getName(), null,
+                List.of(new DaoPlaceholderProperty("lastName", "Doe")), 1, 2);
+        assertEquals(1, page.getContent().size());
+        assertFalse(page.isHasNext());
+        assertEquals(2, page.getNextOffset());
+        assertEquals("Jane", ((Person) page.getContent().get(0)).getFirstName());
+    }
+
+    @Test
+    void selectOne_nonUnique() throws Exception {
+        Person person = (Person) jdbcGenericDao.selectOne(Person.class.getName(), null,
+                List.of(new DaoPlaceholderProperty("lastName", "Doe")));
+        assertEquals("Doe", person.getLastName());
+        person = (Person) jdbcGenericDao.selectOne("select * from Person where LAST_NAME = ?", Person.class.getName(),
+                null, List.of(new DaoPlaceholderProperty("lastName", "Doe")));
+        assertEquals("Doe", person.getLastName());
+    }
+
+    @Test
+    void existsAndCount() throws Exception {
+        assertTrue(jdbcGenericDao.exists(Person.class.getName(), List.of(new DaoPlaceholderProperty("lastName", "Doe"))));
+        assertFalse(jdbcGenericDao.exists(Person.class.getName(), List.of(new DaoPlaceholderProperty("lastName", "Miller"))));
+        assertEquals(2, jdbcGenericDao.count(Person.class.getName(), List.of(new DaoPlaceholderProperty("lastName", "Doe"))));
+        assertEquals(3, jdbcGenericDao.count(Person.class.getName(), null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void selectMany_recordEntity() throws Exception {
+        List<PersonRecord> persons = jdbcGenericDao.selectMany(PersonRecord.class.getName(), null, null);
+        assertEquals(3, persons.size());
+        PersonRecord person = (PersonRecord) jdbcGenericDao.selectOne(PersonRecord.class.getName(), null,
+                List.of(new DaoPlaceholderProperty("id", 2)));
+        assertEquals(new PersonRecord(2, "Jane", "Doe"), person);
+    }
+
+    @Test
+    void insert_recordEntity() throws Exception {
+        jdbcGenericDao.insert(new PersonRecord(10, "Christian", "Dethloff"), Optional.empty());
+        jdbcGenericDao.update(new PersonRecord(10, "Marlen", "Dethloff"), Optional.empty());
+
+        PersonRecord person = (PersonRecord) jdbcGenericDao.selectOne(PersonRecord.class.getName(), null,
+                List.of(new DaoPlaceholderProperty("id", 10)));
+        assertEquals("Marlen", person.firstName());
+    }
+
+    @Test
+    void selectOne_recordProjection() throws Exception {
+        PersonName personName = (PersonName) jdbcGenericDao.selectOne(Person.class.getName(),
+                new DaoProjectionBean(List.of("id", "lastName"), PersonName.class, false),
+                List.of(new DaoPlaceholderProperty("id", 3)));
+        assertEquals(new PersonName("Smith", 3), personName);
+    }
+
+    @Test
+    void selectOne_constructorProjection() throws Exception {
+        PersonView personView = (PersonView) jdbcGenericDao.selectOne(Person.class.getName(),
+                new DaoProjectionBean(List.of("id", "firstName", "lastName"), PersonView.class, false),
+                List.of(new DaoPlaceholderProperty("id", 3)));
+        assertEquals("Bob Smith", personView.getFullName());
+    }
+
+    @Test
+    void selectInts() throws Exception {
+        int[] ids = jdbcGenericDao.selectInts(Person.class.getName(), "id",
+                List.of(new DaoPlaceholderProperty("lastName", "Doe")));
+        assertArrayEquals(new int[] {1, 2}, ids);
+        assertEquals(6, Arrays.stream(jdbcGenericDao.selectInts(Person.class.getName(), "id", null)).sum());
+        assertArrayEquals(new long[] {3}, jdbcGenericDao.selectLongs("select max(ID) from PERSON", null));
+        assertArrayEquals(new double[] {2.0}, jdbcGenericDao.selectDoubles("select avg(cast(ID as double)) from PERSON where ID > ?",
+                List.of(new DaoPlaceholderProperty("id", 0))));
+    }
+
+    @Test
+    void streams() throws Exception {
+        try (IntStream ids = jdbcGenericDao.streamInts(Person.class.getName(), "id", List.of(new DaoPlaceholderProperty("lastName", "Doe")))) {
+            assertArrayEquals(new int[] {1, 2}, ids.toArray());
+        }
+        try (LongStream ids = jdbcGenericDao.streamLongs("select ID from PERSON where ID > ? order by ID", List.of(new DaoPlaceholderProperty("id", 1)))) {
+            assertArrayEquals(new long[] {2, 3}, ids.toArray());
+        }
+        try (DoubleStream ids = jdbcGenericDao.streamDoubles(Person.class.getName(), "id", null)) {
+            assertEquals(6.0, ids.sum());
+        }
+
+        // streams closed before their last row give their connection back, more of them than the pool holds
+        for (int i = 0; i < 30; i++) {
+            try (IntStream ids = jdbcGenericDao.streamInts("select ID from PERSON order by ID", null)) {
+                assertEquals(1, ids.findFirst().getAsInt());
+            }
+        }
+
+        // the cursor stays open on the connection enlisted in the transaction and sees its uncommitted writes
+        userTransaction.begin();
+        try {
+            Person eve = new Person();
+            eve.setFirstName("Eve");
+            eve.setLastName("Doe");
+            jdbcGenericDao.insert(eve, Optional.empty());
+            try (IntStream ids = jdbcGenericDao.streamInts(Person.class.getName(), "id", List.of(new DaoPlaceholderProperty("lastName", "Doe")))) {
+                assertEquals(3, ids.count());
+            }
+        } finally {
+            userTransaction.rollback();
+        }
+        assertEquals(6, jdbcGenericDao.inSession(() -> {
+            try (IntStream ids = jdbcGenericDao.streamInts(Person.class.getName(), "id", null)) {
+                return ids.sum();
+            }
+        }));
+    }
+
+    @Test
+    void selectColumnar() throws Exception {
+        DaoColumnarResult result = jdbcGenericDao.selectColumnar(Person.class.getName(),
+                new DaoProjectionBean(List.of("id", "lastName"), null, false), null);
+        assertEquals(3, result.getRowCount());
+        assertArrayEquals(new int[] {1, 2, 3}, result.getInts("id"));
+        assertEquals("Smith", result.getStrings("lastName")[2]);
+        assertEquals(6, result.sumLong("id"));
+
+        result = jdbcGenericDao.selectColumnar("select ID, cast(null as varchar) as NOTHING from PERSON where LAST_NAME = ?",
+                List.of(new DaoPlaceholderProperty("lastName", "Doe")));
+        assertEquals(2, result.getRowCount());
+        assertEquals(3.0, result.sumDouble("ID"));
+        assertTrue(result.isNull("NOTHING", 1));
+        assertEquals(0, result.countNotNull("NOTHING"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void selectMany_mapProjection() throws Exception {
+        List<Map<String, Object>> persons = jdbcGenericDao.selectMany(Person.class.getName(),
+                new DaoProjectionBean(List.of("id", "firstName", "lastName"), Map.class, false),
+                List.of(new DaoPlaceholderProperty("lastName", "Doe")));
+        assertEquals(2, persons.size());
+        Map<String, Object> person = persons.get(0);
+        assertEquals(Map.of("id", 1, "firstName", "John", "lastName", "Doe"), person);
+        assertInstanceOf(DaoRowMap.class, person);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void selectMany_parallelMapping() throws Exception {
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            st.execute("INSERT INTO PERSON (ID, FIRST_NAME, LAST_NAME) SELECT X + 3, 'First' || X, 'Last' || X FROM SYSTEM_RANGE(1, 997)");
+        }
+        List<Person> persons = jdbcGenericDao.selectMany("select * from PERSON order by ID", Person.class.getName(), null, null);
+        assertEquals(1000, persons.size());
+        for (int i = 0; i < persons.size(); i++) {
+            assertEquals(i + 1, persons.get(i).getId());
+        }
+        assertEquals("First997", persons.get(999).getFirstName());
+    }
+
+    // the single-flight path is bypassed inside a session, the rows are mapped by the plain parallel mapping
+    @Test
+    @SuppressWarnings("unchecked")
+    void selectMany_parallelMappingWithoutSingleFlight() throws Exception {
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            st.execute("INSERT INTO PERSON (ID, FIRST_NAME, LAST_NAME) SELECT X + 3, 'First' || X, 'Last' || X FROM SYSTEM_RANGE(1, 997)");
+        }
+        DaoSingleFlightStats before = jdbcGenericDao.getSingleFlightStats();
+        List<Person> persons = jdbcGenericDao.inSession(() -> jdbcGenericDao.selectMany("select * from PERSON order by ID", Person.class.getName(), null, null));
+        assertEquals(before, jdbcGenericDao.getSingleFlightStats());
+        assertEquals(1000, persons.size());
+        for (int i = 0; i < persons.size(); i++) {
+            assertEquals(i + 1, persons.get(i).getId());
+        }
+        assertEquals("First997", persons.get(999).getFirstName());
+    }
+
+    @Test
+    void unitOfWork() throws Exception {
+        userTransaction.begin();
+        try {
+            jdbcGenericDao.beginUnitOfWork();
+            Person person = new Person();
+            person.setFirstName("Christian");
+            person.setLastName("Dethloff");
+            jdbcGenericDao.insert(person, Optional.empty());
+            person.setFirstName("Marlen");
+            jdbcGenericDao.update(person, Optional.empty());
+
+            Person transientPerson = new Person();
+            transientPerson.setFirstName("Temp");
+            jdbcGenericDao.insert(transientPerson, Optional.empty());
+            jdbcGenericDao.delete(transientPerson, Optional.empty());
+            jdbcGenericDao.delete(3, Person.class.getName(), Optional.empty());
+
+            try (Connection c = dataSource.getConnection(); Statement st = c.createStatement(); ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM PERSON")) {
+                rs.next();
+                assertEquals(3, rs.getInt(1));
+            }
+            userTransaction.commit();
+        } catch (Exception e) {
+            userTransaction.rollback();
+            throw e;
+        }
+        assertFalse(jdbcGenericDao.isUnitOfWorkActive());
+
+        List<Person> persons = jdbcGenericDao.selectMany(Person.class.getName(), null, null);
+        assertEquals(List.of(1, 2, 4), persons.stream().map(Person::getId).sorted().toList());
+        assertEquals("Marlen", persons.stream().filter(o -> o.getId() == 4).findFirst().get().getFirstName());
+    }
+
+    @Test
+    void unitOfWork_flushBeforeRead() throws Exception {
+        userTransaction.begin();
+        try {
+            jdbcGenericDao.beginUnitOfWork();
+            jdbcGenericDao.delete(1, Person.class.getName(), Optional.empty());
+            assertEquals(2, jdbcGenericDao.count(Person.class.getName(), null));
+        } finally {
+            userTransaction.rollback();
+        }
+        assertEquals(3, jdbcGenericDao.count(Person.class.getName(), null));
+    }
+
+    @Test
+    void unitOfWork_deleteByIds() throws Exception {
+        userTransaction.begin();
+        try {
+            jdbcGenericDao.beginUnitOfWork();
+            Person person = new Person();
+            person.setFirstName("Temp");
+            jdbcGenericDao.insert(person, Optional.empty());
+            jdbcGenericDao.delete(1, Person.class.getName(), Optional.empty());
+            // not deferred: the pending writes are flushed first, unknown and already deleted ids are not counted
+            assertEquals(2, jdbcGenericDao.deleteByIds(Person.class.getName(), List.of(1, 2, person.getId(), 99), Optional.empty()));
+            assertEquals(1, jdbcGenericDao.count(Person.class.getName(), null));
+        } finally {
+            userTransaction.rollback();
+        }
+        assertEquals(3, jdbcGenericDao.count(Person.class.getName(), null));
+    }
+
+    @Test
+    void insertAsync() throws Exception {
+        List<CompletableFuture<Object>> futures = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10; i++) {
+                    Person person = new Person();
+                    person.setFirstName("Async");
+                    try {
+                        futures.add(jdbcGenericDao.insertAsync(person, Optional.empty()));
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        assertEquals(43, jdbcGenericDao.count(Person.class.getName(), null));
+        assertEquals(40, futures.stream().map(o -> ((Person) o.join()).getId()).distinct().count());
+        DaoAsyncInsertStats stats = jdbcGenericDao.getAsyncInsertStats().get(Person.class.getName());
+        assertEquals(40, stats.getRows());
+        assertEquals(0, stats.getQueueDepth());
+    }
+
+    @Test
+    void insertAsyncAfterShutdown() throws Exception {
+        Person person = new Person();
+        person.setFirstName("Async");
+        CompletableFuture<Object> future = jdbcGenericDao.insertAsync(person, Optional.empty());
+        jdbcGenericDao.shutdownAsyncInserts();
+
+        assertNotNull(((Person) future.join()).getId());
+        Person late = new Person();
+        late.setFirstName("Late");
+        assertThrows(IllegalStateException.class, () -> jdbcGenericDao.insertAsync(late, Optional.empty()));
+        assertEquals(4, jdbcGenericDao.count(Person.class.getName(), null));
+    }
+
+    @Test
+    void deleteByIds() throws Exception {
+        assertEquals(2, jdbcGenericDao.deleteByIds(Person.class.getName(), List.of(1, 3, 3, 99), Optional.empty()));
+        assertEquals(1, jdbcGenericDao.count(Person.class.getName(), null));
+
+        List<Object> persons = jdbcGenericDao.selectMany(Person.class.getName(), null, null);
+        assertEquals(1, jdbcGenericDao.batchDelete(persons, Optional.empty()));
+        assertFalse(jdbcGenericDao.exists(Person.class.getName(), null));
+    }
+
+    @Test
+    void readDataSources() throws Exception {
+        DataSource replica = createReplica();
+        try (Connection c = replica.getConnection(); Statement st = c.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS PERSON");
+            st.execute("CREATE TABLE PERSON (ID INT PRIMARY KEY, FIRST_NAME VARCHAR(64), LAST_NAME VARCHAR(64))");
+            st.execute("INSERT INTO PERSON (ID, FIRST_NAME, LAST_NAME) VALUES (7, 'Read', 'Replica')");
+        }
+        jdbcGenericDao.setReadDataSources(List.of(replica));
+        try {
+            // the replica is not an agroal pool, its connections bypass the statement cache
+            DaoStatementCacheStats before = jdbcGenericDao.getStatementCacheStats();
+            assertEquals(1, jdbcGenericDao.count(Person.class.getName(), null));
+            DaoStatementCacheStats after = jdbcGenericDao.getStatementCacheStats();
+            assertEquals(before.getHits() + before.getMisses(), after.getHits() + after.getMisses());
+            assertEquals(before.getConnections(), after.getConnections());
+
+            userTransaction.begin();
+            try {
+                assertEquals(1, jdbcGenericDao.count(Person.class.getName(), null));
+                Person person = new Person();
+                person.setFirstName("Christian");
+                jdbcGenericDao.insert(person, Optional.empty());
+                assertEquals(4, jdbcGenericDao.count(Person.class.getName(), null));
+            } finally {
+                userTransaction.rollback();
+            }
+            assertEquals(1, jdbcGenericDao.count(Person.class.getName(), null));
+        } finally {
+            jdbcGenericDao.setReadDataSources(List.of());
+        }
+        assertEquals(3, jdbcGenericDao.count(Person.class.getName(), null));
+    }
+
+    private DataSource createReplica() {
+        JdbcDataSource replica = new JdbcDataSource();
+        replica.setURL("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1");
+        return replica;
+    }
+
+    @Test
+    void partitionedEntity() throws Exception {
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            for (String table : List.of("PERSON_0", "PERSON_1")) {
+                st.execute("DROP TABLE IF EXISTS " + table);
+                st.execute("CREATE TABLE " + table + " (ID INT PRIMARY KEY, FIRST_NAME VARCHAR(64), LAST_NAME VARCHAR(64))");
+            }
+        }
+        DaoHashPartitionStrategy partitionStrategy = new DaoHashPartitionStrategy("lastName", "PERSON", 2);
+        jdbcGenericDao.registerPartitionStrategy(Person.class.getName(), partitionStrategy);
+
+        List<Object> persons = new ArrayList<>();
+        for (String[] name : List.of(new String[]{"Dana", "Doe"}, new String[]{"Bob", "Smith"}, new String[]{"Carl", "Miller"}, new String[]{"Anna", "Doe"})) {
+            Person person = new Person();
+            person.setFirstName(name[0]);
+            person.setLastName(name[1]);
+            persons.add(person);
+        }
+        jdbcGenericDao.batchInsert(persons, Optional.empty());
+
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM " + partitionStrategy.getTableName("Doe") + " WHERE LAST_NAME = 'Doe'")) {
+            rs.next();
+            assertEquals(2, rs.getInt(1));
+        }
+        assertEquals(4, jdbcGenericDao.count(Person.class.getName(), null));
+        assertEquals(2, jdbcGenericDao.count(Person.class.getName(), List.of(new DaoPlaceholderProperty("lastName", "Doe"))));
+
+        List<Person> ordered = jdbcGenericDao.selectManyOrdered(Person.class.getName(), null, null, "firstName");
+        assertEquals(List.of("Anna", "Bob", "Carl", "Dana"), ordered.stream().map(Person::getFirstName).toList());
+        assertEquals(List.of(4, 5, 6, 7), ordered.stream().map(Person::getId).sorted().toList());
+        assertEquals(ordered, jdbcGenericDao.inSession(() -> jdbcGenericDao.selectManyOrdered(Person.class.getName(), null, null, "firstName")));
+
+        DaoPage page = jdbcGenericDao.selectPage(Person.class.getName(), null, null, null, 3);
+        assertEquals(List.of(4, 5, 6), ((List<Person>) page.getContent()).stream().map(Person::getId).toList());
+        assertTrue(page.isHasNext());
+        page = jdbcGenericDao.selectPage(Person.class.getName(), null, null, page.getNextCursor(), 3);
+        assertEquals(List.of(7), ((List<Person>) page.getContent()).stream().map(Person::getId).toList());
+        assertFalse(page.isHasNext());
+        page = jdbcGenericDao.selectPageByOffset(Person.class.getName(), null, null, 2, 3);
+        assertEquals(List.of(6, 7), ((List<Person>) page.getContent()).stream().map(Person::getId).toList());
+        assertEquals(List.of(4, 5, 6, 7), Arrays.stream(jdbcGenericDao.selectInts(Person.class.getName(), "id", null)).sorted().boxed().toList());
+        try (IntStream ids = jdbcGenericDao.streamInts(Person.class.getName(), "id", null)) {
+            assertEquals(List.of(4, 5, 6, 7), ids.sorted().boxed().toList());
+        }
+        assertEquals(4, jdbcGenericDao.selectColumnar(Person.class.getName(), null, null).getRowCount());
+        assertEquals(2, jdbcGenericDao.selectLongs(Person.class.getName(), "id", List.of(new DaoPlaceholderProperty("lastName", "Doe"))).length);
+        assertEquals(partitionStrategy.getTableName(-7), partitionStrategy.getTableName(-7L));
+
+        assertEquals(1, jdbcGenericDao.deleteByIds(Person.class.getName(), List.of(ordered.getFirst().getId()), Optional.empty()));
+        assertEquals(3, jdbcGenericDao.selectMany(Person.class.getName(), null, null).size());
+    }
+
+    @Test
+    void criteria() throws Exception {
+        List<Person> persons = jdbcGenericDao.selectManyByCriteria(Person.class.getName(), null,
+                DaoCriteria.and(DaoCriteria.in("id", List.of(1, 2, 3)), DaoCriteria.or(DaoCriteria.like("lastName", "Doe", ","), DaoCriteria.eq("firstName", "Bob"))));
+        assertEquals(3, persons.size());
+        persons = jdbcGenericDao.selectManyByCriteria(Person.class.getName(), null, DaoCriteria.range("id", 2, null));
+        assertEquals(List.of(2, 3), persons.stream().map(Person::getId).sorted().toList());
+        persons = jdbcGenericDao.selectManyByCriteria(Person.class.getName(), null, DaoCriteria.in("id", List.of()));
+        assertTrue(persons.isEmpty());
+
+        assertEquals(2, jdbcGenericDao.updateByCriteria(Person.class.getName(), List.of(new DaoPlaceholderProperty("firstName", "X")),
+                DaoCriteria.in("id", List.of(1, 2)), Optional.empty()));
+        assertEquals(2, jdbcGenericDao.count(Person.class.getName(), List.of(new DaoPlaceholderProperty("firstName", "X"))));
+        assertEquals(1, jdbcGenericDao.deleteByCriteria(Person.class.getName(), DaoCriteria.eq("lastName", "Smith"), Optional.empty()));
+        assertEquals(2, jdbcGenericDao.count(Person.class.getName(), null));
+    }
+
+    @Test
+    void collectionPlaceholder() throws Exception {
+        List<Person> persons = jdbcGenericDao.selectMany(Person.class.getName(), null,
+                List.of(new DaoPlaceholderProperty("id", List.of(1, 3)), new DaoPlaceholderProperty("lastName", "Doe")));
+        assertEquals(1, persons.size());
+        assertEquals(2, jdbcGenericDao.count(Person.class.getName(), List.of(new DaoPlaceholderProperty("id", Set.of(2, 3, 99)))));
+
+        persons = jdbcGenericDao.selectMany("SELECT * FROM PERSON WHERE " + JdbcUtils.getInListStr("ID", 3), Person.class.getName(), null,
+                List.of(new DaoPlaceholderProperty("id", List.of(1, 2, 3))));
+        assertEquals(3, persons.size());
+    }
+
+    @Test
+    void lobProperties() throws Exception {
+        byte[] content = new byte[4096];
+        new Random(7).nextBytes(content);
+        String text = "lorem ipsum ".repeat(300);
+        Document document = new Document();
+        document.setName("report");
+        document.setThumbnail(new byte[]{1, 2, 3});
+        document.setContent(new ByteArrayInputStream(content));
+        document.setText(new StringReader(text));
+        jdbcGenericDao.insert(document, Optional.empty());
+
+        Document small = new Document();
+        small.setName("note");
+        small.setContent(new ByteArrayInputStream(new byte[]{4, 5}));
+        small.setText(new StringReader("short"));
+        jdbcGenericDao.insert(small, Optional.empty());
+
+        Document result = (Document) jdbcGenericDao.selectOne(Document.class.getName(), null, List.of(new DaoPlaceholderProperty("name", "report")));
+        assertArrayEquals(new byte[]{1, 2, 3}, result.getThumbnail());
+        try (InputStream in = result.getContent(); Reader reader = result.getText()) {
+            assertArrayEquals(content, in.readAllBytes());
+            StringWriter writer = new StringWriter();
+            reader.transferTo(writer);
+            assertEquals(text, writer.toString());
+        }
+
+        result = (Document) jdbcGenericDao.selectOne(Document.class.getName(), null, List.of(new DaoPlaceholderProperty("name", "note")));
+        assertNull(result.getThumbnail());
+        assertArrayEquals(new byte[]{4, 5}, result.getContent().readAllBytes());
+        assertEquals(2, jdbcGenericDao.deleteByIds(Document.class.getName(), List.of(document.getId(), small.getId()), Optional.empty()));
+    }
+
+    @Test
+    void snowflakeAndUuidIds() throws Exception {
+        List<Object> events = new ArrayList<>();
+        for (String name : List.of("created", "updated", "deleted")) {
+            Event event = new Event();
+            event.setName(name);
+            events.add(event);
+        }
+        jdbcGenericDao.batchInsert(events, Optional.empty());
+        List<Long> eventIds = events.stream().map(o -> ((Event) o).getId()).toList();
+        assertTrue(eventIds.get(0) > Integer.MAX_VALUE);
+        assertEquals(eventIds.stream().sorted().toList(), eventIds);
+
+        Map<Long, Object> found = jdbcGenericDao.selectByIds(Event.class.getName(), eventIds, null);
+        assertEquals("updated", ((Event) found.get(eventIds.get(1))).getName());
+        Event event = (Event) found.get(eventIds.get(2));
+        event.setName("purged");
+        jdbcGenericDao.update(event, Optional.empty());
+        assertEquals(1, jdbcGenericDao.count(Event.class.getName(), List.of(new DaoPlaceholderProperty("name", "purged"))));
+        assertEquals(3, jdbcGenericDao.deleteByIds(Event.class.getName(), eventIds, Optional.empty()));
+
+        Token first = new Token();
+        first.setName("first");
+        jdbcGenericDao.insert(first, Optional.empty());
+        Token second = new Token();
+        second.setName("second");
+        jdbcGenericDao.insert(second, Optional.empty());
+        assertEquals(7, first.getId().version());
+        assertTrue(first.getId().compareTo(second.getId()) < 0);
+
+        Token token = (Token) jdbcGenericDao.selectOne(Token.class.getName(), null, List.of(new DaoPlaceholderProperty("id", second.getId())));
+        assertEquals("second", token.getName());
+        assertEquals("first", ((Token) jdbcGenericDao.selectByIds(Token.class.getName(), List.of(first.getId().toString()), null).get(first.getId().toString())).getName());
+        jdbcGenericDao.delete(first, Optional.empty());
+        jdbcGenericDao.delete(second.getId(), Token.class.getName(), Optional.empty());
+        assertEquals(0, jdbcGenericDao.count(Token.class.getName(), null));
+    }
+
+    @Test
+    void identityIds() throws Exception {
+        Comment first = new Comment();
+        first.setText("first");
+        jdbcGenericDao.insert(first, Optional.empty());
+        assertNotNull(first.getId());
+
+        List<Object> comments = new ArrayList<>();
+        for (String text : List.of("second", "third", "fourth")) {
+            Comment comment = new Comment();
+            comment.setText(text);
+            comments.add(comment);
+        }
+        jdbcGenericDao.batchInsert(comments, Optional.empty());
+        List<Long> ids = comments.stream().map(o -> ((Comment) o).getId()).toList();
+        assertEquals(List.of(first.getId() + 1, first.getId() + 2, first.getId() + 3), ids);
+
+        Map<Long, Object> found = jdbcGenericDao.selectByIds(Comment.class.getName(), ids, null);
+        assertEquals(List.of("second", "third", "fourth"), found.values().stream().map(o -> ((Comment) o).getText()).toList());
+        assertEquals(3, jdbcGenericDao.selectByIds(Comment.class.getName(), ids.stream().map(Long::intValue).toList(), null).size());
+        assertEquals(4, jdbcGenericDao.deleteByIds(Comment.class.getName(), List.of(first.getId(), ids.get(0), ids.get(1), ids.get(2)), Optional.empty()));
+    }
+
+    @Test
+    void recordedDescriptors() throws Exception {
+        // built from the jandex index at build time, the statements are rendered there as well
+        Map<String, DaoDescriptorBean> descriptors = daoDescriptors.getDescriptors(Person.class.getPackageName());
+        assertTrue(descriptors.containsKey(PersonRecord.class.getName()));
+        assertEquals("insert into PERSON (ID, FIRST_NAME, LAST_NAME) values (?, ?, ?)", descriptors.get(Person.class.getName()).getInsertStatement());
+        assertTrue(daoDescriptors.getDescriptors("net.sberg.jdbcgenericdao.other").isEmpty());
+    }
+
+    @Test
+    void session() throws Exception {
+        try (DaoSession session = jdbcGenericDao.openSession()) {
+            for (int id = 1; id <= 3; id++) {
+                assertNotNull(jdbcGenericDao.selectOne(Person.class.getName(), null, List.of(new DaoPlaceholderProperty("id", id))));
+            }
+            assertEquals(1, session.getPreparedStatementCount());
+
+            Person person = new Person();
+            person.setFirstName("Eve");
+            person.setLastName("Doe");
+            jdbcGenericDao.insert(person, Optional.empty());
+            try (DaoSession nested = jdbcGenericDao.openSession()) {
+                assertSame(session, nested);
+                assertEquals(4, jdbcGenericDao.count(Person.class.getName(), null));
+            }
+            assertTrue(jdbcGenericDao.isSessionActive());
+            assertFalse(session.getConnection().isClosed());
+        }
+        assertFalse(jdbcGenericDao.isSessionActive());
+        assertEquals(3, (long) jdbcGenericDao.inSession(() -> jdbcGenericDao.count(Person.class.getName(), List.of(new DaoPlaceholderProperty("lastName", "Doe")))));
+    }
+
+    @Test
+    void statementCache() throws Exception {
+        DaoStatementCacheStats before = jdbcGenericDao.getStatementCacheStats();
+        for (int id = 1; id <= 3; id++) {
+            assertNotNull(jdbcGenericDao.selectOne(Person.class.getName(), null, List.of(new DaoPlaceholderProperty("id", id))));
+        }
+        DaoStatementCacheStats after = jdbcGenericDao.getStatementCacheStats();
+        assertTrue(after.getHits() >= before.getHits() + 2);
+        assertTrue(after.getConnections() > 0);
+        assertTrue(after.getStatements() <= 32 * after.getConnections());
+
+        // the statements of the connections destroyed by the pool are closed and dropped
+        dataSource.unwrap(AgroalDataSource.class).flush(AgroalDataSource.FlushMode.ALL);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (jdbcGenericDao.getStatementCacheStats().getConnections() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, jdbcGenericDao.getStatementCacheStats().getConnections());
+        assertNotNull(jdbcGenericDao.selectOne(Person.class.getName(), null, List.of(new DaoPlaceholderProperty("id", 1))));
+    }
+
+    @Test
+    void singleFlight() throws Exception {
+        List<DaoPlaceholderProperty> does = List.of(new DaoPlaceholderProperty("lastName", "Doe"));
+        long count = jdbcGenericDao.count(Person.class.getName(), does);
+        // the first execution waits for the row lock of an open transaction until the other callers joined it
+        String sql = "select * from PERSON where LAST_NAME = ? order by ID for update";
+        DaoSingleFlightStats before = jdbcGenericDao.getSingleFlightStats();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try (Connection lock = dataSource.getConnection()) {
+            lock.setAutoCommit(false);
+            List<Future<List>> futures = new ArrayList<>();
+            try (Statement st = lock.createStatement()) {
+                st.executeUpdate("UPDATE PERSON SET FIRST_NAME = FIRST_NAME WHERE LAST_NAME = 'Doe'");
+                for (int i = 0; i < 16; i++) {
+                    futures.add(executor.submit(() -> jdbcGenericDao.selectMany(sql, Person.class.getName(), null, does)));
+                }
+                long deadline = System.currentTimeMillis() + 5000;
+                while (jdbcGenericDao.getSingleFlightStats().getShared() - before.getShared() < 15 && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(5);
+                }
+            } finally {
+                lock.rollback();
+            }
+
+            List first = futures.getFirst().get();
+            assertEquals(count, first.size());
+            for (Future<List> future : futures.subList(1, futures.size())) {
+                List result = future.get();
+                assertEquals(first, result);
+                assertNotSame(first.getFirst(), result.getFirst());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        DaoSingleFlightStats after = jdbcGenericDao.getSingleFlightStats();
+        long executions = after.getExecutions() - before.getExecutions();
+        long shared = after.getShared() - before.getShared();
+        assertTrue(shared > 0);
+        assertTrue(executions < 16);
+        assertEquals(16, executions + shared);
+    }
+
+    @Test
+    void warmUp() throws Exception {
+        DaoStatementCacheStats before = jdbcGenericDao.getStatementCacheStats();
+        DaoWarmUpStats stats = jdbcGenericDao.warmUp();
+        assertTrue(stats.getEntities() > 0);
+        assertTrue(stats.getStatements() >= 5 * stats.getEntities());
+        assertTrue(stats.getRows() > 0);
+        assertSame(stats, jdbcGenericDao.getWarmUpStats());
+        assertFalse(jdbcGenericDao.isSessionActive());
+        // the warm-up went through the statement cache of the adapter
+        DaoStatementCacheStats after = jdbcGenericDao.getStatementCacheStats();
+        assertEquals(stats.getStatements(), after.getHits() + after.getMisses() - before.getHits() - before.getMisses());
+    }
+
+    @Test
+    void referenceTable() throws Exception {
+        List<DaoPlaceholderProperty> does = List.of(new DaoPlaceholderProperty("lastName", "Doe"));
+        List fromDb = jdbcGenericDao.selectMany(Person.class.getName(), null, does);
+        Person first = (Person) fromDb.getFirst();
+        jdbcGenericDao.registerReferenceTable(Person.class.getName(), "lastName");
+        try {
+            assertEquals(jdbcGenericDao.count(Person.class.getName(), null), jdbcGenericDao.getReferenceTableStats().get(Person.class.getName()).getRows());
+            assertEquals(first, jdbcGenericDao.selectOne(Person.class.getName(), null, List.of(new DaoPlaceholderProperty("id", first.getId()))));
+            assertNull(jdbcGenericDao.selectOne(Person.class.getName(), null, List.of(new DaoPlaceholderProperty("id", 9999))));
+            assertEquals(fromDb, jdbcGenericDao.selectMany(Person.class.getName(), null, does));
+            assertEquals(List.of(first), jdbcGenericDao.selectMany(Person.class.getName(), null, List.of(new DaoPlaceholderProperty("lastName", "Doe"), new DaoPlaceholderProperty("firstName", first.getFirstName()))));
+            // values of another type than the column are left to the database
+            assertEquals(first, jdbcGenericDao.selectOne(Person.class.getName(), null, List.of(new DaoPlaceholderProperty("id", first.getId().longValue()))));
+            assertEquals(first, jdbcGenericDao.selectOne(Person.class.getName(), null, List.of(new DaoPlaceholderProperty("id", BigDecimal.valueOf(first.getId())))));
+
+            // writes reach the reference table with the next reload
+            Person person = new Person();
+            person.setFirstName("Ann");
+            person.setLastName("Doe");
+            jdbcGenericDao.insert(person, Optional.empty());
+            assertEquals(fromDb.size(), jdbcGenericDao.selectMany(Person.class.getName(), null, does).size());
+            jdbcGenericDao.reloadReferenceTable(Person.class.getName());
+            assertEquals(fromDb.size() + 1, jdbcGenericDao.selectMany(Person.class.getName(), null, does).size());
+        } finally {
+            jdbcGenericDao.unregisterReferenceTable(Person.class.getName());
+        }
+    }
+
+    @Test
+    void snapshot() throws Exception {
+        Path file = Files.createTempFile("jdbcgenericdao", ".snapshot");
+        try {
+            jdbcGenericDao.registerReferenceTable(Person.class.getName(), "lastName");
+            jdbcGenericDao.writeSnapshot(file);
+            jdbcGenericDao.unregisterReferenceTable(Person.class.getName());
+
+            // tables are served from the snapshot before the background check against the database is done
+            CompletableFuture<Void> refresh = jdbcGenericDao.loadSnapshot(file);
+            assertNotNull(jdbcGenericDao.getReferenceTableStats().get(Person.class.getName()));
+            refresh.join();
+            assertEquals(jdbcGenericDao.count(Person.class.getName(), null), jdbcGenericDao.getReferenceTableStats().get(Person.class.getName()).getRows());
+            assertEquals("Doe", ((Person) jdbcGenericDao.selectOne(Person.class.getName(), null, List.of(new DaoPlaceholderProperty("id", 1)))).getLastName());
+            jdbcGenericDao.unregisterReferenceTable(Person.class.getName());
+
+            Person person = new Person();
+            person.setFirstName("Ann");
+            person.setLastName("Doe");
+            jdbcGenericDao.insert(person, Optional.empty());
+            jdbcGenericDao.loadSnapshot(file).join();
+            assertEquals(jdbcGenericDao.count(Person.class.getName(), null), jdbcGenericDao.getReferenceTableStats().get(Person.class.getName()).getRows());
+            assertNotNull(jdbcGenericDao.selectOne(Person.class.getName(), null, List.of(new DaoPlaceholderProperty("id", person.getId()))));
+
+            assertTrue(jdbcGenericDao.loadSnapshot(file.resolveSibling("missing.snapshot")).isDone());
+        } finally {
+            jdbcGenericDao.unregisterReferenceTable(Person.class.getName());
+            Files.deleteIfExists(file);
+        }
+    }
+}
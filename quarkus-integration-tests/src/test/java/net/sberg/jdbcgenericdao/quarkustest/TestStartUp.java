@@ -19,6 +19,10 @@ public class TestStartUp {
         try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
             st.execute("CREATE TABLE Dating (id INT PRIMARY KEY, desc VARCHAR(64), date DATE, dateTime TIMESTAMP)");
             st.execute("CREATE TABLE PERSON (ID INT PRIMARY KEY, FIRST_NAME VARCHAR(64), LAST_NAME VARCHAR(64))");
+            st.execute("CREATE TABLE DOCUMENT (ID INT PRIMARY KEY, NAME VARCHAR(64), THUMBNAIL VARBINARY(1024), CONTENT BLOB, TEXT CLOB)");
+            st.execute("CREATE TABLE EVENT (ID BIGINT PRIMARY KEY, NAME VARCHAR(64))");
+            st.execute("CREATE TABLE TOKEN (ID UUID PRIMARY KEY, NAME VARCHAR(64))");
+            st.execute("CREATE TABLE COMMENT (ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, TEXT VARCHAR(256))");
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
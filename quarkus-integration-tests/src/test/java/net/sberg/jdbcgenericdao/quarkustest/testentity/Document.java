@@ -0,0 +1,28 @@
+package net.sberg.jdbcgenericdao.quarkustest.testentity;
+
+import lombok.Data;
+import net.sberg.jdbcgenericdao.core.DaoDescriptorClass;
+import net.sberg.jdbcgenericdao.core.DaoDescriptorElement;
+
+import java.io.InputStream;
+import java.io.Reader;
+
+@Data
+@DaoDescriptorClass(dbTable = "DOCUMENT", primaryKey = "ID")
+public class Document {
+
+    @DaoDescriptorElement(dbProperty = "ID", notNull = true)
+    private Integer id;
+
+    @DaoDescriptorElement(dbProperty = "NAME")
+    private String name;
+
+    @DaoDescriptorElement(dbProperty = "THUMBNAIL")
+    private byte[] thumbnail;
+
+    @DaoDescriptorElement(dbProperty = "CONTENT")
+    private InputStream content;
+
+    @DaoDescriptorElement(dbProperty = "TEXT")
+    private Reader text;
+}
@@ -0,0 +1,17 @@
+package net.sberg.jdbcgenericdao.quarkustest.testentity;
+
+import lombok.Data;
+import net.sberg.jdbcgenericdao.core.DaoDescriptorClass;
+import net.sberg.jdbcgenericdao.core.DaoDescriptorElement;
+import net.sberg.jdbcgenericdao.core.DaoIdStrategy;
+
+@Data
+@DaoDescriptorClass(dbTable = "EVENT", primaryKey = "ID", idStrategy = DaoIdStrategy.SNOWFLAKE)
+public class Event {
+
+    @DaoDescriptorElement(dbProperty = "ID", notNull = true)
+    private Long id;
+
+    @DaoDescriptorElement(dbProperty = "NAME")
+    private String name;
+}
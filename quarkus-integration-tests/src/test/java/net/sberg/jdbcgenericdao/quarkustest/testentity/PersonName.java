@@ -0,0 +1,4 @@
+package net.sberg.jdbcgenericdao.quarkustest.testentity;
+
+public record PersonName(String lastName, Integer id) {
+}
@@ -0,0 +1,11 @@
+package net.sberg.jdbcgenericdao.quarkustest.testentity;
+
+import net.sberg.jdbcgenericdao.core.DaoDescriptorClass;
+import net.sberg.jdbcgenericdao.core.DaoDescriptorElement;
+
+@DaoDescriptorClass(dbTable = "PERSON", primaryKey = "ID")
+public record PersonRecord(
+        @DaoDescriptorElement(dbProperty = "ID", notNull = true) Integer id,
+        @DaoDescriptorElement(dbProperty = "FIRST_NAME") String firstName,
+        @DaoDescriptorElement(dbProperty = "LAST_NAME") String lastName) {
+}
@@ -0,0 +1,17 @@
+package net.sberg.jdbcgenericdao.quarkustest.testentity;
+
+import lombok.Getter;
+import net.sberg.jdbcgenericdao.core.DaoDescriptorConstructor;
+
+@Getter
+public class PersonView {
+
+    private final Integer id;
+    private final String fullName;
+
+    @DaoDescriptorConstructor
+    public PersonView(Integer id, String firstName, String lastName) {
+        this.id = id;
+        this.fullName = firstName + " " + lastName;
+    }
+}
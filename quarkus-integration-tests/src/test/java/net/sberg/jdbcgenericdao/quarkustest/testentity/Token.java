@@ -0,0 +1,19 @@
+package net.sberg.jdbcgenericdao.quarkustest.testentity;
+
+import lombok.Data;
+import net.sberg.jdbcgenericdao.core.DaoDescriptorClass;
+import net.sberg.jdbcgenericdao.core.DaoDescriptorElement;
+import net.sberg.jdbcgenericdao.core.DaoIdStrategy;
+
+import java.util.UUID;
+
+@Data
+@DaoDescriptorClass(dbTable = "TOKEN", primaryKey = "ID", idStrategy = DaoIdStrategy.UUID_V7)
+public class Token {
+
+    @DaoDescriptorElement(dbProperty = "ID", notNull = true)
+    private UUID id;
+
+    @DaoDescriptorElement(dbProperty = "NAME")
+    private String name;
+}
@@ -0,0 +1,26 @@
+package net.sberg.jdbcgenericdao.quarkus;
+
+import net.sberg.jdbcgenericdao.core.DaoDescriptorBean;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// the descriptors of all @DaoDescriptorClass entities of the jandex index, built and recorded by the extension at build time
+public class DaoDescriptors {
+
+    private final Map<String, DaoDescriptorBean> descriptors;
+
+    public DaoDescriptors(Map<String, DaoDescriptorBean> descriptors) {
+        this.descriptors = descriptors;
+    }
+
+    public Map<String, DaoDescriptorBean> getDescriptors(String scanPackage) {
+        Map<String, DaoDescriptorBean> result = new HashMap<>();
+        for (Map.Entry<String, DaoDescriptorBean> entry : descriptors.entrySet()) {
+            if (entry.getKey().startsWith(scanPackage + ".")) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+}
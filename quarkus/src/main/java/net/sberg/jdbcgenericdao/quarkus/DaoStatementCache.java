@@ -0,0 +1,129 @@
+package net.sberg.jdbcgenericdao.quarkus;
+
+import io.agroal.api.AgroalPoolInterceptor;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// lru cache of prepared statements per physical connection. the statements are prepared on the unwrapped driver connection
+// so they outlive the pooled handle, agroal does not track them and its leak detection does not see them. a lease is only
+// taken from an open pooled handle and closed before the handle is returned, the physical connection itself is never
+// handed out. as pool interceptor the cache only holds connections acquired from the intercepted pool (the default
+// datasource) and closes their statements when the pool destroys them, connections of other datasources are not cached
+@Singleton
+class DaoStatementCache implements AgroalPoolInterceptor {
+
+    // closing a cached lease keeps the statement open for the next use
+    record Lease(PreparedStatement statement, boolean cached) implements AutoCloseable {
+        @Override
+        public void close() throws SQLException {
+            if (cached) {
+                statement.clearBatch();
+            } else {
+                statement.close();
+            }
+        }
+    }
+
+    @ConfigProperty(name = "jdbcGenericDao.statementCache.size", defaultValue = "0")
+    int size;
+
+    private final Map<Connection, Map<String, PreparedStatement>> caches = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    boolean isEnabled() {
+        return size > 0;
+    }
+
+    @Override
+    public void onConnectionAcquire(Connection connection) {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            caches.computeIfAbsent(connection.unwrap(Connection.class), o -> createCache());
+        } catch (SQLException e) {
+            // the connection stays uncached
+        }
+    }
+
+    @Override
+    public void onConnectionDestroy(Connection connection) {
+        Map<String, PreparedStatement> cache;
+        try {
+            cache = caches.remove(connection.unwrap(Connection.class));
+        } catch (SQLException e) {
+            return;
+        }
+        if (cache != null) {
+            cache.values().forEach(DaoStatementCache::closeQuietly);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException e) {
+            // the statement is dropped anyway
+        }
+    }
+
+    private Map<String, PreparedStatement> createCache() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= size) {
+                    return false;
+                }
+                closeQuietly(eldest.getValue());
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    // a physical connection is used by one thread at a time, its cache needs no lock
+    Lease prepare(Connection con, String sql, String keyColumn) throws SQLException {
+        Connection physical = con.unwrap(Connection.class);
+        Map<String, PreparedStatement> cache = caches.get(physical);
+        if (cache == null) {
+            // not from the intercepted pool, nothing would evict the cache
+            return new Lease(keyColumn == null ? con.prepareStatement(sql) : con.prepareStatement(sql, new String[]{keyColumn}), false);
+        }
+        String key = keyColumn == null ? sql : sql + '\u0000' + keyColumn;
+        PreparedStatement ps = cache.get(key);
+        if (ps != null && !ps.isClosed()) {
+            hits.increment();
+            ps.clearParameters();
+            return new Lease(ps, true);
+        }
+        misses.increment();
+        ps = keyColumn == null ? physical.prepareStatement(sql) : physical.prepareStatement(sql, new String[]{keyColumn});
+        cache.put(key, ps);
+        return new Lease(ps, true);
+    }
+
+    DaoStatementCacheStats getStats() {
+        int statements = 0;
+        for (Map<String, PreparedStatement> cache : caches.values()) {
+            statements += cache.size();
+        }
+        return new DaoStatementCacheStats(hits.sum(), misses.sum(), evictions.sum(), caches.size(), statements);
+    }
+
+    void clear() {
+        for (Map<String, PreparedStatement> cache : caches.values()) {
+            cache.values().forEach(DaoStatementCache::closeQuietly);
+        }
+        caches.clear();
+    }
+}
@@ -0,0 +1,14 @@
+package net.sberg.jdbcgenericdao.quarkus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DaoStatementCacheStats {
+    private long hits;
+    private long misses;
+    private long evictions;
+    private int connections;
+    private int statements;
+}
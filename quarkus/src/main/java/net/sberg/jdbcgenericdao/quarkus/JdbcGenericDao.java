@@ -1,18 +1,26 @@
 package net.sberg.jdbcgenericdao.quarkus;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 import jakarta.transaction.Transactional;
 import net.sberg.jdbcgenericdao.core.*;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import javax.sql.DataSource;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 
 @ApplicationScoped
 public class JdbcGenericDao extends AbstractJdbcGenericDao {
@@ -20,18 +28,207 @@ public class JdbcGenericDao extends AbstractJdbcGenericDao {
     @ConfigProperty(name = "jdbcGenericDao.scanPackage")
     String scanPackage;
 
+    @ConfigProperty(name = "jdbcGenericDao.dialect", defaultValue = "ANSI")
+    DaoDialect dialect;
+
+    @ConfigProperty(name = "jdbcGenericDao.parallelMapping.threshold", defaultValue = "0")
+    int parallelMappingThreshold;
+
+    @ConfigProperty(name = "jdbcGenericDao.parallelMapping.chunkSize", defaultValue = "256")
+    int parallelMappingChunkSize;
+
+    @ConfigProperty(name = "jdbcGenericDao.asyncInsert.batchSize", defaultValue = "100")
+    int asyncInsertBatchSize;
+
+    @ConfigProperty(name = "jdbcGenericDao.asyncInsert.maxDelayMicros", defaultValue = "1000")
+    long asyncInsertMaxDelayMicros;
+
+    @ConfigProperty(name = "jdbcGenericDao.asyncInsert.queueCapacity", defaultValue = "10000")
+    int asyncInsertQueueCapacity;
+
+    @ConfigProperty(name = "jdbcGenericDao.partition.fanOutWidth", defaultValue = "8")
+    int partitionFanOutWidth;
+
+    @ConfigProperty(name = "jdbcGenericDao.nodeId", defaultValue = "0")
+    int nodeId;
+
+    @ConfigProperty(name = "jdbcGenericDao.lob.materializeThreshold", defaultValue = "1048576")
+    int lobMaterializeThreshold;
+
+    @ConfigProperty(name = "jdbcGenericDao.session.statementCacheSize", defaultValue = "64")
+    int sessionStatementCacheSize;
+
+    @ConfigProperty(name = "jdbcGenericDao.singleFlight", defaultValue = "false")
+    boolean singleFlight;
+
+    @ConfigProperty(name = "jdbcGenericDao.warmUp", defaultValue = "false")
+    boolean warmUp;
+
+    @ConfigProperty(name = "jdbcGenericDao.snapshot.file")
+    Optional<String> snapshotFile;
+
+
+    @ConfigProperty(name = "jdbcGenericDao.readRouting", defaultValue = "ROUND_ROBIN")
+    DaoReadRouting readRouting;
+
     @Inject
     DataSource dataSource;
 
+    @Inject
+    DaoStatementCache statementCache;
+
+    @Inject
+    DaoDescriptors descriptors;
+
+    private volatile DaoReadRouter<DataSource> readRouter;
+    private final Object writeMarker = new Object();
+
+    @Inject
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
     @PostConstruct
     public void initialize() throws Exception {
-        init(scanPackage);
+        setDialect(dialect);
+        setParallelMapping(parallelMappingThreshold, parallelMappingChunkSize);
+        setAsyncInsert(asyncInsertBatchSize, asyncInsertMaxDelayMicros, asyncInsertQueueCapacity);
+        setPartitionFanOutWidth(partitionFanOutWidth);
+        setLobMaterializeThreshold(lobMaterializeThreshold);
+        setNodeId(nodeId);
+        setSessionStatementCacheSize(sessionStatementCacheSize);
+        setSingleFlight(singleFlight);
+        statementCache.clear();
+        // no class path scan, the extension recorded the descriptors at build time
+        init(descriptors.getDescriptors(scanPackage));
+        if (snapshotFile.isPresent()) {
+            loadSnapshot(Path.of(snapshotFile.get()));
+        }
+        if (warmUp) {
+            warmUp();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() throws Exception {
+        shutdownAsyncInserts();
+        if (snapshotFile.isPresent()) {
+            writeSnapshot(Path.of(snapshotFile.get()));
+        }
+        statementCache.clear();
+    }
+
+    public DaoStatementCacheStats getStatementCacheStats() {
+        return statementCache.getStats();
+    }
+
+    private DaoStatementCache.Lease prepare(Connection con, String sql, String keyColumn) throws SQLException {
+        if (statementCache.isEnabled()) {
+            return statementCache.prepare(con, sql, keyColumn);
+        }
+        return new DaoStatementCache.Lease(keyColumn == null ? con.prepareStatement(sql) : con.prepareStatement(sql, new String[]{keyColumn}), false);
+    }
+
+    // selects outside of a transaction and before the first write of a transaction go to one of the read datasources,
+    // agroal read datasources should be configured with jdbc.transactions=disabled to stay out of the jta transaction
+    public void setReadDataSources(List<DataSource> readDataSources) {
+        readRouter = readDataSources.isEmpty() ? null : new DaoReadRouter<>(readDataSources, readRouting);
+    }
+
+    @Override
+    protected void markWrite() {
+        if (readRouter != null && transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transactionSynchronizationRegistry.putResource(writeMarker, Boolean.TRUE);
+        }
+    }
+
+    private boolean isPinnedToPrimary() {
+        return transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_ACTIVE
+                && transactionSynchronizationRegistry.getResource(writeMarker) != null;
+    }
+
+    @Override
+    protected <T> List<T> queryReadOnly(String sql, PreparedStatementFiller filler, RowMapperFn<T> mapper, int maxRows) throws Exception {
+        DaoReadRouter<DataSource> router = readRouter;
+        if (router == null || isPinnedToPrimary()) {
+            return query(sql, filler, mapper, maxRows);
+        }
+        int idx = router.acquire();
+        try {
+            return query(router.get(idx), sql, filler, mapper, maxRows);
+        } finally {
+            router.release(idx);
+        }
+    }
+
+    @Override
+    protected <T> T queryForObjectReadOnly(String sql, PreparedStatementFiller filler, ResultSetExtractor<T> extractor) throws Exception {
+        DaoReadRouter<DataSource> router = readRouter;
+        if (router == null || isPinnedToPrimary()) {
+            return queryForObject(sql, filler, extractor);
+        }
+        int idx = router.acquire();
+        try {
+            return queryForObject(router.get(idx), sql, filler, extractor);
+        } finally {
+            router.release(idx);
+        }
+    }
+
+    // the warm-up statements stay prepared in the statement cache of the physical connection the warm-up ran on
+    @Override
+    protected PreparedStatement prepareWarmUpStatement(DaoSession session, String sql, String keyColumn) throws Exception {
+        if (!statementCache.isEnabled()) {
+            return super.prepareWarmUpStatement(session, sql, keyColumn);
+        }
+        try (DaoStatementCache.Lease lease = statementCache.prepare(session.getConnection(), sql, keyColumn)) {
+            return lease.statement();
+        }
+    }
+
+    // a session inside a jta transaction gets the connection enlisted in the transaction
+    @Override
+    protected Connection getSessionConnection() throws Exception {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    protected boolean isParallelFanOutAllowed() {
+        return transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_NO_TRANSACTION;
+    }
+
+    @Override
+    protected void registerUnitOfWork() {
+        if (transactionSynchronizationRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            return;
+        }
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+                try {
+                    flushUnitOfWork();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException("error on flushing the unit of work", e);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                discardUnitOfWork();
+            }
+        });
     }
 
     @Transactional
-    protected <T> List<T> query(String sql, PreparedStatementFiller filler, RowMapperFn<T> mapper) throws Exception {
+    protected <T> List<T> query(String sql, PreparedStatementFiller filler, RowMapperFn<T> mapper, int maxRows) throws Exception {
+        return query(dataSource, sql, filler, mapper, maxRows);
+    }
+
+    private <T> List<T> query(DataSource dataSource, String sql, PreparedStatementFiller filler, RowMapperFn<T> mapper, int maxRows) throws Exception {
         try (Connection con = dataSource.getConnection()) {
-            try (PreparedStatement ps = con.prepareStatement(sql)) {
+            try (DaoStatementCache.Lease lease = prepare(con, sql, null)) {
+                PreparedStatement ps = lease.statement();
+                ps.setMaxRows(maxRows);
                 if (filler != null) filler.setValues(ps);
                 try (ResultSet rs = ps.executeQuery()) {
                     List<T> result = new LinkedList<>();
@@ -47,8 +244,10 @@ public class JdbcGenericDao extends AbstractJdbcGenericDao {
 
     @Transactional
     protected int manipulate(String sql, PreparedStatementFiller filler) throws Exception {
+        markWrite();
         try (Connection con = dataSource.getConnection()) {
-            try (PreparedStatement ps = con.prepareStatement(sql)) {
+            try (DaoStatementCache.Lease lease = prepare(con, sql, null)) {
+                PreparedStatement ps = lease.statement();
                 if (filler != null) filler.setValues(ps);
                 return ps.executeUpdate();
             }
@@ -57,8 +256,10 @@ public class JdbcGenericDao extends AbstractJdbcGenericDao {
 
     @Transactional
     protected int[] batchManipulate(String sql, PreparedBatchStatementFiller filler) throws Exception {
+        markWrite();
         try (Connection con = dataSource.getConnection()) {
-            try (PreparedStatement ps = con.prepareStatement(sql)) {
+            try (DaoStatementCache.Lease lease = prepare(con, sql, null)) {
+                PreparedStatement ps = lease.statement();
                 for (int i = 0; i < filler.getBatchSize(); i++) {
                     filler.setValues(ps, i);
                     ps.addBatch();
@@ -69,9 +270,38 @@ public class JdbcGenericDao extends AbstractJdbcGenericDao {
     }
 
     @Transactional
-    protected <T> T queryForObject(String sql, ResultSetExtractor<T> extractor) throws Exception {
+    protected List<Object> batchManipulateReturningKeys(String sql, PreparedBatchStatementFiller filler, String keyColumn) throws Exception {
+        markWrite();
+        try (Connection con = dataSource.getConnection()) {
+            try (DaoStatementCache.Lease lease = prepare(con, sql, keyColumn)) {
+                PreparedStatement ps = lease.statement();
+                for (int i = 0; i < filler.getBatchSize(); i++) {
+                    filler.setValues(ps, i);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                List<Object> keys = new ArrayList<>(filler.getBatchSize());
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    while (rs.next()) {
+                        keys.add(rs.getObject(1));
+                    }
+                }
+                return keys;
+            }
+        }
+    }
+
+    @Transactional
+    protected <T> T queryForObject(String sql, PreparedStatementFiller filler, ResultSetExtractor<T> extractor) throws Exception {
+        return queryForObject(dataSource, sql, filler, extractor);
+    }
+
+    private <T> T queryForObject(DataSource dataSource, String sql, PreparedStatementFiller filler, ResultSetExtractor<T> extractor) throws Exception {
         try (Connection con = dataSource.getConnection()) {
-            try (PreparedStatement ps = con.prepareStatement(sql)) {
+            try (DaoStatementCache.Lease lease = prepare(con, sql, null)) {
+                PreparedStatement ps = lease.statement();
+                ps.setMaxRows(0);
+                if (filler != null) filler.setValues(ps);
                 try (ResultSet rs = ps.executeQuery()) {
                     return extractor.extract(rs);
                 }
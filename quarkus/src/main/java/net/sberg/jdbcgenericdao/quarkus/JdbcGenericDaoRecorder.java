@@ -0,0 +1,15 @@
+package net.sberg.jdbcgenericdao.quarkus;
+
+import io.quarkus.runtime.annotations.Recorder;
+import net.sberg.jdbcgenericdao.core.DaoDescriptorBean;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Recorder
+public class JdbcGenericDaoRecorder {
+
+    public Supplier<DaoDescriptors> createDescriptors(Map<String, DaoDescriptorBean> descriptors) {
+        return () -> new DaoDescriptors(descriptors);
+    }
+}
@@ -1,19 +1,32 @@
 package net.sberg.jdbcgenericdao.springboot;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import net.sberg.jdbcgenericdao.core.AbstractJdbcGenericDao;
+import net.sberg.jdbcgenericdao.core.DaoDialect;
+import net.sberg.jdbcgenericdao.core.DaoReadRouter;
+import net.sberg.jdbcgenericdao.core.DaoReadRouting;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.*;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Repository
 public class JdbcGenericDao extends AbstractJdbcGenericDao {
@@ -21,7 +34,51 @@ public class JdbcGenericDao extends AbstractJdbcGenericDao {
     @Value("${jdbcGenericDao.scanPackage}")
     private String scanPackage;
 
+    @Value("${jdbcGenericDao.dialect:ANSI}")
+    private DaoDialect dialect;
+
+    @Value("${jdbcGenericDao.parallelMapping.threshold:0}")
+    private int parallelMappingThreshold;
+
+    @Value("${jdbcGenericDao.parallelMapping.chunkSize:256}")
+    private int parallelMappingChunkSize;
+
+    @Value("${jdbcGenericDao.asyncInsert.batchSize:100}")
+    private int asyncInsertBatchSize;
+
+    @Value("${jdbcGenericDao.asyncInsert.maxDelayMicros:1000}")
+    private long asyncInsertMaxDelayMicros;
+
+    @Value("${jdbcGenericDao.asyncInsert.queueCapacity:10000}")
+    private int asyncInsertQueueCapacity;
+
+    @Value("${jdbcGenericDao.partition.fanOutWidth:8}")
+    private int partitionFanOutWidth;
+
+    @Value("${jdbcGenericDao.nodeId:0}")
+    private int nodeId;
+
+    @Value("${jdbcGenericDao.lob.materializeThreshold:1048576}")
+    private int lobMaterializeThreshold;
+
+    @Value("${jdbcGenericDao.session.statementCacheSize:64}")
+    private int sessionStatementCacheSize;
+
+    @Value("${jdbcGenericDao.singleFlight:false}")
+    private boolean singleFlight;
+
+    @Value("${jdbcGenericDao.warmUp:false}")
+    private boolean warmUp;
+
+    @Value("${jdbcGenericDao.snapshot.file:}")
+    private String snapshotFile;
+
+    @Value("${jdbcGenericDao.readRouting:ROUND_ROBIN}")
+    private DaoReadRouting readRouting;
+
     private final JdbcTemplate jdbcTemplate;
+    private volatile DaoReadRouter<JdbcTemplate> readRouter;
+    private final Object writeMarker = new Object();
 
     public JdbcGenericDao(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
@@ -29,17 +86,134 @@ public class JdbcGenericDao extends AbstractJdbcGenericDao {
 
     @PostConstruct
     public void initialize() throws Exception {
+        setDialect(dialect);
+        setParallelMapping(parallelMappingThreshold, parallelMappingChunkSize);
+        setAsyncInsert(asyncInsertBatchSize, asyncInsertMaxDelayMicros, asyncInsertQueueCapacity);
+        setPartitionFanOutWidth(partitionFanOutWidth);
+        setLobMaterializeThreshold(lobMaterializeThreshold);
+        setNodeId(nodeId);
+        setSessionStatementCacheSize(sessionStatementCacheSize);
+        setSingleFlight(singleFlight);
         init(scanPackage);
+        if (!snapshotFile.isEmpty()) {
+            loadSnapshot(Path.of(snapshotFile));
+        }
+        if (warmUp) {
+            warmUp();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() throws Exception {
+        shutdownAsyncInserts();
+        if (!snapshotFile.isEmpty()) {
+            writeSnapshot(Path.of(snapshotFile));
+        }
+    }
+
+    // selects outside of a transaction and before the first write of a transaction go to one of the read datasources
+    public void setReadDataSources(List<DataSource> readDataSources) {
+        readRouter = readDataSources.isEmpty()
+                ? null
+                : new DaoReadRouter<>(readDataSources.stream().map(JdbcTemplate::new).collect(Collectors.toList()), readRouting);
+    }
+
+    @Override
+    protected void markWrite() {
+        if (readRouter == null || !TransactionSynchronizationManager.isSynchronizationActive() || TransactionSynchronizationManager.hasResource(writeMarker)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(writeMarker, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writeMarker);
+            }
+        });
+    }
+
+    @Override
+    protected <T> List<T> queryReadOnly(String sql, PreparedStatementFiller filler, RowMapperFn<T> mapper, int maxRows) throws Exception {
+        DaoReadRouter<JdbcTemplate> router = readRouter;
+        if (router == null || TransactionSynchronizationManager.hasResource(writeMarker)) {
+            return query(sql, filler, mapper, maxRows);
+        }
+        int idx = router.acquire();
+        try {
+            return query(router.get(idx), sql, filler, mapper, maxRows);
+        } finally {
+            router.release(idx);
+        }
+    }
+
+    @Override
+    protected <T> T queryForObjectReadOnly(String sql, PreparedStatementFiller filler, ResultSetExtractor<T> extractor) throws Exception {
+        DaoReadRouter<JdbcTemplate> router = readRouter;
+        if (router == null || TransactionSynchronizationManager.hasResource(writeMarker)) {
+            return queryForObject(sql, filler, extractor);
+        }
+        int idx = router.acquire();
+        try {
+            return queryForObject(router.get(idx), sql, filler, extractor);
+        } finally {
+            router.release(idx);
+        }
+    }
+
+    // a session inside a transaction works on the connection of the transaction
+    @Override
+    protected Connection getSessionConnection() {
+        return DataSourceUtils.getConnection(jdbcTemplate.getDataSource());
+    }
+
+    @Override
+    protected void releaseSessionConnection(Connection connection) {
+        DataSourceUtils.releaseConnection(connection, jdbcTemplate.getDataSource());
+    }
+
+    @Override
+    protected boolean isParallelFanOutAllowed() {
+        return !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    @Override
+    protected void registerUnitOfWork() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                try {
+                    flushUnitOfWork();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException("error on flushing the unit of work", e);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                discardUnitOfWork();
+            }
+        });
     }
 
     @Transactional
-    protected <T> List<T> query(String sql, PreparedStatementFiller filler, RowMapperFn<T> mapper) throws Exception {
+    protected <T> List<T> query(String sql, PreparedStatementFiller filler, RowMapperFn<T> mapper, int maxRows) throws Exception {
+        return query(jdbcTemplate, sql, filler, mapper, maxRows);
+    }
+
+    private <T> List<T> query(JdbcTemplate jdbcTemplate, String sql, PreparedStatementFiller filler, RowMapperFn<T> mapper, int maxRows) throws Exception {
         return jdbcTemplate.query(
-            sql,
-            new PreparedStatementSetter() {
+            new PreparedStatementCreator() {
                 @Override
-                public void setValues(PreparedStatement ps) throws SQLException {
+                public PreparedStatement createPreparedStatement(Connection con) throws SQLException {
+                    PreparedStatement ps = con.prepareStatement(sql);
+                    if (maxRows > 0) ps.setMaxRows(maxRows);
                     filler.setValues(ps);
+                    return ps;
                 }
             },
             new RowMapper<T>() {
@@ -53,6 +227,7 @@ public class JdbcGenericDao extends AbstractJdbcGenericDao {
 
     @Transactional
     protected int manipulate(String sql, PreparedStatementFiller filler) throws Exception {
+        markWrite();
         return jdbcTemplate.update(
             sql,
             new PreparedStatementSetter() {
@@ -66,6 +241,7 @@ public class JdbcGenericDao extends AbstractJdbcGenericDao {
 
     @Transactional
     protected int[] batchManipulate(String sql, PreparedBatchStatementFiller filler) throws Exception {
+        markWrite();
         return jdbcTemplate.batchUpdate(
             sql,
             new BatchPreparedStatementSetter() {
@@ -83,9 +259,41 @@ public class JdbcGenericDao extends AbstractJdbcGenericDao {
     }
 
     @Transactional
-    protected <T> T queryForObject(String sql, ResultSetExtractor<T> extractor) throws Exception {
+    protected List<Object> batchManipulateReturningKeys(String sql, PreparedBatchStatementFiller filler, String keyColumn) throws Exception {
+        markWrite();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            con -> con.prepareStatement(sql, new String[]{keyColumn}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    filler.setValues(ps, i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return filler.getBatchSize();
+                }
+            },
+            keyHolder
+        );
+        return keyHolder.getKeyList().stream().map(keys -> keys.values().iterator().next()).collect(Collectors.toList());
+    }
+
+    @Transactional
+    protected <T> T queryForObject(String sql, PreparedStatementFiller filler, ResultSetExtractor<T> extractor) throws Exception {
+        return queryForObject(jdbcTemplate, sql, filler, extractor);
+    }
+
+    private <T> T queryForObject(JdbcTemplate jdbcTemplate, String sql, PreparedStatementFiller filler, ResultSetExtractor<T> extractor) throws Exception {
         return jdbcTemplate.query(
             sql,
+            new PreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps) throws SQLException {
+                    if (filler != null) filler.setValues(ps);
+                }
+            },
             new org.springframework.jdbc.core.ResultSetExtractor<T>() {
                 @Override
                 public T extractData(ResultSet rs) throws SQLException, DataAccessException {
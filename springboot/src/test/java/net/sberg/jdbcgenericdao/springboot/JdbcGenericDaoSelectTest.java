@@ -1,19 +1,32 @@
 package net.sberg.jdbcgenericdao.springboot;
 
+import net.sberg.jdbcgenericdao.core.DaoHashPartitionStrategy;
 import net.sberg.jdbcgenericdao.core.DaoPlaceholderProperty;
 import net.sberg.jdbcgenericdao.core.DaoProjectionBean;
+import net.sberg.jdbcgenericdao.core.DaoSession;
+import net.sberg.jdbcgenericdao.springboot.testentity.Comment;
 import net.sberg.jdbcgenericdao.springboot.testentity.Person;
+import net.sberg.jdbcgenericdao.springboot.testentity.PersonRecord;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
 
 import javax.sql.DataSource;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.*;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +40,12 @@ class JdbcGenericDaoSelectTest {
     @Autowired
     private JdbcGenericDao jdbcGenericDao;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @BeforeEach
     void setupSchema() throws Exception {
         try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
@@ -166,4 +185,227 @@ class JdbcGenericDaoSelectTest {
         Person person = (Person)jdbcGenericDao.selectOne("select * from Person where id = ?", Person.class.getName(), null,List.of(new DaoPlaceholderProperty("id", 1)));
         assertNotNull(person);
     }
+
+    @Test
+    void selectByIds() throws Exception {
+        Map<Integer, Object> persons = jdbcGenericDao.selectByIds(Person.class.getName(), List.of(3, 1, 99, 3), null);
+        assertEquals(List.of(3, 1), new ArrayList<>(persons.keySet()));
+        assertEquals("Bob", ((Person)persons.get(3)).getFirstName());
+
+        // Long ids of an Integer primary key, keyed as passed
+        Map<Long, Object> byLongIds = jdbcGenericDao.selectByIds(Person.class.getName(), List.of(3L, 1L, 99L), null);
+        assertEquals(List.of(3L, 1L), new ArrayList<>(byLongIds.keySet()));
+        assertEquals("Bob", ((Person)byLongIds.get(3L)).getFirstName());
+    }
+
+    @Test
+    void selectByIds_withMapProjection() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 1; i <= 300; i++) {
+            ids.add(i);
+        }
+        Map<Integer, Object> persons = jdbcGenericDao.selectByIds(Person.class.getName(), ids, new DaoProjectionBean(List.of("id", "lastName"), Map.class, false));
+        assertEquals(3, persons.size());
+        assertEquals("Doe", ((Map)persons.get(2)).get("lastName"));
+    }
+
+    @Test
+    void streams() throws Exception {
+        // the stream reads on the connection of the transaction and leaves it open
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            Person person = new Person();
+            person.setFirstName("Eve");
+            jdbcGenericDao.insert(person, Optional.empty());
+            try (LongStream stream = jdbcGenericDao.streamLongs(Person.class.getName(), "id", null)) {
+                assertEquals(10, stream.sum());
+            }
+            assertEquals(4, jdbcGenericDao.count(Person.class.getName(), null));
+        } finally {
+            transactionManager.rollback(status);
+        }
+        try (LongStream stream = jdbcGenericDao.streamLongs(Person.class.getName(), "id", null)) {
+            assertEquals(6, stream.sum());
+        }
+    }
+
+    @Test
+    void unitOfWork() throws Exception {
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            jdbcGenericDao.beginUnitOfWork();
+            Person person = new Person();
+            person.setFirstName("Christian");
+            person.setLastName("Dethloff");
+            jdbcGenericDao.insert(person, Optional.empty());
+            person.setFirstName("Marlen");
+            jdbcGenericDao.update(person, Optional.empty());
+
+            Person transientPerson = new Person();
+            transientPerson.setFirstName("Temp");
+            jdbcGenericDao.insert(transientPerson, Optional.empty());
+            jdbcGenericDao.delete(transientPerson, Optional.empty());
+            jdbcGenericDao.delete(3, Person.class.getName(), Optional.empty());
+
+            assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PERSON", Integer.class));
+            transactionManager.commit(status);
+        } catch (Exception e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        assertFalse(jdbcGenericDao.isUnitOfWorkActive());
+
+        List<Person> persons = jdbcGenericDao.selectMany(Person.class.getName(), null, null);
+        assertEquals(List.of(1, 2, 4), persons.stream().map(Person::getId).sorted().toList());
+        assertEquals("Marlen", persons.stream().filter(o -> o.getId() == 4).findFirst().get().getFirstName());
+    }
+
+    @Test
+    void deleteByIds() throws Exception {
+        assertEquals(2, jdbcGenericDao.deleteByIds(Person.class.getName(), List.of(1, 3, 3, 99), Optional.empty()));
+        assertEquals(1, jdbcGenericDao.count(Person.class.getName(), null));
+
+        List<Object> persons = jdbcGenericDao.selectMany(Person.class.getName(), null, null);
+        assertEquals(1, jdbcGenericDao.batchDelete(persons, Optional.empty()));
+        assertFalse(jdbcGenericDao.exists(Person.class.getName(), null));
+    }
+
+    @Test
+    void readDataSources() throws Exception {
+        DataSource replica = createReplica();
+        try (Connection c = replica.getConnection(); Statement st = c.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS PERSON");
+            st.execute("CREATE TABLE PERSON (ID INT PRIMARY KEY, FIRST_NAME VARCHAR(64), LAST_NAME VARCHAR(64))");
+            st.execute("INSERT INTO PERSON (ID, FIRST_NAME, LAST_NAME) VALUES (7, 'Read', 'Replica')");
+        }
+        jdbcGenericDao.setReadDataSources(List.of(replica));
+        try {
+            assertEquals(1, jdbcGenericDao.count(Person.class.getName(), null));
+
+            TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+            try {
+                assertEquals(1, jdbcGenericDao.count(Person.class.getName(), null));
+                Person person = new Person();
+                person.setFirstName("Christian");
+                jdbcGenericDao.insert(person, Optional.empty());
+                assertEquals(4, jdbcGenericDao.count(Person.class.getName(), null));
+            } finally {
+                transactionManager.rollback(status);
+            }
+            assertEquals(1, jdbcGenericDao.count(Person.class.getName(), null));
+        } finally {
+            jdbcGenericDao.setReadDataSources(List.of());
+        }
+        assertEquals(3, jdbcGenericDao.count(Person.class.getName(), null));
+    }
+
+    private DataSource createReplica() {
+        return new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    void partitionedEntity() throws Exception {
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            for (String table : List.of("PERSON_0", "PERSON_1")) {
+                st.execute("DROP TABLE IF EXISTS " + table);
+                st.execute("CREATE TABLE " + table + " (ID INT PRIMARY KEY, FIRST_NAME VARCHAR(64), LAST_NAME VARCHAR(64))");
+            }
+        }
+        DaoHashPartitionStrategy partitionStrategy = new DaoHashPartitionStrategy("lastName", "PERSON", 2);
+        jdbcGenericDao.registerPartitionStrategy(Person.class.getName(), partitionStrategy);
+
+        List<Object> persons = new ArrayList<>();
+        for (String[] name : List.of(new String[]{"Dana", "Doe"}, new String[]{"Bob", "Smith"}, new String[]{"Carl", "Miller"}, new String[]{"Anna", "Doe"})) {
+            Person person = new Person();
+            person.setFirstName(name[0]);
+            person.setLastName(name[1]);
+            persons.add(person);
+        }
+        jdbcGenericDao.batchInsert(persons, Optional.empty());
+
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM " + partitionStrategy.getTableName("Doe") + " WHERE LAST_NAME = 'Doe'")) {
+            rs.next();
+            assertEquals(2, rs.getInt(1));
+        }
+        assertEquals(4, jdbcGenericDao.count(Person.class.getName(), null));
+        assertEquals(2, jdbcGenericDao.count(Person.class.getName(), List.of(new DaoPlaceholderProperty("lastName", "Doe"))));
+
+        List<Person> ordered = jdbcGenericDao.selectManyOrdered(Person.class.getName(), null, null, "firstName");
+        assertEquals(List.of("Anna", "Bob", "Carl", "Dana"), ordered.stream().map(Person::getFirstName).toList());
+        assertEquals(List.of(4, 5, 6, 7), ordered.stream().map(Person::getId).sorted().toList());
+
+        // inside a spring transaction the partitions are read one after another on its connection
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            assertEquals(ordered, jdbcGenericDao.selectManyOrdered(Person.class.getName(), null, null, "firstName"));
+            assertEquals(4, jdbcGenericDao.count(Person.class.getName(), null));
+        } finally {
+            transactionManager.rollback(status);
+        }
+
+        assertEquals(1, jdbcGenericDao.deleteByIds(Person.class.getName(), List.of(ordered.getFirst().getId()), Optional.empty()));
+        assertEquals(3, jdbcGenericDao.selectMany(Person.class.getName(), null, null).size());
+    }
+
+    @Test
+    void identityIds() throws Exception {
+        Comment first = new Comment();
+        first.setText("first");
+        jdbcGenericDao.insert(first, Optional.empty());
+        assertNotNull(first.getId());
+
+        List<Object> comments = new ArrayList<>();
+        for (String text : List.of("second", "third", "fourth")) {
+            Comment comment = new Comment();
+            comment.setText(text);
+            comments.add(comment);
+        }
+        jdbcGenericDao.batchInsert(comments, Optional.empty());
+        List<Long> ids = comments.stream().map(o -> ((Comment) o).getId()).toList();
+        assertEquals(List.of(first.getId() + 1, first.getId() + 2, first.getId() + 3), ids);
+
+        Map<Long, Object> found = jdbcGenericDao.selectByIds(Comment.class.getName(), ids, null);
+        assertEquals(List.of("second", "third", "fourth"), found.values().stream().map(o -> ((Comment) o).getText()).toList());
+        assertEquals(4, jdbcGenericDao.deleteByIds(Comment.class.getName(), List.of(first.getId(), ids.get(0), ids.get(1), ids.get(2)), Optional.empty()));
+    }
+
+    @Test
+    void entityIndex() throws Exception {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("META-INF/jdbcgenericdao/entities")) {
+            assertNotNull(in);
+            List<String> entities = new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+            assertTrue(entities.contains(Person.class.getName()));
+            assertTrue(entities.contains(PersonRecord.class.getName()));
+        }
+        // the scan package was compiled with the processor, the class path scan is skipped
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("META-INF/jdbcgenericdao/packages")) {
+            assertTrue(new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList().contains(Person.class.getPackageName()));
+        }
+        assertNotNull(getClass().getClassLoader().getResource("META-INF/native-image/jdbcgenericdao/entities/reflect-config.json"));
+    }
+
+    @Test
+    void session() throws Exception {
+        try (DaoSession session = jdbcGenericDao.openSession()) {
+            for (int id = 1; id <= 3; id++) {
+                assertNotNull(jdbcGenericDao.selectOne(Person.class.getName(), null, List.of(new DaoPlaceholderProperty("id", id))));
+            }
+            assertEquals(1, session.getPreparedStatementCount());
+
+            Person person = new Person();
+            person.setFirstName("Eve");
+            person.setLastName("Doe");
+            jdbcGenericDao.insert(person, Optional.empty());
+            try (DaoSession nested = jdbcGenericDao.openSession()) {
+                assertSame(session, nested);
+                assertEquals(4, jdbcGenericDao.count(Person.class.getName(), null));
+            }
+            assertTrue(jdbcGenericDao.isSessionActive());
+            assertFalse(session.getConnection().isClosed());
+        }
+        assertFalse(jdbcGenericDao.isSessionActive());
+        assertEquals(3, (long) jdbcGenericDao.inSession(() -> jdbcGenericDao.count(Person.class.getName(), List.of(new DaoPlaceholderProperty("lastName", "Doe")))));
+    }
+
 }
@@ -0,0 +1,17 @@
+package net.sberg.jdbcgenericdao.springboot.testentity;
+
+import lombok.Data;
+import net.sberg.jdbcgenericdao.core.DaoDescriptorClass;
+import net.sberg.jdbcgenericdao.core.DaoDescriptorElement;
+import net.sberg.jdbcgenericdao.core.DaoIdStrategy;
+
+@Data
+@DaoDescriptorClass(dbTable = "COMMENT", primaryKey = "ID", idStrategy = DaoIdStrategy.IDENTITY)
+public class Comment {
+
+    @DaoDescriptorElement(dbProperty = "ID", notNull = true)
+    private Long id;
+
+    @DaoDescriptorElement(dbProperty = "TEXT")
+    private String text;
+}
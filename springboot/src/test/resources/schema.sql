@@ -1 +1,2 @@
 CREATE TABLE PERSON (ID INT PRIMARY KEY, FIRST_NAME VARCHAR(64), LAST_NAME VARCHAR(64))
+CREATE TABLE COMMENT (ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, TEXT VARCHAR(256))